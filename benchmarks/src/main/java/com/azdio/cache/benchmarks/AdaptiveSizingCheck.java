@@ -0,0 +1,134 @@
+package com.azdio.cache.benchmarks;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.cache.Cache;
+
+import com.azdio.cache.HazelcastConfiguration;
+import com.azdio.cache.HazelcastService;
+import com.azdio.cache.reconfig.RegionChange;
+import com.azdio.cache.reconfig.RegionReconfigurationService;
+import com.azdio.cache.region.CacheRegionKind;
+import com.azdio.cache.sizing.RegionSizingController;
+import com.azdio.cache.stats.CacheStatsService;
+import com.azdio.cache.stats.ClusterCacheStats.RegionStats;
+import com.hazelcast.config.CacheSimpleConfig;
+import com.hazelcast.core.HazelcastInstance;
+
+/**
+ * Two entity regions sharing a heap budget the cold one nearly fills: a hot one whose working set is
+ * {@code check.working-set} times its size, read through with a put on every miss, and a cold one that is rarely read.
+ * Adaptive sizing must move the budget from the cold region to the hot one until the hot region stops missing, and end
+ * within the budget.
+ *
+ * <pre>
+ * java -Xmx2g -cp benchmarks/target/benchmarks.jar com.azdio.cache.benchmarks.AdaptiveSizingCheck
+ * </pre>
+ *
+ * Exits with 1 when the hot region still misses more than {@code check.max-miss-ratio} of its reads after
+ * {@code check.intervals} intervals, or the regions end over the budget.
+ */
+public final class AdaptiveSizingCheck {
+
+  private static final String HOT = "com.azdio.check.HotEntity";
+  private static final String COLD = "com.azdio.check.ColdEntity";
+  private static final int WORKING_SET = Integer.getInteger("check.working-set", 2);
+  private static final int VALUE_BYTES = 64;
+  private static final int INTERVALS = Integer.getInteger("check.intervals", 20);
+  private static final int READS_PER_INTERVAL = Integer.getInteger("check.reads-per-interval", 50000);
+  private static final double MAX_MISS_RATIO = Double.parseDouble(System.getProperty("check.max-miss-ratio", "0.05"));
+  private static final int HEAP_BUDGET_PERCENT = Integer.getInteger("check.heap-budget-percent", 2);
+
+  private AdaptiveSizingCheck() {
+  }
+
+  public static void main(final String[] args) {
+    final HazelcastConfiguration configuration = EmbeddedMember.configuration("check", "check", 5831);
+    final HazelcastConfiguration.AdaptiveSizing adaptiveSizing = configuration.getAdaptiveSizing();
+    adaptiveSizing.setEnabled(true);
+    adaptiveSizing.setHysteresisIntervals(1);
+    adaptiveSizing.setCooldownIntervals(0);
+    // the check only bounds the budget, not the old generation
+    adaptiveSizing.setHeapBudgetPercent(HEAP_BUDGET_PERCENT);
+    adaptiveSizing.setLowOldGenUsage(1);
+    adaptiveSizing.setHighOldGenUsage(1);
+    configuration.getStats().setTtlMillis(0);
+    configuration.getStats().setTimeoutMillis(10000);
+    final EmbeddedMember member = new EmbeddedMember(configuration);
+    final HazelcastService hazelcastService = member.getHazelcastService();
+    final CacheStatsService cacheStatsService = new CacheStatsService(hazelcastService);
+    final RegionReconfigurationService reconfigurationService = new RegionReconfigurationService(hazelcastService);
+    final RegionSizingController controller = new RegionSizingController(hazelcastService, cacheStatsService,
+        reconfigurationService);
+    final HazelcastInstance client = member.newClient();
+    final Random random = new Random(0);
+
+    // the cold region takes 90% of the budget, the hot one a quarter of that and needs twice as much
+    final long budgetBytes = Runtime.getRuntime().maxMemory() * HEAP_BUDGET_PERCENT / 100;
+    create(reconfigurationService, COLD, Integer.MAX_VALUE);
+    final Cache<Object, Object> cold = EmbeddedMember.clientCacheManager(client).getCache(COLD);
+    for (int i = 0; i < 1000; i++) {
+      cold.put(Payloads.key(CacheRegionKind.ENTITY, i), Payloads.value(CacheRegionKind.ENTITY, VALUE_BYTES, random));
+    }
+    final RegionStats sample = cacheStatsService.getStats().blockingGet().getRegions().get(COLD);
+    final int coldEntries = (int) (budgetBytes * 0.9 * sample.getOwnedEntries() / sample.getOwnedMemoryEstimate());
+    final int hotSize = coldEntries / 4;
+    adaptiveSizing.setMinSize(hotSize / 4);
+    resize(reconfigurationService, COLD, coldEntries);
+    for (int i = 1000; i < coldEntries; i++) {
+      cold.put(Payloads.key(CacheRegionKind.ENTITY, i), Payloads.value(CacheRegionKind.ENTITY, VALUE_BYTES, random));
+    }
+    create(reconfigurationService, HOT, hotSize);
+    final Cache<Object, Object> hot = EmbeddedMember.clientCacheManager(client).getCache(HOT);
+
+    double missRatio = 1;
+    for (int interval = 0; interval < INTERVALS; interval++) {
+      int misses = 0;
+      final ThreadLocalRandom current = ThreadLocalRandom.current();
+      for (int i = 0; i < READS_PER_INTERVAL; i++) {
+        final Object key = Payloads.key(CacheRegionKind.ENTITY, current.nextInt(hotSize * WORKING_SET));
+        if (hot.get(key) == null) {
+          misses++;
+          hot.put(key, Payloads.value(CacheRegionKind.ENTITY, VALUE_BYTES, random));
+        }
+        if (i % 100 == 0) {
+          cold.get(Payloads.key(CacheRegionKind.ENTITY, current.nextInt(coldEntries)));
+        }
+      }
+      missRatio = (double) misses / READS_PER_INTERVAL;
+      controller.run();
+      System.out.println(String.format("[check][interval %d][hot size %d][miss ratio %.3f][cold size %d]",
+          interval, size(hazelcastService, HOT), missRatio, size(hazelcastService, COLD)));
+    }
+
+    final Map<String, RegionStats> regions = cacheStatsService.getStats().blockingGet().getRegions();
+    final long usedBytes = regions.get(HOT).getOwnedMemoryEstimate() + regions.get(COLD).getOwnedMemoryEstimate();
+    System.out.println(String.format("[check][budget %.1f MB][used %.1f MB][hot size %d of %d][cold size %d of %d][final miss ratio %.3f]",
+        megabytes(budgetBytes), megabytes(usedBytes), size(hazelcastService, HOT), hotSize, size(hazelcastService, COLD),
+        coldEntries, missRatio));
+    client.shutdown();
+    member.shutdown();
+    System.exit(missRatio <= MAX_MISS_RATIO && usedBytes <= budgetBytes ? 0 : 1);
+  }
+
+  private static void create(final RegionReconfigurationService reconfigurationService, final String region, final int size) {
+    resize(reconfigurationService, region, size);
+  }
+
+  private static void resize(final RegionReconfigurationService reconfigurationService, final String region, final int size) {
+    final RegionChange change = new RegionChange();
+    change.setSize(size);
+    reconfigurationService.reconfigure(region, change, false).blockingGet();
+  }
+
+  private static double megabytes(final long bytes) {
+    return bytes / (1024.0 * 1024);
+  }
+
+  private static int size(final HazelcastService hazelcastService, final String region) {
+    final CacheSimpleConfig cacheConfig = hazelcastService.getCacheConfigs().get(region);
+    return cacheConfig.getEvictionConfig().getSize();
+  }
+}
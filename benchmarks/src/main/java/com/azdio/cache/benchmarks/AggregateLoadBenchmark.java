@@ -0,0 +1,165 @@
+package com.azdio.cache.benchmarks;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azdio.cache.HazelcastConfiguration;
+import com.azdio.cache.reconfig.RegionChange;
+import com.azdio.cache.reconfig.RegionReconfigurationService;
+import com.azdio.cache.region.CacheRegionKind;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastInstanceAware;
+import com.hazelcast.core.IExecutorService;
+import com.hazelcast.core.Member;
+
+/**
+ * Loading an aggregate, an entity and its three collections, from a 3-member cluster, with and without the
+ * {@link com.azdio.mdw.hazelcast.serialization.AggregatePartitioningStrategy colocation} of its keys.
+ * <ul>
+ * <li>{@code client}: four gets from a client, one after the other, as Hibernate initializes the collections.</li>
+ * <li>{@code owner}: one task sent to the owner of the entity, which reads the four regions there; a collection owned by
+ * another member is one more round trip.</li>
+ * </ul>
+ * The share of aggregates held by a single member is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregateLoadBenchmark {
+
+  private static final int MEMBERS = 3;
+  private static final int AGGREGATES = 10000;
+  private static final String EXECUTOR = "aggregate-load";
+
+  @Param({"false", "true"})
+  boolean colocated;
+
+  /** {@code client} or {@code owner}. */
+  @Param({"client", "owner"})
+  String read;
+
+  private final List<EmbeddedMember> members = new ArrayList<>();
+  private HazelcastInstance client;
+  private IExecutorService executor;
+  private String[] regions;
+  private final List<Cache<Object, Object>> caches = new ArrayList<>();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    final List<String> addresses = new ArrayList<>();
+    for (int i = 0; i < MEMBERS; i++) {
+      addresses.add("127.0.0.1:" + (5841 + i));
+    }
+    for (int i = 0; i < MEMBERS; i++) {
+      final HazelcastConfiguration configuration = EmbeddedMember.configuration("benchmark", "benchmark-" + i, 5841);
+      configuration.getConfig().getNetwork().getJoin().getTcpIp().setMembers(addresses);
+      configuration.getColocation().setEnabled(colocated);
+      members.add(new EmbeddedMember(configuration));
+    }
+    final EmbeddedMember first = members.get(0);
+    final String entity = first.region(CacheRegionKind.ENTITY);
+    regions = new String[] {entity, first.region(CacheRegionKind.COLLECTION), entity + ".cast", entity + ".genres"};
+    final RegionReconfigurationService reconfigurationService = new RegionReconfigurationService(first.getHazelcastService());
+    Arrays.stream(regions, 2, regions.length)
+        .forEach(region -> reconfigurationService.reconfigure(region, new RegionChange(), false).blockingGet());
+
+    client = first.newClient();
+    executor = client.getExecutorService(EXECUTOR);
+    final CacheManager cacheManager = EmbeddedMember.clientCacheManager(client);
+    final Random random = new Random(42);
+    int single = 0;
+    for (final String region : regions) {
+      caches.add(cacheManager.getCache(region));
+    }
+    for (long id = 0; id < AGGREGATES; id++) {
+      final Set<Member> owners = new HashSet<>();
+      for (int i = 0; i < regions.length; i++) {
+        final Object key = Payloads.cacheKey(id, regions[i]);
+        caches.get(i).put(key, Payloads.value(i == 0 ? CacheRegionKind.ENTITY : CacheRegionKind.COLLECTION, 256, random));
+        owners.add(client.getPartitionService().getPartition(key).getOwner());
+      }
+      single += owners.size() == 1 ? 1 : 0;
+    }
+    System.out.println(String.format("[benchmark][colocated: %s][aggregates on a single member: %.1f%%]",
+        colocated, 100.0 * single / AGGREGATES));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    client.shutdown();
+    members.forEach(EmbeddedMember::shutdown);
+  }
+
+  @Benchmark
+  public Object loadAggregate() throws InterruptedException, ExecutionException {
+    final long id = ThreadLocalRandom.current().nextInt(AGGREGATES);
+    if ("owner".equals(read)) {
+      return executor.submitToKeyOwner(new AggregateRead(id, regions), Payloads.cacheKey(id, regions[0])).get();
+    }
+    int found = 0;
+    for (int i = 0; i < regions.length; i++) {
+      found += caches.get(i).get(Payloads.cacheKey(id, regions[i])) == null ? 0 : 1;
+    }
+    return found;
+  }
+
+  /**
+   * Reads an aggregate on the member it runs on.
+   */
+  static final class AggregateRead implements Callable<Integer>, HazelcastInstanceAware, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long id;
+    private final String[] regions;
+    private transient HazelcastInstance hazelcastInstance;
+
+    AggregateRead(final long id, final String[] regions) {
+      this.id = id;
+      this.regions = regions;
+    }
+
+    @Override
+    public void setHazelcastInstance(final HazelcastInstance hazelcastInstance) {
+      this.hazelcastInstance = hazelcastInstance;
+    }
+
+    @Override
+    public Integer call() {
+      int found = 0;
+      for (final String region : regions) {
+        found += hazelcastInstance.getCacheManager().getCache(region).get(Payloads.cacheKey(id, region)) == null ? 0 : 1;
+      }
+      return found;
+    }
+  }
+}
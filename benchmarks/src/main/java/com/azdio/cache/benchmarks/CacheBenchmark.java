@@ -0,0 +1,174 @@
+package com.azdio.cache.benchmarks;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.Cache;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryExpiredListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azdio.cache.HazelcastConfiguration;
+import com.azdio.cache.region.CacheRegionKind;
+import com.azdio.mdw.hazelcast.listeners.CacheEntryListenerRoutes;
+import com.azdio.mdw.hazelcast.listeners.CacheEntryListenersProvider;
+import com.hazelcast.config.InMemoryFormat;
+
+/**
+ * get, put, getAll and putAll against one region of each kind of an embedded member.
+ * <p>
+ * {@code listeners}: {@code NONE} registers no entry listener, {@code UNSUBSCRIBED} registers the
+ * {@code CompositeCacheEntryListener} chain with no listener subscribed to the region, so the filter drops every event,
+ * and {@code SUBSCRIBED} adds a listener that does nothing to every region.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheBenchmark {
+
+  public enum Listeners {
+    NONE, UNSUBSCRIBED, SUBSCRIBED
+  }
+
+  private static final int KEYS = 10000;
+  private static final int BATCH_SIZE = 100;
+  private static final int BATCHES = 64;
+
+  @Param({"ENTITY", "COLLECTION", "QUERY", "TIMESTAMPS", "IMAGE"})
+  CacheRegionKind kind;
+
+  @Param({"BINARY", "OBJECT"})
+  InMemoryFormat format;
+
+  @Param({"NONE", "UNSUBSCRIBED", "SUBSCRIBED"})
+  Listeners listeners;
+
+  /** Approximate size of a value, in bytes; timestamps values are always a single long. */
+  @Param({"128", "4096", "65536"})
+  int valueSize;
+
+  private EmbeddedMember member;
+  private Cache<Object, Object> cache;
+  private Object[] keys;
+  private Object[] values;
+  private Set<Object>[] keyBatches;
+  private Map<Object, Object>[] entryBatches;
+
+  @Setup(Level.Trial)
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    final HazelcastConfiguration configuration = EmbeddedMember.configuration("benchmark", "benchmark", 5801);
+    final HazelcastConfiguration.CacheConfig cacheConfig = configuration.getCacheConfig().get(HazelcastConfiguration.DEFAULT);
+    cacheConfig.setInMemoryFormat(format);
+    cacheConfig.setSize(KEYS * 2);
+    if (listeners == Listeners.NONE) {
+      cacheConfig.setCacheEntryListenerFactory("");
+    } else if (listeners == Listeners.SUBSCRIBED) {
+      final NoOpListener listener = new NoOpListener();
+      CacheEntryListenersProvider.getCacheEntryCreatedListeners().add(listener);
+      CacheEntryListenersProvider.getCacheEntryUpdatedListener().add(listener);
+      CacheEntryListenersProvider.getCacheEntryRemovedListener().add(listener);
+      CacheEntryListenersProvider.getCacheEntryExpiredListener().add(listener);
+      CacheEntryListenerRoutes.clear();
+    }
+    member = new EmbeddedMember(configuration);
+    cache = member.getCacheManager().getCache(member.region(kind));
+
+    final Random random = new Random(42);
+    keys = new Object[KEYS];
+    values = new Object[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = Payloads.key(kind, i);
+      values[i] = Payloads.value(kind, valueSize, random);
+      cache.put(keys[i], values[i]);
+    }
+    keyBatches = (Set<Object>[]) new Set<?>[BATCHES];
+    entryBatches = (Map<Object, Object>[]) new Map<?, ?>[BATCHES];
+    for (int batch = 0; batch < BATCHES; batch++) {
+      keyBatches[batch] = new LinkedHashSet<>();
+      entryBatches[batch] = new HashMap<>();
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        final int index = random.nextInt(KEYS);
+        keyBatches[batch].add(keys[index]);
+        entryBatches[batch].put(keys[index], values[index]);
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    member.shutdown();
+  }
+
+  @Benchmark
+  public Object get() {
+    return cache.get(keys[ThreadLocalRandom.current().nextInt(KEYS)]);
+  }
+
+  @Benchmark
+  public void put() {
+    final int index = ThreadLocalRandom.current().nextInt(KEYS);
+    cache.put(keys[index], values[index]);
+  }
+
+  @Benchmark
+  public Map<Object, Object> getAll() {
+    return cache.getAll(keyBatches[ThreadLocalRandom.current().nextInt(BATCHES)]);
+  }
+
+  @Benchmark
+  public void putAll() {
+    cache.putAll(entryBatches[ThreadLocalRandom.current().nextInt(BATCHES)]);
+  }
+
+  static final class NoOpListener implements
+      CacheEntryCreatedListener<Object, Object>,
+      CacheEntryUpdatedListener<Object, Object>,
+      CacheEntryExpiredListener<Object, Object>,
+      CacheEntryRemovedListener<Object, Object> {
+
+    @Override
+    public void onCreated(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+      // NOP
+    }
+
+    @Override
+    public void onUpdated(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+      // NOP
+    }
+
+    @Override
+    public void onExpired(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+      // NOP
+    }
+
+    @Override
+    public void onRemoved(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+      // NOP
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package com.azdio.cache.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.Cache;
+
+import com.azdio.cache.HazelcastConfiguration;
+import com.azdio.cache.changefeed.ChangeBatch;
+import com.azdio.cache.changefeed.ChangeEvent;
+import com.azdio.cache.changefeed.ChangeFeedService;
+import com.azdio.cache.region.CacheRegionKind;
+import com.hazelcast.core.HazelcastInstance;
+
+import io.reactivex.Flowable;
+
+/**
+ * Streams the changes of an entity region of a two-member cluster while a client creates, updates and removes its
+ * entries: the stream is read slowly, dropped after {@code check.first-batches} batches, and resumed from the cursor of
+ * the last batch received. Every mutation must be received exactly once, in sequence order per partition. The whole
+ * journal is then replayed, to measure how fast a consumer catches up.
+ *
+ * <pre>
+ * java -Dcheck.entries=20000 -cp benchmarks/target/benchmarks.jar com.azdio.cache.benchmarks.ChangeFeedCheck
+ * </pre>
+ *
+ * Exits with 1 on any violation.
+ */
+public final class ChangeFeedCheck {
+
+  private static final int ENTRIES = Integer.getInteger("check.entries", 20000);
+  private static final int FIRST_BATCHES = Integer.getInteger("check.first-batches", 100);
+  private static final int VALUE_BYTES = 256;
+
+  private ChangeFeedCheck() {
+  }
+
+  public static void main(final String[] args) throws InterruptedException {
+    final List<EmbeddedMember> members = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      final HazelcastConfiguration configuration = EmbeddedMember.configuration("check", "check-" + i, 5851);
+      configuration.getConfig().getNetwork().getJoin().getTcpIp().setMembers(Arrays.asList("127.0.0.1:5851", "127.0.0.1:5852"));
+      final HazelcastConfiguration.CacheConfig cacheConfig = configuration.getCacheConfig().get(HazelcastConfiguration.DEFAULT);
+      cacheConfig.setEventJournalEnabled(true);
+      cacheConfig.setEventJournalCapacity(100 * ENTRIES);
+      configuration.getChangeFeed().setPollMillis(50);
+      members.add(new EmbeddedMember(configuration));
+    }
+    final String region = members.get(0).region(CacheRegionKind.ENTITY);
+    final ChangeFeedService changeFeedService = new ChangeFeedService(members.get(0).getHazelcastService());
+    final HazelcastInstance client = members.get(0).newClient();
+    final Cache<Object, Object> cache = EmbeddedMember.clientCacheManager(client).getCache(region);
+    final int expected = ENTRIES + ENTRIES / 2 + ENTRIES / 4;
+
+    final Thread writer = new Thread(() -> {
+      final Random random = new Random(0);
+      for (int i = 0; i < ENTRIES; i++) {
+        cache.put(Payloads.key(CacheRegionKind.ENTITY, i), Payloads.value(CacheRegionKind.ENTITY, VALUE_BYTES, random));
+      }
+      for (int i = 0; i < ENTRIES / 2; i++) {
+        cache.put(Payloads.key(CacheRegionKind.ENTITY, i), Payloads.value(CacheRegionKind.ENTITY, VALUE_BYTES, random));
+      }
+      for (int i = 0; i < ENTRIES / 4; i++) {
+        cache.remove(Payloads.key(CacheRegionKind.ENTITY, ENTRIES - 1 - i));
+      }
+    }, "check-writer");
+    final long start = System.nanoTime();
+    writer.start();
+
+    // a slow consumer first, one batch requested at a time
+    final Received received = new Received();
+    String cursor = null;
+    for (final ChangeBatch batch : changeFeedService.stream(region, null, true, 50).take(FIRST_BATCHES).blockingIterable(1)) {
+      received.add(batch);
+      cursor = batch.getCursor();
+      TimeUnit.MILLISECONDS.sleep(2);
+    }
+    final int firstEvents = received.count;
+    System.out.println(String.format("[check][first stream][%d batches][%d events]", FIRST_BATCHES, firstEvents));
+
+    // then a reconnecting one, until every mutation is received or nothing comes for 10 s
+    changeFeedService.stream(region, cursor, false, null)
+        .filter(batch -> !batch.getEvents().isEmpty() || batch.getLost() > 0)
+        .timeout(10, TimeUnit.SECONDS)
+        .doOnNext(received::add)
+        .takeUntil(batch -> received.count >= expected)
+        .onErrorResumeNext(Flowable.empty())
+        .blockingSubscribe();
+    writer.join();
+    final double seconds = (System.nanoTime() - start) / 1e9;
+
+    // a consumer catching up with the whole journal
+    final long replayStart = System.nanoTime();
+    final Received replayed = new Received();
+    changeFeedService.stream(region, null, true, null)
+        .filter(batch -> !batch.getEvents().isEmpty() || batch.getLost() > 0)
+        .timeout(10, TimeUnit.SECONDS)
+        .doOnNext(replayed::add)
+        .takeUntil(batch -> replayed.count >= expected)
+        .onErrorResumeNext(Flowable.empty())
+        .blockingSubscribe();
+    final double replaySeconds = (System.nanoTime() - replayStart) / 1e9;
+
+    final boolean ok = received.count == expected && received.duplicates == 0 && received.outOfOrder == 0
+        && received.lost == 0 && replayed.count == expected;
+    System.out.println(String.format(
+        "[check][%s][expected %d][received %d in %.1f s][after resume %d][duplicates %d][out of order %d][lost %d]"
+            + "[replayed %d at %.0f events/s]",
+        ok ? "OK" : "FAILED", expected, received.count, seconds, received.count - firstEvents, received.duplicates,
+        received.outOfOrder, received.lost, replayed.count, replayed.count / replaySeconds));
+    client.shutdown();
+    members.forEach(EmbeddedMember::shutdown);
+    System.exit(ok ? 0 : 1);
+  }
+
+  private static final class Received {
+
+    private final Set<String> seen = new HashSet<>();
+    private final long[] last = new long[10000];
+    private int count;
+    private int duplicates;
+    private int outOfOrder;
+    private long lost;
+
+    Received() {
+      Arrays.fill(last, -1);
+    }
+
+    void add(final ChangeBatch batch) {
+      lost += batch.getLost();
+      for (final ChangeEvent event : batch.getEvents()) {
+        count++;
+        if (!seen.add(event.getPartition() + ":" + event.getSequence())) {
+          duplicates++;
+        }
+        if (event.getSequence() != last[event.getPartition()] + 1 && last[event.getPartition()] >= 0) {
+          outOfOrder++;
+        }
+        last[event.getPartition()] = event.getSequence();
+      }
+    }
+  }
+}
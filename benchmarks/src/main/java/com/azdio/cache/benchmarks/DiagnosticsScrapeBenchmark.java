@@ -0,0 +1,84 @@
+package com.azdio.cache.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azdio.cache.HazelcastConfiguration;
+import com.azdio.cache.metrics.HazelcastDiagnosticsMetrics;
+import com.hazelcast.internal.metrics.LongGauge;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Reading every published Hazelcast probe, as a scrape does, once they are gauges of a Micrometer registry:
+ * <ul>
+ * <li>{@code slots}: the {@link HazelcastDiagnosticsMetrics} gauges, which read the values of the last step.</li>
+ * <li>{@code probes}: one gauge per probe reading it through the Hazelcast metrics registry on each scrape.</li>
+ * </ul>
+ * Run with {@code -prof gc} for the bytes allocated per scrape.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiagnosticsScrapeBenchmark {
+
+  @Param({"slots", "probes"})
+  String source;
+
+  private EmbeddedMember member;
+  private Meter[] meters;
+
+  @Setup(Level.Trial)
+  public void setUp() throws InterruptedException {
+    final HazelcastConfiguration configuration = EmbeddedMember.configuration("benchmark", "benchmark", 5871);
+    configuration.getDiagnostics().setEnabled(true);
+    configuration.getDiagnostics().setStepSeconds(1);
+    member = new EmbeddedMember(configuration);
+    final MeterRegistry registry = new SimpleMeterRegistry();
+    if ("slots".equals(source)) {
+      new HazelcastDiagnosticsMetrics(member.getHazelcastService()).bindTo(registry);
+      TimeUnit.SECONDS.sleep(2);
+    } else {
+      final MetricsRegistry metricsRegistry = member.getHazelcastService().getNodeEngine().getMetricsRegistry();
+      metricsRegistry.getNames().stream()
+          .filter(name -> configuration.getDiagnostics().getProbes().stream().anyMatch(name::startsWith))
+          .forEach(name -> Gauge.builder(name, metricsRegistry.newLongGauge(name), LongGauge::read).register(registry));
+    }
+    meters = registry.getMeters().toArray(new Meter[0]);
+    System.out.println(String.format("[benchmark][%s][%d gauges]", source, meters.length));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    member.shutdown();
+  }
+
+  @Benchmark
+  public double scrape() {
+    double sum = 0;
+    for (final Meter meter : meters) {
+      sum += ((Gauge) meter).value();
+    }
+    return sum;
+  }
+}
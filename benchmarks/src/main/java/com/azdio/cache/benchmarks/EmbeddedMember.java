@@ -0,0 +1,103 @@
+package com.azdio.cache.benchmarks;
+
+import java.util.Collections;
+import java.util.Properties;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import com.azdio.cache.HazelcastConfiguration;
+import com.azdio.cache.HazelcastService;
+import com.azdio.cache.region.CacheRegionKind;
+import com.azdio.mdw.hazelcast.serialization.AggregatePartitioningStrategy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.cache.HazelcastCachingProvider;
+import com.hazelcast.cache.impl.HazelcastServerCachingProvider;
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.cache.impl.HazelcastClientCachingProvider;
+import com.hazelcast.core.HazelcastInstance;
+
+/**
+ * A single member started through {@link HazelcastService} with the {@link HazelcastConfiguration} defaults, bound to
+ * localhost only.
+ */
+final class EmbeddedMember {
+
+  private final HazelcastService hazelcastService;
+  private final CacheManager cacheManager;
+
+  EmbeddedMember(final HazelcastConfiguration configuration) {
+    hazelcastService = new HazelcastService(configuration, new ObjectMapper());
+    hazelcastService.init();
+    cacheManager = Caching.getCachingProvider(HazelcastServerCachingProvider.class.getName())
+        .getCacheManager(null, null, HazelcastCachingProvider.propertiesByInstanceItself(hazelcastService.getHazelcastInstance()));
+  }
+
+  static HazelcastConfiguration configuration(final String groupName, final String instanceName, final int port) {
+    final HazelcastConfiguration.Config.Network.Join join = new HazelcastConfiguration.Config.Network.Join();
+    join.getTcpIp().setMembers(Collections.singletonList("127.0.0.1"));
+    final HazelcastConfiguration.Config.Network network = new HazelcastConfiguration.Config.Network();
+    network.setPort(port);
+    network.setInterfaces(new HazelcastConfiguration.Config.Network.Interfaces());
+    network.setJoin(join);
+    final HazelcastConfiguration.Config.Group group = new HazelcastConfiguration.Config.Group();
+    group.setName(groupName);
+    group.setPassword(groupName);
+    final Properties properties = new Properties();
+    properties.setProperty("hazelcast.logging.type", "none");
+    properties.setProperty("hazelcast.phone.home.enabled", "false");
+    final HazelcastConfiguration.Config config = new HazelcastConfiguration.Config();
+    config.setInstanceName(instanceName);
+    config.setGroup(group);
+    config.setNetwork(network);
+    config.setProperties(properties);
+
+    final HazelcastConfiguration configuration = new HazelcastConfiguration();
+    configuration.setConfig(config);
+    return configuration;
+  }
+
+  HazelcastService getHazelcastService() {
+    return hazelcastService;
+  }
+
+  CacheManager getCacheManager() {
+    return cacheManager;
+  }
+
+  /**
+   * A client configured the way the applications are, from {@link HazelcastService#getClientConfig()}.
+   */
+  HazelcastInstance newClient() {
+    if (hazelcastService.getHazelcastConfiguration().getColocation().isEnabled()) {
+      AggregatePartitioningStrategy.installOnClients(hazelcastService.getHazelcastConfiguration().getColocation());
+    }
+    return HazelcastClient.newHazelcastClient(hazelcastService.getClientConfig());
+  }
+
+  /**
+   * The cache manager of the client, from a provider of its own: a provider keeps one manager per URI and class loader,
+   * whatever the instance, and another URI would prefix the cache names.
+   */
+  static CacheManager clientCacheManager(final HazelcastInstance client) {
+    return HazelcastClientCachingProvider.createCachingProvider(client)
+        .getCacheManager(null, null, HazelcastCachingProvider.propertiesByInstanceItself(client));
+  }
+
+  /**
+   * The first configured region of the given kind.
+   */
+  String region(final CacheRegionKind kind) {
+    return hazelcastService.getCacheNames().stream()
+        .filter(cacheName -> hazelcastService.getRegionKind(cacheName) == kind)
+        .sorted()
+        .findFirst()
+        .orElseThrow(() -> new IllegalStateException("No " + kind.tag() + " region is configured"));
+  }
+
+  void shutdown() {
+    cacheManager.close();
+    hazelcastService.destroy();
+    hazelcastService.getHazelcastInstance().getLifecycleService().shutdown();
+  }
+}
@@ -0,0 +1,422 @@
+package com.azdio.cache.benchmarks;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.hazelcast.SessionUpdateEntryProcessor;
+
+import com.azdio.cache.HazelcastConfiguration;
+import com.azdio.cache.region.CacheRegionKind;
+import com.hazelcast.config.CacheSimpleConfig.ExpiryPolicyFactoryConfig.TimedExpiryPolicyFactoryConfig.ExpiryPolicyType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+
+/**
+ * Replays a Hibernate second-level cache and Spring Session traffic mix against a cluster of in-JVM members, reached
+ * through Hazelcast clients the way the applications reach it, while members leave and join. Latencies are recorded
+ * per operation and reported as p50/p99/p999 every {@code load.report-seconds}, on the console and as CSV, with the
+ * misses of the reads that put on a miss.
+ * <p>
+ * Build the benchmarks, then run for instance:
+ *
+ * <pre>
+ * java -Dload.members=3 -Dload.churn-seconds=30 -Dload.backup-count=1 \
+ *   -cp benchmarks/target/benchmarks.jar com.azdio.cache.benchmarks.LoadGenerator
+ * </pre>
+ *
+ * To compare expiry settings, warm the regions up with a short time to live and watch the misses when it runs out:
+ *
+ * <pre>
+ * java -Dload.members=1 -Dload.churn-seconds=0 -Dload.mix=entity-read=100 -Dload.report-seconds=1 -Dload.warm-up=true \
+ *   -Dload.ttl-seconds=20 -Dload.expiry-jitter-percent=25 -Dload.early-refresh-seconds=5 ...
+ * </pre>
+ *
+ * See {@link LoadOptions} for every option. Latencies include the client round trip; members share the JVM, so the
+ * numbers compare configurations with each other rather than predict production latencies.
+ */
+public final class LoadGenerator {
+
+  private static final String GROUP_NAME = "load";
+  private static final String SESSION_MAP = "spring:session:sessions:nb";
+  private static final String PLAYING_DEVICES_MAP = "PlayingDevices.vod";
+  private static final int TABLES = 16;
+  private static final long MAX_LATENCY = TimeUnit.SECONDS.toMicros(60);
+
+  private final LoadOptions options;
+  private final List<EmbeddedMember> members = new CopyOnWriteArrayList<>();
+  private final List<HazelcastInstance> clients = new ArrayList<>();
+  private final AtomicInteger memberIds = new AtomicInteger();
+  private final Map<LoadOperation, Recorder> recorders = new EnumMap<>(LoadOperation.class);
+  private final Map<LoadOperation, Histogram> totals = new EnumMap<>(LoadOperation.class);
+  private final Map<LoadOperation, AtomicLong> errors = new EnumMap<>(LoadOperation.class);
+  private final Map<LoadOperation, Long> totalErrors = new EnumMap<>(LoadOperation.class);
+  private final Map<LoadOperation, AtomicLong> misses = new EnumMap<>(LoadOperation.class);
+  private final Map<LoadOperation, Long> totalMisses = new EnumMap<>(LoadOperation.class);
+  private final LoadOperation[] schedule;
+  private final long started = System.nanoTime();
+  private volatile long loadStarted;
+  private volatile boolean running = true;
+  private boolean leaving = true;
+
+  private LoadGenerator(final LoadOptions options) {
+    this.options = options;
+    final List<LoadOperation> weighted = new ArrayList<>();
+    options.mix.forEach((operation, weight) -> {
+      recorders.put(operation, new Recorder(MAX_LATENCY, 3));
+      totals.put(operation, new Histogram(MAX_LATENCY, 3));
+      errors.put(operation, new AtomicLong());
+      totalErrors.put(operation, 0L);
+      misses.put(operation, new AtomicLong());
+      totalMisses.put(operation, 0L);
+      weighted.addAll(Collections.nCopies(weight, operation));
+    });
+    if (weighted.isEmpty()) {
+      throw new IllegalArgumentException("load.mix has no weighted operation");
+    }
+    schedule = weighted.toArray(new LoadOperation[0]);
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final LoadOptions options = new LoadOptions();
+    System.out.println("[load]" + options);
+    new LoadGenerator(options).run();
+    System.exit(0);
+  }
+
+  private void run() throws Exception {
+    for (int i = 0; i < options.members; i++) {
+      startMember();
+    }
+    final EmbeddedMember first = members.get(0);
+    for (int i = 0; i < options.clients; i++) {
+      clients.add(first.newClient());
+    }
+    final List<Traffic> traffic = new ArrayList<>();
+    for (final HazelcastInstance client : clients) {
+      traffic.add(new Traffic(client, first));
+    }
+    if (options.warmUp) {
+      traffic.get(0).warmUp();
+    }
+
+    final Path report = Paths.get(options.report);
+    if (report.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(report.toAbsolutePath().getParent());
+    }
+    try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(report, StandardCharsets.UTF_8))) {
+      csv.println("seconds,members,operation,count,ops_per_second,p50_us,p99_us,p999_us,max_us,errors,misses");
+
+      final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+      scheduler.scheduleAtFixedRate(() -> report(csv, false), options.reportSeconds, options.reportSeconds, TimeUnit.SECONDS);
+      if (options.churnSeconds > 0) {
+        scheduler.scheduleWithFixedDelay(this::churn, options.churnSeconds, options.churnSeconds, TimeUnit.SECONDS);
+      }
+      loadStarted = System.nanoTime();
+      final ExecutorService workers = Executors.newFixedThreadPool(options.threads);
+      for (int i = 0; i < options.threads; i++) {
+        final Traffic clientTraffic = traffic.get(i % traffic.size());
+        workers.execute(() -> work(clientTraffic));
+      }
+
+      TimeUnit.SECONDS.sleep(options.durationSeconds);
+      running = false;
+      workers.shutdown();
+      workers.awaitTermination(30, TimeUnit.SECONDS);
+      scheduler.shutdown();
+      scheduler.awaitTermination(options.churnSeconds + 30L, TimeUnit.SECONDS);
+      report(csv, false);
+      report(csv, true);
+    } finally {
+      clients.forEach(HazelcastInstance::shutdown);
+      members.forEach(EmbeddedMember::shutdown);
+    }
+    System.out.println("[load][report: " + report.toAbsolutePath() + "]");
+  }
+
+  private void startMember() {
+    final String instanceName = GROUP_NAME + "-" + memberIds.incrementAndGet();
+    final HazelcastConfiguration configuration = EmbeddedMember.configuration(GROUP_NAME, instanceName, options.port);
+    final List<String> addresses = new ArrayList<>();
+    for (int port = options.port; port <= options.port + options.members; port++) {
+      addresses.add("127.0.0.1:" + port);
+    }
+    configuration.getConfig().getNetwork().getJoin().getTcpIp().setMembers(addresses);
+    final HazelcastConfiguration.CacheConfig cacheConfig = configuration.getCacheConfig().get(HazelcastConfiguration.DEFAULT);
+    cacheConfig.setBackupCount(options.backupCount);
+    cacheConfig.setAsyncBackupCount(options.asyncBackupCount);
+    if (options.ttlSeconds > 0) {
+      cacheConfig.setDurationAmount(options.ttlSeconds);
+      cacheConfig.setTimeUnit(TimeUnit.SECONDS);
+    }
+    cacheConfig.setExpiryPolicyType(ExpiryPolicyType.valueOf(options.expiryPolicyType));
+    cacheConfig.setExpiryJitterPercent(options.expiryJitterPercent);
+    cacheConfig.setEarlyRefreshSeconds(options.earlyRefreshSeconds);
+    configuration.getHotKeys().setEnabled(options.earlyRefreshSeconds > 0);
+    members.add(new EmbeddedMember(configuration));
+    System.out.println("[load][" + seconds() + "s][member joined: " + instanceName + "][members: " + members.size() + "]");
+  }
+
+  /**
+   * Alternately stops the youngest member and starts a new one, so the cluster size oscillates around
+   * {@code load.members} and partitions migrate both ways.
+   */
+  private void churn() {
+    if (!running) {
+      return;
+    }
+    try {
+      if (leaving && members.size() > 1) {
+        final EmbeddedMember youngest = members.remove(members.size() - 1);
+        final String instanceName = youngest.getHazelcastService().getHazelcastInstance().getName();
+        youngest.shutdown();
+        System.out.println("[load][" + seconds() + "s][member left: " + instanceName + "][members: " + members.size() + "]");
+      } else {
+        startMember();
+      }
+      leaving = !leaving;
+    } catch (final RuntimeException e) {
+      System.out.println("[load][" + seconds() + "s][churn error: " + e + "]");
+    }
+  }
+
+  private void work(final Traffic traffic) {
+    final Random random = ThreadLocalRandom.current();
+    while (running) {
+      final LoadOperation operation = schedule[random.nextInt(schedule.length)];
+      final long start = System.nanoTime();
+      try {
+        if (traffic.execute(operation, random)) {
+          misses.get(operation).incrementAndGet();
+        }
+        recorders.get(operation).recordValue(Math.min(MAX_LATENCY, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+      } catch (final RuntimeException e) {
+        errors.get(operation).incrementAndGet();
+      }
+    }
+  }
+
+  private synchronized void report(final PrintWriter csv, final boolean total) {
+    final long seconds = seconds();
+    recorders.forEach((operation, recorder) -> {
+      final Histogram histogram;
+      final long errorCount;
+      final long missCount;
+      final double elapsed;
+      if (total) {
+        histogram = totals.get(operation);
+        errorCount = totalErrors.get(operation);
+        missCount = totalMisses.get(operation);
+        elapsed = (System.nanoTime() - loadStarted) / 1e9;
+      } else {
+        histogram = recorder.getIntervalHistogram();
+        totals.get(operation).add(histogram);
+        errorCount = errors.get(operation).getAndSet(0);
+        totalErrors.merge(operation, errorCount, Long::sum);
+        missCount = misses.get(operation).getAndSet(0);
+        totalMisses.merge(operation, missCount, Long::sum);
+        elapsed = Math.max(1, (histogram.getEndTimeStamp() - histogram.getStartTimeStamp()) / 1000.0);
+      }
+      final long count = histogram.getTotalCount();
+      final String interval = total ? "total" : seconds + "s";
+      System.out.println(String.format("[load][%s][members: %d][%s][ops/s: %.0f][p50: %dus][p99: %dus][p999: %dus][max: %dus][errors: %d][misses: %d]",
+          interval, members.size(), operation.tag(), count / elapsed,
+          histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9),
+          histogram.getMaxValue(), errorCount, missCount));
+      csv.println(String.format("%s,%d,%s,%d,%.0f,%d,%d,%d,%d,%d,%d",
+          total ? "total" : String.valueOf(seconds), members.size(), operation.tag(), count, count / elapsed,
+          histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9),
+          histogram.getMaxValue(), errorCount, missCount));
+    });
+    csv.flush();
+  }
+
+  private long seconds() {
+    return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started);
+  }
+
+  /**
+   * The regions and maps of one client, and the operations Hibernate and Spring Session run against them.
+   */
+  private final class Traffic {
+
+    private final Cache<Object, Object> entities;
+    private final Cache<Object, Object> queries;
+    private final Cache<Object, Object> timestamps;
+    private final IMap<String, MapSession> sessions;
+    private final IMap<String, Object> playingDevices;
+
+    Traffic(final HazelcastInstance client, final EmbeddedMember member) {
+      final CacheManager cacheManager = EmbeddedMember.clientCacheManager(client);
+      entities = cacheManager.getCache(member.region(CacheRegionKind.ENTITY));
+      queries = cacheManager.getCache(member.region(CacheRegionKind.QUERY));
+      timestamps = cacheManager.getCache(member.region(CacheRegionKind.TIMESTAMPS));
+      sessions = client.getMap(SESSION_MAP);
+      playingDevices = client.getMap(PLAYING_DEVICES_MAP);
+    }
+
+    /**
+     * @return whether a read missed
+     */
+    boolean execute(final LoadOperation operation, final Random random) {
+      switch (operation) {
+      case ENTITY_READ:
+        return entityRead(random);
+      case SOFT_LOCK_PUT:
+        softLockPut(random);
+        return false;
+      case QUERY:
+        return query(random);
+      case SESSION:
+        session(random);
+        return false;
+      case PLAYING_DEVICES:
+        playingDevices(random);
+        return false;
+      default:
+        throw new IllegalArgumentException(operation.name());
+      }
+    }
+
+    /**
+     * Puts every entity and query key, a thousand at a time on {@code load.threads} threads.
+     */
+    void warmUp() throws InterruptedException {
+      final long start = System.nanoTime();
+      final ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+      for (int from = 0; from < options.keys; from += 1000) {
+        final int batchStart = from;
+        executor.execute(() -> {
+          final Random random = ThreadLocalRandom.current();
+          final Map<Object, Object> entityBatch = new HashMap<>();
+          final Map<Object, Object> queryBatch = new HashMap<>();
+          for (int i = batchStart; i < Math.min(options.keys, batchStart + 1000); i++) {
+            entityBatch.put(Payloads.key(CacheRegionKind.ENTITY, i), Payloads.value(CacheRegionKind.ENTITY, options.valueSize, random));
+            queryBatch.put(Payloads.key(CacheRegionKind.QUERY, i), Payloads.value(CacheRegionKind.QUERY, options.valueSize, random));
+          }
+          entities.putAll(entityBatch);
+          queries.putAll(queryBatch);
+        });
+      }
+      executor.shutdown();
+      executor.awaitTermination(5, TimeUnit.MINUTES);
+      System.out.println("[load][warm-up][" + options.keys + " keys][" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms]");
+    }
+
+    private boolean entityRead(final Random random) {
+      final Object key = Payloads.key(CacheRegionKind.ENTITY, random.nextInt(options.keys));
+      if (entities.get(key) == null) {
+        entities.put(key, Payloads.value(CacheRegionKind.ENTITY, options.valueSize, random));
+        return true;
+      }
+      return false;
+    }
+
+    /**
+     * The calls of a read-write entity update: lock the entry and pre-invalidate the table, then write the new state
+     * and invalidate the table again at commit.
+     */
+    private void softLockPut(final Random random) {
+      final Object key = Payloads.key(CacheRegionKind.ENTITY, random.nextInt(options.keys));
+      final Object table = Payloads.key(CacheRegionKind.TIMESTAMPS, random.nextInt(TABLES));
+      entities.get(key);
+      entities.put(key, Payloads.softLock());
+      timestamps.put(table, System.currentTimeMillis() + 60000);
+      entities.put(key, Payloads.value(CacheRegionKind.ENTITY, options.valueSize, random));
+      timestamps.put(table, System.currentTimeMillis());
+    }
+
+    /**
+     * An up-to-date check of the query space followed by the query results lookup; stale or missing results are
+     * "re-executed" and put.
+     */
+    private boolean query(final Random random) {
+      final Object table = Payloads.key(CacheRegionKind.TIMESTAMPS, random.nextInt(TABLES));
+      final Object key = Payloads.key(CacheRegionKind.QUERY, random.nextInt(options.keys));
+      final Object invalidated = timestamps.get(table);
+      final Object results = queries.get(key);
+      if (results == null || invalidated instanceof Long && (Long) invalidated > System.currentTimeMillis()) {
+        queries.put(key, Payloads.value(CacheRegionKind.QUERY, options.valueSize, random));
+        return results == null;
+      }
+      return false;
+    }
+
+    /**
+     * One in ten saves creates a session; the others apply an attribute delta the way
+     * {@code HazelcastSessionRepository} does.
+     */
+    private void session(final Random random) {
+      final String id = "session-" + random.nextInt(options.keys);
+      if (random.nextInt(10) == 0) {
+        final MapSession session = new MapSession(id);
+        session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "user-" + random.nextInt(options.keys));
+        session.setMaxInactiveInterval(Duration.ofMinutes(30));
+        sessions.set(id, session, 30, TimeUnit.MINUTES);
+      } else {
+        sessions.executeOnKey(id, Sessions.update(Instant.now(), "lastPage", "/page/" + random.nextInt(100)));
+      }
+    }
+
+    private void playingDevices(final Random random) {
+      playingDevices.set("user-" + random.nextInt(options.keys), "device-" + random.nextInt(4) + ":" + System.currentTimeMillis());
+    }
+  }
+
+  /**
+   * The setters of {@link SessionUpdateEntryProcessor} are package-private, only the repository calls them.
+   */
+  private static final class Sessions {
+
+    private static final Method LAST_ACCESSED_TIME = setter("setLastAccessedTime", Instant.class);
+    private static final Method DELTA = setter("setDelta", Map.class);
+
+    static SessionUpdateEntryProcessor update(final Instant lastAccessedTime, final String attribute, final Object value) {
+      final SessionUpdateEntryProcessor processor = new SessionUpdateEntryProcessor();
+      try {
+        LAST_ACCESSED_TIME.invoke(processor, lastAccessedTime);
+        DELTA.invoke(processor, Collections.singletonMap(attribute, value));
+      } catch (final ReflectiveOperationException e) {
+        throw new IllegalStateException(e);
+      }
+      return processor;
+    }
+
+    private static Method setter(final String name, final Class<?> type) {
+      try {
+        final Method setter = SessionUpdateEntryProcessor.class.getDeclaredMethod(name, type);
+        setter.setAccessible(true);
+        return setter;
+      } catch (final NoSuchMethodException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.azdio.cache.benchmarks;
+
+/**
+ * The traffic patterns the {@link LoadGenerator} mixes.
+ */
+enum LoadOperation {
+
+  /** Entity region get, put from load on a miss. */
+  ENTITY_READ("entity-read"),
+  /** Read-write update: get, soft lock, timestamps pre-invalidation, put, timestamps invalidation. */
+  SOFT_LOCK_PUT("soft-lock-put"),
+  /** Timestamps check and query-results get, put on a miss. */
+  QUERY("query"),
+  /** Spring Session save: a new session or an attribute delta applied with the session entry processor. */
+  SESSION("session"),
+  /** VodTracking heartbeat into a PlayingDevices map. */
+  PLAYING_DEVICES("playing-devices");
+
+  private final String tag;
+
+  LoadOperation(final String tag) {
+    this.tag = tag;
+  }
+
+  String tag() {
+    return tag;
+  }
+
+  static LoadOperation of(final String tag) {
+    for (final LoadOperation operation : values()) {
+      if (operation.tag.equals(tag)) {
+        return operation;
+      }
+    }
+    throw new IllegalArgumentException("Unknown operation " + tag);
+  }
+}
@@ -0,0 +1,55 @@
+package com.azdio.cache.benchmarks;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Options of the {@link LoadGenerator}, read from {@code load.*} system properties.
+ */
+final class LoadOptions {
+
+  /** Members started before the load begins. */
+  final int members = Integer.getInteger("load.members", 3);
+  /** Hazelcast clients the worker threads are spread over, standing in for the applications. */
+  final int clients = Integer.getInteger("load.clients", 2);
+  final int threads = Integer.getInteger("load.threads", 16);
+  final int durationSeconds = Integer.getInteger("load.duration-seconds", 120);
+  final int reportSeconds = Integer.getInteger("load.report-seconds", 5);
+  /** Every interval, the youngest member leaves or a new member joins, alternately; 0 keeps the cluster stable. */
+  final int churnSeconds = Integer.getInteger("load.churn-seconds", 30);
+  final int backupCount = Integer.getInteger("load.backup-count", 1);
+  final int asyncBackupCount = Integer.getInteger("load.async-backup-count", 0);
+  /** Distinct keys per region and map. */
+  final int keys = Integer.getInteger("load.keys", 50000);
+  final int valueSize = Integer.getInteger("load.value-size", 512);
+  /** Time to live of the regions; 0 keeps the configured one. */
+  final int ttlSeconds = Integer.getInteger("load.ttl-seconds", 0);
+  final String expiryPolicyType = System.getProperty("load.expiry-policy-type", "CREATED");
+  final int expiryJitterPercent = Integer.getInteger("load.expiry-jitter-percent", 0);
+  final int earlyRefreshSeconds = Integer.getInteger("load.early-refresh-seconds", 0);
+  /** Every entity and query key is put before the load begins, so they all expire around the same time. */
+  final boolean warmUp = Boolean.getBoolean("load.warm-up");
+  final int port = Integer.getInteger("load.port", 5901);
+  /** CSV file the interval and total results are written to. */
+  final String report = System.getProperty("load.report", "target/load-report.csv");
+  /** Relative weight of each operation, e.g. {@code entity-read=60,soft-lock-put=10,query=20,session=5,playing-devices=5}. */
+  final Map<LoadOperation, Integer> mix = mix(System.getProperty("load.mix",
+      "entity-read=60,soft-lock-put=10,query=20,session=5,playing-devices=5"));
+
+  private static Map<LoadOperation, Integer> mix(final String mix) {
+    final Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+    for (final String weight : mix.split(",")) {
+      final String[] nameAndWeight = weight.trim().split("=");
+      weights.put(LoadOperation.of(nameAndWeight[0].trim()), Integer.parseInt(nameAndWeight[1].trim()));
+    }
+    return weights;
+  }
+
+  @Override
+  public String toString() {
+    return "[members: " + members + "][clients: " + clients + "][threads: " + threads + "][duration: " + durationSeconds
+        + "s][churn: " + churnSeconds + "s][backups: " + backupCount + "/" + asyncBackupCount + "][keys: " + keys
+        + "][value size: " + valueSize + "][ttl: " + ttlSeconds + "s " + expiryPolicyType + "][jitter: " + expiryJitterPercent
+        + "%][early refresh: " + earlyRefreshSeconds + "s][warm-up: " + warmUp + "][mix: " + mix + "]";
+  }
+}
@@ -0,0 +1,151 @@
+package com.azdio.cache.benchmarks;
+
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.cache.internal.QueryResultsCacheImpl;
+import org.hibernate.cache.spi.QueryKey;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.transform.CacheableResultTransformer;
+import org.hibernate.type.LongType;
+import org.hibernate.type.Type;
+
+import com.azdio.cache.region.CacheRegionKind;
+
+/**
+ * Keys and values shaped like the ones Hibernate stores in each kind of region, built through the same package-private
+ * constructors Hibernate uses.
+ */
+final class Payloads {
+
+  private static final String ENTITY_NAME = "com.azdio.mdw.domain.Benchmark";
+  private static final String QUERY = "select b.id from Benchmark b where b.owner = ?";
+
+  private Payloads() {
+  }
+
+  static Object key(final CacheRegionKind kind, final int i) {
+    switch (kind) {
+    case ENTITY:
+    case IMAGE:
+      return cacheKey((long) i, ENTITY_NAME);
+    case COLLECTION:
+      return cacheKey((long) i, ENTITY_NAME + ".children");
+    case QUERY:
+      return queryKey(i);
+    case TIMESTAMPS:
+      return "benchmark_table_" + i;
+    default:
+      throw new IllegalArgumentException(kind.name());
+    }
+  }
+
+  /**
+   * @param size approximate serialized size of the payload, in bytes
+   */
+  static Object value(final CacheRegionKind kind, final int size, final Random random) {
+    switch (kind) {
+    case ENTITY:
+      return item(entityEntry(new Serializable[] {text(size, random), random.nextLong(), random.nextInt(), new Date()}));
+    case IMAGE:
+      final byte[] content = new byte[size];
+      random.nextBytes(content);
+      return item(entityEntry(new Serializable[] {content, UUID.randomUUID().toString(), "image/jpeg"}));
+    case COLLECTION:
+      final Serializable[] ids = new Serializable[Math.max(1, size / 8)];
+      for (int i = 0; i < ids.length; i++) {
+        ids[i] = random.nextLong();
+      }
+      return item(newInstance(CollectionCacheEntry.class, new Class<?>[] {Serializable.class}, (Object) ids));
+    case QUERY:
+      final List<Object> results = new ArrayList<>();
+      for (int i = 0; i < Math.max(1, size / 8); i++) {
+        results.add(random.nextLong());
+      }
+      return newInstance(QueryResultsCacheImpl.CacheItem.class, new Class<?>[] {long.class, List.class},
+          System.currentTimeMillis(), results);
+    case TIMESTAMPS:
+      return System.currentTimeMillis();
+    default:
+      throw new IllegalArgumentException(kind.name());
+    }
+  }
+
+  static AbstractReadWriteAccess.SoftLockImpl softLock() {
+    return newInstance(AbstractReadWriteAccess.SoftLockImpl.class,
+        new Class<?>[] {long.class, UUID.class, long.class, Object.class}, 60000L, UUID.randomUUID(), 1L, 1);
+  }
+
+  private static StandardCacheEntryImpl entityEntry(final Serializable[] state) {
+    return newInstance(StandardCacheEntryImpl.class, new Class<?>[] {Serializable[].class, String.class, Object.class},
+        state, ENTITY_NAME, 1);
+  }
+
+  private static AbstractReadWriteAccess.Item item(final Object value) {
+    return newInstance(AbstractReadWriteAccess.Item.class, new Class<?>[] {Object.class, Object.class, long.class},
+        value, 1, System.currentTimeMillis());
+  }
+
+  static Object cacheKey(final Long id, final String entityOrRoleName) {
+    try {
+      return newInstance(Class.forName("org.hibernate.cache.internal.CacheKeyImplementation"),
+          new Class<?>[] {Object.class, Type.class, String.class, String.class, SessionFactoryImplementor.class},
+          id, LongType.INSTANCE, entityOrRoleName, null, null);
+    } catch (final ClassNotFoundException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static QueryKey queryKey(final int i) {
+    return queryKey(QUERY, i);
+  }
+
+  static QueryKey queryKey(final String sql, final int i) {
+    return newInstance(QueryKey.class, new Class<?>[] {String.class, Type[].class, Object[].class, Map.class,
+        Integer.class, Integer.class, Set.class, String.class, CacheableResultTransformer.class},
+        sql, new Type[] {LongType.INSTANCE}, new Object[] {(long) i}, new HashMap<>(), null, null,
+        Collections.emptySet(), null, null);
+  }
+
+  /**
+   * A reporting query of about {@code length} characters, selecting as many columns as needed.
+   */
+  static String sql(final int length) {
+    final StringBuilder sql = new StringBuilder("select r0_.id as id1_0_");
+    for (int column = 1; sql.length() < length - 60; column++) {
+      sql.append(", r0_.column_").append(column).append(" as col").append(column).append("_0_");
+    }
+    return sql.append(" from report_line r0_ where r0_.owner=?").toString();
+  }
+
+  private static String text(final int size, final Random random) {
+    final char[] text = new char[size];
+    for (int i = 0; i < size; i++) {
+      text[i] = (char) ('a' + random.nextInt(26));
+    }
+    return new String(text);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T newInstance(final Class<?> type, final Class<?>[] parameterTypes, final Object... arguments) {
+    try {
+      final Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+      constructor.setAccessible(true);
+      return (T) constructor.newInstance(arguments);
+    } catch (final ReflectiveOperationException e) {
+      throw new IllegalStateException("Cannot create " + type.getName(), e);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.azdio.cache.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azdio.cache.HazelcastConfiguration;
+import com.azdio.mdw.hazelcast.tracking.PlayingDevice;
+import com.azdio.mdw.hazelcast.tracking.PlayingDevices;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+
+/**
+ * VodTracking heartbeats through a client on a two-member cluster, {@value #HEARTBEATS} devices at a time: a full
+ * {@code set} of the string value as today, and the heartbeat entry processors of the high-write mode, without and with
+ * coalescing of the repeated heartbeats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class PlayingDevicesBenchmark {
+
+  private static final String MAP = "PlayingDevices.vod";
+  private static final int USERS = 10000;
+  private static final int HEARTBEATS = 100;
+  private static final long COALESCE_MILLIS = 5000;
+
+  /** {@code set}, {@code heartbeat} or {@code coalesced}. */
+  @Param({"set", "heartbeat", "coalesced"})
+  String mode;
+
+  private final List<EmbeddedMember> members = new ArrayList<>();
+  private HazelcastInstance client;
+  private IMap<String, Object> strings;
+  private IMap<String, PlayingDevice> playingDevices;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    for (int i = 0; i < 2; i++) {
+      final HazelcastConfiguration configuration = EmbeddedMember.configuration("benchmark", "benchmark-" + i, 5801);
+      configuration.getConfig().getNetwork().getJoin().getTcpIp().setMembers(Arrays.asList("127.0.0.1:5801", "127.0.0.1:5802"));
+      configuration.getPlayingDevices().setHighWriteEnabled(!"set".equals(mode));
+      members.add(new EmbeddedMember(configuration));
+    }
+    client = members.get(0).newClient();
+    strings = client.getMap(MAP);
+    playingDevices = client.getMap(MAP);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    client.shutdown();
+    members.forEach(EmbeddedMember::shutdown);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(HEARTBEATS)
+  public void heartbeats() throws InterruptedException, ExecutionException {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    if ("set".equals(mode)) {
+      for (int i = 0; i < HEARTBEATS; i++) {
+        strings.set(user(random), "device-" + random.nextInt(4) + ":" + System.currentTimeMillis());
+      }
+      return;
+    }
+    final long coalesceMillis = "coalesced".equals(mode) ? COALESCE_MILLIS : 0;
+    final List<Future<?>> futures = new ArrayList<>(HEARTBEATS);
+    for (int i = 0; i < HEARTBEATS; i++) {
+      futures.add(PlayingDevices.heartbeat(playingDevices, user(random), "device-" + random.nextInt(4), coalesceMillis));
+    }
+    for (final Future<?> future : futures) {
+      future.get();
+    }
+  }
+
+  private static String user(final ThreadLocalRandom random) {
+    return "user-" + random.nextInt(USERS);
+  }
+}
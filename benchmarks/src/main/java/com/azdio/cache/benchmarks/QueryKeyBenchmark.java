@@ -0,0 +1,75 @@
+package com.azdio.cache.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azdio.mdw.hazelcast.serialization.HibernateSerializers;
+import com.azdio.mdw.hazelcast.serialization.QueryKeyDigestSerializer;
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+
+/**
+ * Cost of a query key on every lookup, in full and as a {@link QueryKeyDigestSerializer digest}, for growing SQL: the
+ * serialization, the partition hash and the comparison the record store makes. The key size is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryKeyBenchmark {
+
+  @Param({"64", "1024", "8192"})
+  int sqlLength;
+
+  @Param({"false", "true"})
+  boolean digest;
+
+  private InternalSerializationService serializationService;
+  private Object key;
+  private Data data;
+  private Data other;
+
+  @Setup
+  public void setUp() {
+    final SerializationConfig serializationConfig = new SerializationConfig();
+    HibernateSerializers.serializerConfigs(digest).forEach(serializationConfig::addSerializerConfig);
+    serializationService = new DefaultSerializationServiceBuilder().setConfig(serializationConfig).build();
+    // the SQL of a query plan is one String instance, as in Hibernate
+    final String sql = Payloads.sql(sqlLength);
+    key = Payloads.queryKey(sql, 1);
+    data = serializationService.toData(key);
+    other = serializationService.toData(Payloads.queryKey(sql, 1));
+    System.out.println("[benchmark][query key][sql: " + sql.length() + " chars][digest: " + digest + "][size: "
+        + data.totalSize() + " bytes]");
+  }
+
+  @Benchmark
+  public Data toData() {
+    return serializationService.toData(key);
+  }
+
+  @Benchmark
+  public int partitionHash() {
+    return serializationService.toData(key).getPartitionHash();
+  }
+
+  @Benchmark
+  public boolean equalKeys() {
+    return data.equals(other);
+  }
+}
@@ -0,0 +1,117 @@
+package com.azdio.cache.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.cache.Cache;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.azdio.cache.HazelcastConfiguration;
+import com.azdio.cache.reconfig.RegionChange;
+import com.azdio.cache.reconfig.RegionReconfiguration;
+import com.azdio.cache.reconfig.RegionReconfigurationService;
+import com.azdio.cache.region.CacheRegionKind;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+
+/**
+ * Reconfigures a filled entity region of a two-member cluster while clients read it: in-memory format, size and one
+ * backup. No read may miss an entry during the migration, and once it is applied every entry must survive the abrupt
+ * loss of a member, which only the added backups allow.
+ *
+ * <pre>
+ * java -Dcheck.entries=20000 -cp benchmarks/target/benchmarks.jar com.azdio.cache.benchmarks.ReconfigurationCheck
+ * </pre>
+ *
+ * Exits with 1 on any violation.
+ */
+public final class ReconfigurationCheck {
+
+  private static final int ENTRIES = Integer.getInteger("check.entries", 20000);
+  private static final int READERS = Integer.getInteger("check.readers", 4);
+  private static final int VALUE_BYTES = 256;
+  private static final String TOKEN = "check";
+
+  private ReconfigurationCheck() {
+  }
+
+  public static void main(final String[] args) throws InterruptedException {
+    final List<EmbeddedMember> members = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      final HazelcastConfiguration configuration = EmbeddedMember.configuration("check", "check-" + i, 5821);
+      configuration.getConfig().getNetwork().getJoin().getTcpIp().setMembers(Arrays.asList("127.0.0.1:5821", "127.0.0.1:5822"));
+      configuration.getReconfiguration().setToken(TOKEN);
+      members.add(new EmbeddedMember(configuration));
+    }
+    final String region = members.get(0).region(CacheRegionKind.ENTITY);
+    final HazelcastInstance client = members.get(0).newClient();
+    final Cache<Object, Object> cache = EmbeddedMember.clientCacheManager(client).getCache(region);
+    final Random random = new Random(0);
+    for (int i = 0; i < ENTRIES; i++) {
+      cache.put(Payloads.key(CacheRegionKind.ENTITY, i), Payloads.value(CacheRegionKind.ENTITY, VALUE_BYTES, random));
+    }
+
+    final AtomicBoolean stop = new AtomicBoolean();
+    final AtomicLong reads = new AtomicLong();
+    final AtomicLong misses = new AtomicLong();
+    final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    final ExecutorService readers = Executors.newFixedThreadPool(READERS);
+    for (int i = 0; i < READERS; i++) {
+      readers.execute(() -> {
+        while (!stop.get()) {
+          final long start = System.nanoTime();
+          final Object read = cache.get(Payloads.key(CacheRegionKind.ENTITY, ThreadLocalRandom.current().nextInt(ENTRIES)));
+          latencies.recordValue(Math.min(latencies.getHighestTrackableValue(),
+              TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+          reads.incrementAndGet();
+          if (read == null) {
+            misses.incrementAndGet();
+          }
+        }
+      });
+    }
+    TimeUnit.SECONDS.sleep(1);
+
+    final RegionChange change = new RegionChange();
+    change.setInMemoryFormat(InMemoryFormat.OBJECT);
+    change.setSize(ENTRIES * 2);
+    change.setBackupCount(1);
+    final RegionReconfiguration reconfiguration = new RegionReconfigurationService(members.get(0).getHazelcastService())
+        .reconfigure("Bearer " + TOKEN, region, change, false)
+        .blockingGet();
+    TimeUnit.SECONDS.sleep(1);
+    stop.set(true);
+    readers.shutdown();
+    readers.awaitTermination(10, TimeUnit.SECONDS);
+    System.out.println("[check][" + region + "]" + reconfiguration);
+
+    int violations = (int) misses.get();
+    if (!reconfiguration.isApplied()) {
+      violations++;
+    }
+    members.get(1).getHazelcastService().getHazelcastInstance().getLifecycleService().terminate();
+    int lost = 0;
+    for (int i = 0; i < ENTRIES; i++) {
+      if (cache.get(Payloads.key(CacheRegionKind.ENTITY, i)) == null) {
+        lost++;
+      }
+    }
+    violations += lost;
+
+    System.out.println(String.format("[check][entries: %d][reads: %d][misses: %d][read p99: %dus][max: %dus][lost with a member: %d][violations: %d]",
+        ENTRIES, reads.get(), misses.get(), latencies.getValueAtPercentile(99), latencies.getMaxValue(), lost, violations));
+    client.shutdown();
+    members.get(0).shutdown();
+    System.exit(violations == 0 ? 0 : 1);
+  }
+}
@@ -0,0 +1,92 @@
+package com.azdio.cache.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azdio.cache.region.CacheRegionKind;
+import com.azdio.mdw.hazelcast.serialization.HibernateSerializers;
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+
+/**
+ * Hibernate payloads serialized by Hazelcast's default Java serialization and by {@link HibernateSerializers}. The
+ * serialized size of each payload is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+  public enum Payload {
+    ENTITY_KEY, ENTITY_VALUE, COLLECTION_VALUE, QUERY_KEY, QUERY_VALUE, SOFT_LOCK
+  }
+
+  @Param({"ENTITY_KEY", "ENTITY_VALUE", "COLLECTION_VALUE", "QUERY_KEY", "QUERY_VALUE", "SOFT_LOCK"})
+  Payload payload;
+
+  @Param({"false", "true"})
+  boolean compact;
+
+  private InternalSerializationService serializationService;
+  private Object object;
+  private Data data;
+
+  @Setup
+  public void setUp() {
+    final SerializationConfig serializationConfig = new SerializationConfig();
+    if (compact) {
+      HibernateSerializers.serializerConfigs().forEach(serializationConfig::addSerializerConfig);
+    }
+    serializationService = new DefaultSerializationServiceBuilder().setConfig(serializationConfig).build();
+    object = payload();
+    data = serializationService.toData(object);
+    System.out.println("[benchmark][" + payload + "][compact: " + compact + "][size: " + data.totalSize() + " bytes]");
+  }
+
+  @Benchmark
+  public Data toData() {
+    return serializationService.toData(object);
+  }
+
+  @Benchmark
+  public Object toObject() {
+    return serializationService.toObject(data);
+  }
+
+  private Object payload() {
+    final Random random = new Random(42);
+    switch (payload) {
+    case ENTITY_KEY:
+      return Payloads.key(CacheRegionKind.ENTITY, 1);
+    case ENTITY_VALUE:
+      return Payloads.value(CacheRegionKind.ENTITY, 128, random);
+    case COLLECTION_VALUE:
+      return Payloads.value(CacheRegionKind.COLLECTION, 128, random);
+    case QUERY_KEY:
+      return Payloads.key(CacheRegionKind.QUERY, 1);
+    case QUERY_VALUE:
+      return Payloads.value(CacheRegionKind.QUERY, 128, random);
+    case SOFT_LOCK:
+      return Payloads.softLock();
+    default:
+      throw new IllegalArgumentException(payload.name());
+    }
+  }
+}
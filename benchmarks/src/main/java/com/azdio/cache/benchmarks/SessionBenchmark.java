@@ -0,0 +1,103 @@
+package com.azdio.cache.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.hazelcast.HazelcastSessionRepository;
+
+import com.azdio.cache.HazelcastConfiguration;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+
+/**
+ * Spring Session through a client, for each session map profile: the sessions of a principal found by the principal
+ * name index, and a session saved with a few attributes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionBenchmark {
+
+  private static final String SESSION_MAP = "spring:session:sessions:benchmark";
+  private static final int SESSIONS = 10000;
+  private static final int PRINCIPALS = 1000;
+
+  @Param({"BINARY", "OBJECT"})
+  InMemoryFormat inMemoryFormat;
+
+  @Param({"false", "true"})
+  boolean principalIndexOrdered;
+
+  private EmbeddedMember member;
+  private HazelcastInstance client;
+  private HazelcastSessionRepository repository;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    final HazelcastConfiguration configuration = EmbeddedMember.configuration("benchmark", "benchmark", 5801);
+    final HazelcastConfiguration.SessionMap sessionMap = configuration.getSessionMaps().get("sessions");
+    sessionMap.setInMemoryFormat(inMemoryFormat);
+    sessionMap.setPrincipalIndexOrdered(principalIndexOrdered);
+    member = new EmbeddedMember(configuration);
+    client = member.newClient();
+    repository = new HazelcastSessionRepository(client);
+    repository.setSessionMapName(SESSION_MAP);
+    repository.init();
+    for (int i = 0; i < SESSIONS; i++) {
+      save(repository, principal(i % PRINCIPALS));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    repository.close();
+    client.shutdown();
+    member.shutdown();
+  }
+
+  @Benchmark
+  public Map<String, ?> findByPrincipalName() {
+    return repository.findByIndexNameAndIndexValue(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME,
+        principal(ThreadLocalRandom.current().nextInt(PRINCIPALS)));
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public String save() {
+    return save(repository, principal(ThreadLocalRandom.current().nextInt(PRINCIPALS)));
+  }
+
+  private static <S extends Session> String save(final SessionRepository<S> repository, final String principal) {
+    final S session = repository.createSession();
+    session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, principal);
+    session.setAttribute("locale", "en");
+    session.setAttribute("lastPage", "/catalog/" + principal);
+    repository.save(session);
+    return session.getId();
+  }
+
+  private static String principal(final int i) {
+    return "user-" + i;
+  }
+}
@@ -0,0 +1,93 @@
+package com.azdio.cache.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azdio.cache.HazelcastConfiguration;
+import com.azdio.cache.region.CacheRegionKind;
+import com.hazelcast.core.HazelcastInstance;
+
+/**
+ * A query cache hit as seen from an application: the up-to-date check of the query spaces in
+ * {@code default-update-timestamps-region}, one get from the owner per space, then the query results get, through a
+ * client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimestampsBenchmark {
+
+  private static final int TABLES = 64;
+  private static final int QUERIES = 1000;
+
+  /** Tables a query reads from, each one checked in the timestamps region. */
+  @Param({"1", "3"})
+  int spaces;
+
+  private EmbeddedMember member;
+  private HazelcastInstance client;
+  private Cache<Object, Object> timestamps;
+  private Cache<Object, Object> queries;
+  private Object[] tables;
+  private Object[] queryKeys;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    final HazelcastConfiguration configuration = EmbeddedMember.configuration("benchmark", "benchmark", 5801);
+    member = new EmbeddedMember(configuration);
+    client = member.newClient();
+    final CacheManager cacheManager = EmbeddedMember.clientCacheManager(client);
+    timestamps = cacheManager.getCache(CacheRegionKind.DEFAULT_UPDATE_TIMESTAMPS_REGION);
+    queries = cacheManager.getCache(member.region(CacheRegionKind.QUERY));
+
+    final Random random = new Random(42);
+    final long now = System.currentTimeMillis();
+    tables = new Object[TABLES];
+    for (int i = 0; i < TABLES; i++) {
+      tables[i] = Payloads.key(CacheRegionKind.TIMESTAMPS, i);
+      timestamps.put(tables[i], now);
+    }
+    queryKeys = new Object[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      queryKeys[i] = Payloads.key(CacheRegionKind.QUERY, i);
+      queries.put(queryKeys[i], Payloads.value(CacheRegionKind.QUERY, 128, random));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    client.shutdown();
+    member.shutdown();
+  }
+
+  @Benchmark
+  public Object queryCacheHit() {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    long lastUpdate = 0;
+    for (int i = 0; i < spaces; i++) {
+      lastUpdate = Math.max(lastUpdate, (Long) timestamps.get(tables[random.nextInt(TABLES)]));
+    }
+    return lastUpdate > 0 ? queries.get(queryKeys[random.nextInt(QUERIES)]) : null;
+  }
+}
@@ -0,0 +1,126 @@
+package com.azdio.cache.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.Cache;
+
+import org.HdrHistogram.Histogram;
+
+import com.azdio.cache.HazelcastConfiguration;
+import com.azdio.cache.region.CacheRegionKind;
+import com.hazelcast.core.HazelcastInstance;
+
+/**
+ * Replays the timestamps updates of Hibernate's read-write strategy through one client and reads them through two: the
+ * writer itself, and another application.
+ * <p>
+ * On every update of a table, Hibernate pre-invalidates it with a timestamp in the future before the transaction
+ * commits, then invalidates it with the commit time. Cached query results are only used when newer than the timestamps
+ * of all their tables, so a client must never read a timestamp older than one it has already read (monotonic reads),
+ * and the writer must read its own timestamps at once. The other client must read the pre-invalidation as soon as the
+ * transaction has committed, or it would use query results the transaction made stale, and the commit time as soon as
+ * the invalidation returns: any older read is a violation, however short the lag. The time the other client takes to
+ * read a timestamp is reported.
+ * <p>
+ * The timestamps region is given a near cache, which {@link com.azdio.cache.HazelcastService#getClientConfig()} must
+ * leave out.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.azdio.cache.benchmarks.TimestampsConsistencyCheck
+ * </pre>
+ *
+ * Exits with 1 on any violation.
+ */
+public final class TimestampsConsistencyCheck {
+
+  private static final int ITERATIONS = Integer.getInteger("check.iterations", 50);
+  private static final int TABLES = Integer.getInteger("check.tables", 8);
+  private static final long TIMEOUT = 60000;
+
+  private TimestampsConsistencyCheck() {
+  }
+
+  public static void main(final String[] args) {
+    final HazelcastConfiguration configuration = EmbeddedMember.configuration("check", "check", 5811);
+    final HazelcastConfiguration.CacheConfig timestampsConfig = new HazelcastConfiguration.CacheConfig();
+    timestampsConfig.getNearCache().setEnabled(true);
+    configuration.getCacheConfig().put(CacheRegionKind.DEFAULT_UPDATE_TIMESTAMPS_REGION, timestampsConfig);
+    final EmbeddedMember member = new EmbeddedMember(configuration);
+    final HazelcastInstance writerClient = member.newClient();
+    final HazelcastInstance readerClient = member.newClient();
+    final Cache<Object, Object> writer = EmbeddedMember.clientCacheManager(writerClient)
+        .getCache(CacheRegionKind.DEFAULT_UPDATE_TIMESTAMPS_REGION);
+    final Cache<Object, Object> reader = EmbeddedMember.clientCacheManager(readerClient)
+        .getCache(CacheRegionKind.DEFAULT_UPDATE_TIMESTAMPS_REGION);
+
+    final Histogram reads = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+    final Map<Object, Map<Long, Integer>> versions = new HashMap<>();
+    final Map<Object, Integer> readerVersions = new HashMap<>();
+    int violations = 0;
+    long timestamp = System.currentTimeMillis();
+    for (int i = 0; i < ITERATIONS; i++) {
+      final Object table = Payloads.key(CacheRegionKind.TIMESTAMPS, i % TABLES);
+      final Map<Long, Integer> tableVersions = versions.computeIfAbsent(table, key -> new HashMap<>());
+      violations += readMonotonic(reader, table, tableVersions, readerVersions, -1, reads);
+
+      final long preInvalidation = ++timestamp + TIMEOUT;
+      tableVersions.put(preInvalidation, tableVersions.size());
+      writer.put(table, preInvalidation);
+      violations += readOwnWrite(writer, table, preInvalidation);
+      // committed
+      violations += readMonotonic(reader, table, tableVersions, readerVersions, tableVersions.get(preInvalidation), reads);
+
+      final long invalidation = ++timestamp;
+      tableVersions.put(invalidation, tableVersions.size());
+      writer.put(table, invalidation);
+      violations += readOwnWrite(writer, table, invalidation);
+      violations += readMonotonic(reader, table, tableVersions, readerVersions, tableVersions.get(invalidation), reads);
+    }
+
+    System.out.println(String.format("[check][iterations: %d][other client read p50: %dus][p99: %dus][max: %dus][violations: %d]",
+        ITERATIONS, reads.getValueAtPercentile(50), reads.getValueAtPercentile(99), reads.getMaxValue(), violations));
+    readerClient.shutdown();
+    writerClient.shutdown();
+    member.shutdown();
+    System.exit(violations == 0 ? 0 : 1);
+  }
+
+  private static int readOwnWrite(final Cache<Object, Object> writer, final Object table, final long expected) {
+    final Object read = writer.get(table);
+    if (!Long.valueOf(expected).equals(read)) {
+      System.out.println("[check][" + table + "][writer read " + read + " after writing " + expected + "]");
+      return 1;
+    }
+    return 0;
+  }
+
+  /**
+   * Reads the timestamp of the table through the other client, which must be no older than its last read, nor than
+   * {@code committed} when not negative.
+   */
+  private static int readMonotonic(final Cache<Object, Object> reader, final Object table,
+      final Map<Long, Integer> tableVersions, final Map<Object, Integer> readerVersions, final int committed,
+      final Histogram reads) {
+    final long start = System.nanoTime();
+    final Object read = reader.get(table);
+    reads.recordValue(Math.min(reads.getHighestTrackableValue(), TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+    final int version = read == null ? -1 : tableVersions.getOrDefault(read, -1);
+    if (version < committed) {
+      System.out.println("[check][" + table + "][other client read version " + version + " once version "
+          + committed + " was written]");
+      return 1;
+    }
+    if (read == null) {
+      return 0;
+    }
+    final int lastVersion = readerVersions.getOrDefault(table, -1);
+    if (version < lastVersion) {
+      System.out.println("[check][" + table + "][other client read version " + version + " after version " + lastVersion + "]");
+      return 1;
+    }
+    readerVersions.put(table, version);
+    return 0;
+  }
+}
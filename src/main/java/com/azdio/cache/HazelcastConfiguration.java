@@ -1,7 +1,9 @@
 package com.azdio.cache;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -10,8 +12,19 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import javax.cache.event.EventType;
+
+import com.azdio.cache.region.CacheRegionKind;
+import com.azdio.mdw.hazelcast.listeners.CacheEntryDispatchConfig;
+import com.azdio.mdw.hazelcast.listeners.HotKeyConfig;
+import com.azdio.mdw.hazelcast.serialization.ColocationConfig;
+import com.azdio.mdw.hazelcast.serialization.CompressionCodec;
+import com.hazelcast.config.CacheSimpleConfig.ExpiryPolicyFactoryConfig.TimedExpiryPolicyFactoryConfig.ExpiryPolicyType;
 import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NetworkConfig;
+import com.hazelcast.internal.metrics.ProbeLevel;
 
 import io.micronaut.context.annotation.ConfigurationProperties;
 import lombok.Data;
@@ -89,6 +102,275 @@ public class HazelcastConfiguration {
     private int updateInterval = 5;
   }
 
+  /**
+   * Near cache the clients should keep for a region, published through {@code /hazelcast/client/config}.
+   */
+  @Data
+  public static class NearCache {
+    private boolean enabled = false;
+    private InMemoryFormat inMemoryFormat = InMemoryFormat.OBJECT;
+    private int maxSize = 10000;
+    private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+    private boolean invalidateOnChange = true;
+    private int timeToLiveSeconds = 0;
+    private int maxIdleSeconds = 0;
+    private NearCacheConfig.LocalUpdatePolicy localUpdatePolicy = NearCacheConfig.LocalUpdatePolicy.INVALIDATE;
+    private boolean preloadEnabled = false;
+    private String preloadDirectory = "";
+    private int preloadStoreInitialDelaySeconds = 600;
+    private int preloadStoreIntervalSeconds = 600;
+  }
+
+  /**
+   * Configuration of the Spring Session maps whose name matches {@code name}, a {@code *} matching any characters, so a
+   * new tenant needs no code change. The principal name index serves {@code findByIndexNameAndIndexValue}; with the
+   * OBJECT format a saved session is indexed without being deserialized again on the member, at the cost of serializing
+   * the sessions a lookup returns.
+   */
+  @Data
+  public static class SessionMap {
+    private String name = "spring:session:sessions*";
+    private InMemoryFormat inMemoryFormat = InMemoryFormat.BINARY;
+    private boolean principalIndexOrdered = false;
+    private int maxIdleSeconds = 0;
+    /**
+     * Sessions per member, the least recently used are evicted beyond it. 0 does not bound the map.
+     */
+    private int maxSize = 0;
+    private int backupCount = 1;
+    private int asyncBackupCount = 0;
+    private NearCache nearCache = new NearCache();
+  }
+
+  /**
+   * Member-wide batching of the invalidations sent to near caches. Hazelcast does not support it per region.
+   */
+  @Data
+  @ConfigurationProperties("near-cache-invalidation")
+  public static class NearCacheInvalidation {
+    private boolean batchEnabled = true;
+    private int batchSize = 100;
+    private int batchFrequencySeconds = 10;
+  }
+
+  /**
+   * Storage of the {@code ImagesCache.*} regions. On-heap caches can only be bounded by entry count, so {@code maxBytes}
+   * is turned into an entry count using {@code expectedEntryBytes}.
+   */
+  @Data
+  @ConfigurationProperties("images-cache")
+  public static class ImagesCache {
+    private boolean compressionEnabled = false;
+    private CompressionCodec codec = CompressionCodec.DEFLATE;
+    private int compressionThresholdBytes = 4096;
+    private long maxBytes = 0;
+    private int expectedEntryBytes = 65536;
+  }
+
+  /**
+   * Eviction of the query results that read a table as soon as {@code default-update-timestamps-region} records an
+   * update of it, instead of leaving them to expire. Each member indexes the query keys of the partitions it owns by the
+   * tables of their SQL.
+   */
+  @Data
+  @ConfigurationProperties("query-invalidation")
+  public static class QueryInvalidation {
+    private boolean enabled = false;
+    /**
+     * Keys removed by one operation, a partition with more dependent results gets several.
+     */
+    private int batchSize = 500;
+  }
+
+  /**
+   * The VodTracking {@code PlayingDevices.*} maps. In high-write mode the clients send heartbeats as
+   * {@link com.azdio.mdw.hazelcast.tracking.HeartbeatProcessor entry processors}, values are kept as objects on the
+   * members and backed up asynchronously, and a map is bounded per member. Clients must switch together with the
+   * members, since values are {@link com.azdio.mdw.hazelcast.tracking.PlayingDevice}s instead of strings.
+   */
+  @Data
+  @ConfigurationProperties("playing-devices")
+  public static class PlayingDevices {
+    private String name = "PlayingDevices.*";
+    private int maxIdleSeconds = 1800;
+    private boolean highWriteEnabled = false;
+    /**
+     * Entries per member in high-write mode, the least recently used are evicted beyond it. 0 does not bound the map.
+     */
+    private int maxSize = 0;
+    private int backupCount = 0;
+    private int asyncBackupCount = 1;
+  }
+
+  /**
+   * Limits of the {@code /hazelcast/cache/{name}} bulk endpoints. The size in bytes of a request body is bounded by
+   * {@code micronaut.server.max-request-size}.
+   */
+  @Data
+  @ConfigurationProperties("bulk-api")
+  public static class BulkApi {
+    private int pageSize = 100;
+    private int maxPageSize = 1000;
+    private int maxBatchEntries = 1000;
+    /**
+     * Operations of a batch or stream in flight at once, further ones wait for a response.
+     */
+    private int maxConcurrentOperations = 16;
+    /**
+     * {@code putAll} and {@code removeAll} must carry {@code Authorization: Bearer <token>}; without a token they are
+     * disabled.
+     */
+    private String writeToken = "";
+  }
+
+  /**
+   * {@code GET /hazelcast/cache/{name}/changes}: the event journal of a region as a stream of batches, for the regions
+   * with {@link CacheConfig#isEventJournalEnabled()}.
+   */
+  @Data
+  @ConfigurationProperties("change-feed")
+  public static class ChangeFeed {
+    /**
+     * Events read from a partition at most per batch, unless the consumer asks for fewer or more.
+     */
+    private int batchSize = 100;
+    private int maxBatchSize = 1000;
+    /**
+     * Partitions read at once, further ones wait for a response.
+     */
+    private int maxConcurrentOperations = 16;
+    /**
+     * Wait after a pass over the partitions that found nothing new, doubled after each further such pass up to
+     * {@code maxPollMillis}, so an idle stream costs few operations.
+     */
+    private long pollMillis = 200;
+    private long maxPollMillis = 3200;
+    /**
+     * An empty batch is sent when nothing changed for that long, so proxies keep the stream open.
+     */
+    private int heartbeatSeconds = 15;
+  }
+
+  /**
+   * {@code PUT /hazelcast/cache/{name}/config}: size, eviction policy, expiry, backups and in-memory format of a region
+   * changed on every member without restart, until the next restart. Requests must carry
+   * {@code Authorization: Bearer <token>}; without a token the endpoint is disabled.
+   */
+  @Data
+  @ConfigurationProperties("reconfiguration")
+  public static class Reconfiguration {
+    private String token = "";
+    /**
+     * Members that have not migrated the region by then are reported as failed.
+     */
+    private long timeoutMillis = 30000;
+  }
+
+  /**
+   * Grows the regions that evict entries they are asked for again and shrinks the least used ones, within a share of the
+   * heap and the old generation usage of the members. The oldest member decides once per interval from the cluster
+   * statistics, and resizes a region through {@link Reconfiguration}; the sizes last until the next restart.
+   */
+  @Data
+  @ConfigurationProperties("adaptive-sizing")
+  public static class AdaptiveSizing {
+    private boolean enabled = false;
+    private int intervalSeconds = 60;
+    private Set<CacheRegionKind> kinds = EnumSet.of(CacheRegionKind.ENTITY, CacheRegionKind.COLLECTION, CacheRegionKind.QUERY);
+    private int minSize = 1000;
+    private int maxSize = 500000;
+    /**
+     * Share of the smallest member heap the sized regions may take, owned entries and backups.
+     */
+    private int heapBudgetPercent = 50;
+    /**
+     * Regions only grow below {@code lowOldGenUsage}, and the least used one shrinks above {@code highOldGenUsage}.
+     */
+    private double lowOldGenUsage = 0.7;
+    private double highOldGenUsage = 0.85;
+    private double growStep = 0.25;
+    private double shrinkStep = 0.25;
+    /**
+     * Evictions in an interval, as a share of the size, for a region that also misses to need more room.
+     */
+    private double growEvictionRatio = 0.01;
+    /**
+     * Consecutive intervals a region must need more room before it grows.
+     */
+    private int hysteresisIntervals = 2;
+    /**
+     * Intervals a resized region is left alone.
+     */
+    private int cooldownIntervals = 3;
+  }
+
+  /**
+   * Cluster-wide region footprint of {@code /hazelcast/cache/stats}.
+   */
+  @Data
+  @ConfigurationProperties("stats")
+  public static class Stats {
+    /**
+     * How long a collected result is served before the members are asked again.
+     */
+    private long ttlMillis = 5000;
+    /**
+     * Members that have not answered by then are reported as missing.
+     */
+    private long timeoutMillis = 500;
+    private int samplePerPartition = 8;
+  }
+
+  /**
+   * Hazelcast's internal probes and slow operation log of the member as {@code hazelcast.*} meters, exported with the
+   * other metrics. The probes are read every {@code stepSeconds}; a scrape reads the values of the last step.
+   */
+  @Data
+  @ConfigurationProperties("diagnostics")
+  public static class Diagnostics {
+    private boolean enabled = true;
+    private int stepSeconds = 10;
+    /**
+     * {@code hazelcast.diagnostics.metric.level}, unless the member properties set it: INFO adds the operation threads,
+     * invocations and migrations to the MANDATORY probes, DEBUG the per-partition counters.
+     */
+    private ProbeLevel metricLevel = ProbeLevel.INFO;
+    /**
+     * Prefixes of the probes published; the JVM probes are left to the Micrometer JVM binders.
+     */
+    private List<String> probes = new ArrayList<>(Arrays.asList("operation.", "operation-parker.", "event.", "partitions.",
+        "tcp.connection.", "client.endpoint.", "cluster.size"));
+  }
+
+  /**
+   * Warm restart of the chosen regions after the whole cluster was stopped. On shutdown each member writes the entries
+   * it owns to {@code <directory>/<instance name>/<region>.snapshot}, and loads them back on the next start before it is
+   * ready, only if it joins a new cluster within its restore window: a running cluster keeps the entries in their
+   * backups.
+   */
+  @Data
+  @ConfigurationProperties("snapshot")
+  public static class Snapshot {
+    private boolean enabled = false;
+    private String directory = "snapshots";
+    /**
+     * Names of the regions to snapshot, {@code *} matching any characters.
+     */
+    private List<String> regions = new ArrayList<>();
+    private int parallelism = 4;
+    /**
+     * Older snapshots are discarded rather than loaded, their entries may have been invalidated in the meantime.
+     */
+    private int maxAgeSeconds = 900;
+    /**
+     * Members joining a new cluster within this time of its first member restore their snapshots; later, the cluster is
+     * running and holds their entries.
+     */
+    private int restoreWindowSeconds = 300;
+    private int segmentBytes = 64 * 1024 * 1024;
+    private int maxPendingPuts = 1000;
+  }
+
   @Data
   public static class CacheConfig {
     private boolean statisticsEnabled = true;
@@ -99,14 +381,89 @@ public class HazelcastConfiguration {
     private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
     private int durationAmount = 30;
     private TimeUnit timeUnit = TimeUnit.MINUTES;
+    /**
+     * What restarts the duration: creation, updates, reads, or all three.
+     */
+    private ExpiryPolicyType expiryPolicyType = ExpiryPolicyType.CREATED;
+    /**
+     * Each entry lives a random duration between {@code (100 - expiryJitterPercent)%} of the duration and the duration,
+     * so entries loaded together do not expire together; 0 keeps the exact duration.
+     */
+    private int expiryJitterPercent = 0;
+    /**
+     * Hot keys read during the last {@code earlyRefreshSeconds} of their life may be removed early, each at a random
+     * time that is on average {@code earlyRefreshSeconds} before its expiry, so the next reader reloads it before the
+     * others would all miss it; 0 disables it. Needs {@code hot-keys.enabled}, the keys checked being the hottest
+     * read on each member.
+     */
+    private int earlyRefreshSeconds = 0;
+    /**
+     * Creations, updates, removals and expiries of the region kept in an event journal, read through
+     * {@link ChangeFeed}. Appending to the journal is all the partition threads do, readers pull at their own pace.
+     */
+    private boolean eventJournalEnabled = false;
+    /**
+     * Events kept for the region in the cluster, spread over the partitions; the oldest go first.
+     */
+    private int eventJournalCapacity = 100000;
+    /**
+     * Events older than this go too; 0 keeps them until the capacity is reached.
+     */
+    private int eventJournalTtlSeconds = 0;
     private int backupCount = 0;
     private int asyncBackupCount = 0;
+    private InMemoryFormat inMemoryFormat = InMemoryFormat.BINARY;
     private String cacheEntryListenerFactory = "com.azdio.mdw.hazelcast.listeners.HazelcastCacheEntryListenerFactory";
+    private String cacheEntryEventFilterFactory = "com.azdio.mdw.hazelcast.listeners.HazelcastCacheEntryEventFilterFactory";
+    /**
+     * Event types the region may publish to its listener, of which only the ones a class of
+     * {@link HazelcastConfiguration#getCacheEntryListeners()} subscribes to are published. With a subset, the listener is
+     * registered once per type using the nested factory {@code <cacheEntryListenerFactory>$Created}, {@code $Updated},
+     * ... An empty set registers no listener at all.
+     */
+    private Set<EventType> eventTypes = EnumSet.allOf(EventType.class);
+    private boolean oldValueRequired = false;
+    private boolean synchronous = false;
+    private NearCache nearCache = new NearCache();
 
   }
 
   private Config config;
   private ManagementCenter managementCenter;
+  private NearCacheInvalidation nearCacheInvalidation = new NearCacheInvalidation();
+  private ImagesCache imagesCache = new ImagesCache();
+  private Snapshot snapshot = new Snapshot();
+  private QueryInvalidation queryInvalidation = new QueryInvalidation();
+  private PlayingDevices playingDevices = new PlayingDevices();
+  private BulkApi bulkApi = new BulkApi();
+  private ChangeFeed changeFeed = new ChangeFeed();
+  private Stats stats = new Stats();
+  private Diagnostics diagnostics = new Diagnostics();
+  private Reconfiguration reconfiguration = new Reconfiguration();
+  private AdaptiveSizing adaptiveSizing = new AdaptiveSizing();
+  private boolean hibernateSerializersEnabled = false;
+  /**
+   * Query keys as a fixed-size digest, with the Hibernate serializers only. Clients must switch together with the
+   * members, and the query-results regions start empty.
+   */
+  private boolean queryKeyDigestEnabled = false;
+  private boolean regionIndexEnabled = true;
+  private String regionPackage = "com.azdio.mdw";
+  /**
+   * The cache entry listener classes of the applications. When some are listed, a region gets the listener
+   * configuration only for the event types they subscribe to, see {@link com.azdio.mdw.hazelcast.listeners.CacheRegions},
+   * so Hazelcast creates no event for the others. Empty, the subscribers are unknown and every region publishes all its
+   * event types; a class the member cannot load subscribes to every region and event type.
+   */
+  private List<String> cacheEntryListeners = new ArrayList<>();
+  private CacheEntryDispatchConfig listenerDispatch = new CacheEntryDispatchConfig();
+  private HotKeyConfig hotKeys = new HotKeyConfig();
+  /**
+   * Entity and collection keys partitioned by id, so an aggregate lives on one member. Clients must switch together with
+   * the members, and the colocated regions start empty.
+   */
+  private ColocationConfig colocation = new ColocationConfig();
+  private Map<String, SessionMap> sessionMaps = new HashMap<>(Collections.singletonMap("sessions", new SessionMap()));
   private Map<String, CacheConfig> cacheConfig = new HashMap<>(Collections.singletonMap(DEFAULT, new CacheConfig()));
 
 }
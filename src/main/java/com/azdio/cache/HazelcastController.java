@@ -1,21 +1,66 @@
 package com.azdio.cache;
 
+import static java.util.Objects.nonNull;
+
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
+import com.azdio.cache.bulk.BulkRequest;
+import com.azdio.cache.bulk.BulkResult;
+import com.azdio.cache.bulk.CacheBulkService;
+import com.azdio.cache.bulk.CacheEntryData;
+import com.azdio.cache.bulk.EntryPage;
+import com.azdio.cache.bulk.KeyPage;
+import com.azdio.cache.changefeed.ChangeBatch;
+import com.azdio.cache.changefeed.ChangeFeedService;
+import com.azdio.cache.changefeed.ChangePage;
+import com.azdio.cache.hotkeys.HotKeyReport;
+import com.azdio.cache.hotkeys.HotKeyService;
+import com.azdio.cache.hotkeys.PartitionLoad;
+import com.azdio.cache.reconfig.RegionChange;
+import com.azdio.cache.reconfig.RegionReconfiguration;
+import com.azdio.cache.reconfig.RegionReconfigurationService;
+import com.azdio.cache.stats.CacheStatsService;
+import com.azdio.cache.stats.ClusterCacheStats;
+import com.hazelcast.client.config.ClientConfigXmlGenerator;
 import com.hazelcast.config.CacheSimpleConfig;
 import com.hazelcast.config.Config;
 
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Header;
+import io.micronaut.http.annotation.PathVariable;
+import io.micronaut.http.annotation.Post;
+import io.micronaut.http.annotation.Put;
+import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.http.sse.Event;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
 
 @Controller("/hazelcast")
 public class HazelcastController {
 
   private final HazelcastService hazelcastService;
+  private final HotKeyService hotKeyService;
+  private final CacheBulkService cacheBulkService;
+  private final ChangeFeedService changeFeedService;
+  private final CacheStatsService cacheStatsService;
+  private final RegionReconfigurationService regionReconfigurationService;
 
-  public HazelcastController(final HazelcastService hazelcastService) {
+  public HazelcastController(final HazelcastService hazelcastService, final HotKeyService hotKeyService,
+      final CacheBulkService cacheBulkService, final ChangeFeedService changeFeedService,
+      final CacheStatsService cacheStatsService, final RegionReconfigurationService regionReconfigurationService) {
     this.hazelcastService = hazelcastService;
+    this.hotKeyService = hotKeyService;
+    this.cacheBulkService = cacheBulkService;
+    this.changeFeedService = changeFeedService;
+    this.cacheStatsService = cacheStatsService;
+    this.regionReconfigurationService = regionReconfigurationService;
   }
 
   @Get(uri = "/config")
@@ -23,6 +68,11 @@ public class HazelcastController {
     return hazelcastService.getHazelcastInstance().getConfig();
   }
 
+  @Get(uri = "/client/config", produces = MediaType.APPLICATION_XML)
+  public String clientConfig() {
+    return ClientConfigXmlGenerator.generate(hazelcastService.getClientConfig(), 2);
+  }
+
   @Get(uri = "/cache")
   public Set<String> cache() {
     return hazelcastService.getCacheNames();
@@ -32,4 +82,92 @@ public class HazelcastController {
   public Map<String, CacheSimpleConfig> getCacheConfigs() {
     return hazelcastService.getCacheConfigs();
   }
+
+  @Put(uri = "/cache/{name}/config")
+  public Single<RegionReconfiguration> reconfigure(@Header("Authorization") @Nullable final String authorization,
+      @PathVariable final String name, @QueryValue @Nullable final Boolean dryRun, @Body final RegionChange change) {
+    return regionReconfigurationService.reconfigure(authorization, name, change, Boolean.TRUE.equals(dryRun));
+  }
+
+  @Get(uri = "/cache/stats")
+  public Single<ClusterCacheStats> cacheStats() {
+    return cacheStatsService.getStats();
+  }
+
+  @Get(uri = "/cache/{name}/entries")
+  public Flowable<CacheEntryData> entries(@PathVariable final String name, @QueryValue @Nullable final Integer limit) {
+    return cacheBulkService.streamEntries(name, limit);
+  }
+
+  @Get(uri = "/cache/{name}/entries/binary", produces = MediaType.APPLICATION_OCTET_STREAM)
+  public Flowable<byte[]> binaryEntries(@PathVariable final String name, @QueryValue @Nullable final Integer limit) {
+    return cacheBulkService.streamEntriesBinary(name, limit);
+  }
+
+  @Get(uri = "/cache/{name}/keys")
+  public Flowable<CacheEntryData> keys(@PathVariable final String name, @QueryValue @Nullable final Integer limit) {
+    return cacheBulkService.streamKeys(name, limit);
+  }
+
+  @Get(uri = "/cache/{name}/partitions/{partition}/entries")
+  public Single<EntryPage> entries(@PathVariable final String name, @PathVariable final int partition,
+      @QueryValue @Nullable final Integer cursor, @QueryValue @Nullable final Integer limit) {
+    return cacheBulkService.entries(name, partition, cursor, limit);
+  }
+
+  @Get(uri = "/cache/{name}/partitions/{partition}/keys")
+  public Single<KeyPage> keys(@PathVariable final String name, @PathVariable final int partition,
+      @QueryValue @Nullable final Integer cursor, @QueryValue @Nullable final Integer limit) {
+    return cacheBulkService.keys(name, partition, cursor, limit);
+  }
+
+  @Post(uri = "/cache/{name}/getAll")
+  public Single<List<CacheEntryData>> getAll(@PathVariable final String name, @Body final BulkRequest request) {
+    return cacheBulkService.getAll(name, request);
+  }
+
+  @Post(uri = "/cache/{name}/putAll")
+  public Single<BulkResult> putAll(@Header("Authorization") @Nullable final String authorization,
+      @PathVariable final String name, @Body final BulkRequest request) {
+    return cacheBulkService.putAll(authorization, name, request);
+  }
+
+  @Post(uri = "/cache/{name}/removeAll")
+  public Single<BulkResult> removeAll(@Header("Authorization") @Nullable final String authorization,
+      @PathVariable final String name, @Body final BulkRequest request) {
+    return cacheBulkService.removeAll(authorization, name, request);
+  }
+
+  /**
+   * Server-sent events, each a batch whose cursor is the event id: a reconnecting {@code EventSource} resumes with
+   * {@code Last-Event-ID}, other consumers with {@code cursor}.
+   */
+  @Get(uri = "/cache/{name}/changes", produces = MediaType.TEXT_EVENT_STREAM)
+  public Flowable<Event<ChangeBatch>> changes(@PathVariable final String name,
+      @Header("Last-Event-ID") @Nullable final String lastEventId, @QueryValue @Nullable final String cursor,
+      @QueryValue @Nullable final Boolean replay, @QueryValue @Nullable final Integer limit) {
+    return changeFeedService.stream(name, nonNull(cursor) ? cursor : lastEventId, Boolean.TRUE.equals(replay), limit)
+        .map(batch -> Event.of(batch).id(batch.getCursor()));
+  }
+
+  @Get(uri = "/cache/{name}/partitions/{partition}/changes")
+  public Single<ChangePage> changes(@PathVariable final String name, @PathVariable final int partition,
+      @QueryValue @Nullable final Long sequence, @QueryValue @Nullable final Integer limit) {
+    return changeFeedService.changes(name, partition, sequence, limit);
+  }
+
+  @Get(uri = "/hotkeys")
+  public Map<String, HotKeyReport> hotKeys() {
+    return hotKeyService.getHotKeys();
+  }
+
+  @Get(uri = "/hotkeys/{name}")
+  public HotKeyReport hotKeys(@PathVariable final String name) {
+    return hotKeyService.getHotKeys(name);
+  }
+
+  @Get(uri = "/partitions/load")
+  public PartitionLoad partitionLoad() {
+    return hotKeyService.getPartitionLoad();
+  }
 }
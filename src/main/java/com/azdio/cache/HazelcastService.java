@@ -1,68 +1,97 @@
 package com.azdio.cache;
 
 import static com.hazelcast.config.EvictionConfig.MaxSizePolicy.ENTRY_COUNT;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static org.springframework.session.hazelcast.HazelcastSessionRepository.PRINCIPAL_NAME_ATTRIBUTE;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.HashSet;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import javax.cache.CacheException;
+import javax.cache.event.EventType;
 import javax.inject.Singleton;
-import javax.persistence.QueryHint;
-
-import org.reflections.Reflections;
-import org.reflections.scanners.FieldAnnotationsScanner;
-import org.reflections.scanners.MethodAnnotationsScanner;
-import org.reflections.scanners.SubTypesScanner;
-import org.reflections.scanners.TypeAnnotationsScanner;
-import org.springframework.data.jpa.repository.QueryHints;
 
 import com.azdio.cache.HazelcastConfiguration.CacheConfig;
 import com.azdio.cache.HazelcastConfiguration.Config.Group;
 import com.azdio.cache.HazelcastConfiguration.Config.Network.Interfaces;
 import com.azdio.cache.HazelcastConfiguration.Config.Network.Join.Multicast;
 import com.azdio.cache.HazelcastConfiguration.Config.Network.Join.TcpIp;
+import com.azdio.cache.HazelcastConfiguration.ImagesCache;
 import com.azdio.cache.HazelcastConfiguration.ManagementCenter;
+import com.azdio.cache.HazelcastConfiguration.NearCache;
+import com.azdio.cache.HazelcastConfiguration.NearCacheInvalidation;
+import com.azdio.cache.HazelcastConfiguration.SessionMap;
+import com.azdio.cache.expiry.EarlyRefresh;
+import com.azdio.cache.hotkeys.HotKeyOperationProvider;
 import com.azdio.cache.json.CacheSimpleConfigMixIn;
 import com.azdio.cache.json.ConfigMixIn;
 import com.azdio.cache.json.DiscoveryConfigMixIn;
 import com.azdio.cache.json.EvictionConfigMixIn;
 import com.azdio.cache.json.ExecutorConfigMixIn;
+import com.azdio.cache.query.QuerySpaceIndex;
+import com.azdio.cache.region.CacheRegionIndex;
+import com.azdio.cache.region.CacheRegionKind;
+import com.azdio.cache.snapshot.RegionSnapshots;
 import com.azdio.mdw.domain.ImageEntity;
-import com.azdio.mdw.domain.ImageEntityWithContent;
-import com.azdio.mdw.domain.ImageEntityWithHash;
+import com.azdio.mdw.hazelcast.expiry.JitteredExpiryPolicyFactory;
+import com.azdio.mdw.hazelcast.listeners.CacheEntryDispatchers;
+import com.azdio.mdw.hazelcast.listeners.CacheEntryListenerRoutes;
+import com.azdio.mdw.hazelcast.listeners.HotKeys;
+import com.azdio.mdw.hazelcast.serialization.AggregatePartitioningStrategy;
+import com.azdio.mdw.hazelcast.serialization.CompressingImageSerializer;
+import com.azdio.mdw.hazelcast.serialization.HibernateSerializers;
+import com.azdio.mdw.hazelcast.tracking.PlayingDevices;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.cache.HazelcastCacheManager;
+import com.hazelcast.cache.impl.ICacheService;
+import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.config.CacheSimpleConfig;
 import com.hazelcast.config.CacheSimpleConfig.ExpiryPolicyFactoryConfig;
+import com.hazelcast.config.CacheSimpleConfig.ExpiryPolicyFactoryConfig.DurationConfig;
+import com.hazelcast.config.CacheSimpleConfig.ExpiryPolicyFactoryConfig.TimedExpiryPolicyFactoryConfig;
+import com.hazelcast.config.CacheSimpleConfig.ExpiryPolicyFactoryConfig.TimedExpiryPolicyFactoryConfig.ExpiryPolicyType;
 import com.hazelcast.config.CacheSimpleEntryListenerConfig;
 import com.hazelcast.config.Config;
 import com.hazelcast.config.DiscoveryConfig;
+import com.hazelcast.config.EventJournalConfig;
 import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.ExecutorConfig;
 import com.hazelcast.config.GroupConfig;
+import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.JoinConfig;
 import com.hazelcast.config.ManagementCenterConfig;
 import com.hazelcast.config.MapAttributeConfig;
+import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.MapIndexConfig;
+import com.hazelcast.config.MaxSizeConfig;
 import com.hazelcast.config.MulticastConfig;
+import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NetworkConfig;
+import com.hazelcast.config.SerializerConfig;
 import com.hazelcast.config.TcpIpConfig;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.HazelcastInstanceProxy;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.properties.GroupProperty;
 
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.runtime.event.ApplicationStartupEvent;
 import io.micronaut.runtime.event.annotation.EventListener;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Singleton
 public class HazelcastService {
 
@@ -72,6 +101,23 @@ public class HazelcastService {
   @Getter
   private HazelcastInstance hazelcastInstance;
 
+  /**
+   * The configuration the member was started with; the instance only exposes a read-only view of its regions.
+   */
+  private Config staticConfig;
+
+  private final Map<String, CacheRegionKind> regionKinds = new ConcurrentHashMap<>();
+
+  private List<Class<?>> listenerClasses;
+
+  private RegionSnapshots snapshots;
+
+  @Getter
+  private QuerySpaceIndex querySpaceIndex;
+
+  @Getter
+  private EarlyRefresh earlyRefresh;
+
   public HazelcastService(final HazelcastConfiguration hazelcastConfiguration,
       final ObjectMapper objectMapper) {
     this.hazelcastConfiguration = hazelcastConfiguration;
@@ -90,6 +136,7 @@ public class HazelcastService {
 
   @PostConstruct
   public void init() {
+    listenerClasses = listenerClasses(hazelcastConfiguration.getCacheEntryListeners());
     final com.azdio.cache.HazelcastConfiguration.Config hzConfig = hazelcastConfiguration.getConfig();
     final Config config = new Config(hzConfig.getInstanceName());
     final NetworkConfig network = config.getNetworkConfig();
@@ -126,6 +173,22 @@ public class HazelcastService {
     config.setGroupConfig(new GroupConfig(group.getName(), group.getPassword()));
 
     hzConfig.getProperties().forEach((key, value) -> config.getProperties().setProperty((String) key, (String) value));
+    if (hazelcastConfiguration.getSnapshot().isEnabled()) {
+      // the snapshot is written in destroy(), which shuts the member down afterwards
+      config.setProperty(GroupProperty.SHUTDOWNHOOK_ENABLED.getName(), "false");
+    }
+
+    final NearCacheInvalidation nearCacheInvalidation = hazelcastConfiguration.getNearCacheInvalidation();
+    config.getProperties().putIfAbsent(GroupProperty.CACHE_INVALIDATION_MESSAGE_BATCH_ENABLED.getName(),
+        String.valueOf(nearCacheInvalidation.isBatchEnabled()));
+    config.getProperties().putIfAbsent(GroupProperty.CACHE_INVALIDATION_MESSAGE_BATCH_SIZE.getName(),
+        String.valueOf(nearCacheInvalidation.getBatchSize()));
+    config.getProperties().putIfAbsent(GroupProperty.CACHE_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS.getName(),
+        String.valueOf(nearCacheInvalidation.getBatchFrequencySeconds()));
+    if (hazelcastConfiguration.getDiagnostics().isEnabled()) {
+      config.getProperties().putIfAbsent(com.hazelcast.internal.diagnostics.Diagnostics.METRICS_LEVEL.getName(),
+          hazelcastConfiguration.getDiagnostics().getMetricLevel().name());
+    }
 
     final ManagementCenter managementCenter = hazelcastConfiguration.getManagementCenter();
     if (nonNull(managementCenter) && managementCenter.isEnabled()) {
@@ -136,65 +199,105 @@ public class HazelcastService {
       config.setManagementCenterConfig(managementCenterConfig);
     }
 
-    final Reflections reflections = new Reflections("com.azdio.mdw",
-        new TypeAnnotationsScanner(),
-        new SubTypesScanner(),
-        new MethodAnnotationsScanner(),
-        new FieldAnnotationsScanner());
+    final ImagesCache imagesCache = hazelcastConfiguration.getImagesCache();
+    if (imagesCache.isCompressionEnabled()) {
+      config.getSerializationConfig().addSerializerConfig(new SerializerConfig()
+          .setTypeClassName(ImageEntity.class.getName())
+          .setImplementation(new CompressingImageSerializer(imagesCache.getCodec(), imagesCache.getCompressionThresholdBytes())));
+    }
+    if (hazelcastConfiguration.isHibernateSerializersEnabled()) {
+      HibernateSerializers.serializerConfigs(hazelcastConfiguration.isQueryKeyDigestEnabled())
+          .forEach(config.getSerializationConfig()::addSerializerConfig);
+    }
+    if (hazelcastConfiguration.getPlayingDevices().isHighWriteEnabled()) {
+      PlayingDevices.serializerConfigs().forEach(config.getSerializationConfig()::addSerializerConfig);
+    }
+
+    CacheEntryDispatchers.setConfig(hazelcastConfiguration.getListenerDispatch());
+    HotKeys.setConfig(hazelcastConfiguration.getHotKeys());
+    AggregatePartitioningStrategy.setConfig(hazelcastConfiguration.getColocation());
+    if (hazelcastConfiguration.getColocation().isEnabled()) {
+      config.setProperty(AggregatePartitioningStrategy.PROPERTY, AggregatePartitioningStrategy.class.getName());
+    }
+
+    final CacheRegionIndex regionIndex = cacheRegionIndex();
 
     // Second Level Caches
-    final Set<Class<?>> cacheableEntities = reflections.getTypesAnnotatedWith(javax.persistence.Cacheable.class);
-    cacheableEntities.forEach(entityClass -> config.addCacheConfig(entityCacheSimpleConfig(entityClass)));
+    regionIndex.getRegions(CacheRegionKind.ENTITY)
+        .forEach(cacheName -> config.addCacheConfig(entityCacheSimpleConfig(cacheName)));
 
     // Collections fields cache
-    final Set<Field> cachedFields = reflections.getFieldsAnnotatedWith(org.hibernate.annotations.Cache.class);
-    cachedFields.stream()
-        .forEach(field -> config.addCacheConfig(fieldCacheSimpleConfig(field)));
+    regionIndex.getRegions(CacheRegionKind.COLLECTION)
+        .forEach(cacheName -> config.addCacheConfig(fieldCacheSimpleConfig(cacheName)));
 
     // Query Caches
-    final Set<Method> hintMethods = reflections.getMethodsAnnotatedWith(org.springframework.data.jpa.repository.QueryHints.class);
-    hintMethods.stream()
-        .map(this::hintCacheSimpleConfig)
-        .filter(Optional::isPresent)
-        .map(Optional::get)
-        .forEach(config::addCacheConfig);
+    regionIndex.getRegions(CacheRegionKind.QUERY)
+        .forEach(cacheName -> config.addCacheConfig(hintCacheSimpleConfig(cacheName)));
 
     // Hibernate Query Caches
     // http://docs.jboss.org/hibernate/orm/5.3/userguide/html_single/Hibernate_User_Guide.html#caching-query
-    config.addCacheConfig(cacheConfig("default-query-results-region"));
+    config.addCacheConfig(cacheConfig(CacheRegionKind.DEFAULT_QUERY_RESULTS_REGION));
     config.addCacheConfig(defaultUpdateTimestampsCacheConfig());
 
+    regionKinds.putAll(regionIndex.getRegions());
+    regionKinds.put(CacheRegionKind.DEFAULT_QUERY_RESULTS_REGION, CacheRegionKind.QUERY);
+    regionKinds.put(CacheRegionKind.DEFAULT_UPDATE_TIMESTAMPS_REGION, CacheRegionKind.TIMESTAMPS);
+
     // Images cache
-    final Set<Class<? extends ImageEntity>> imageEntities = new HashSet<>();
-    imageEntities.addAll(reflections.getSubTypesOf(ImageEntityWithHash.class));
-    imageEntities.addAll(reflections.getSubTypesOf(ImageEntityWithContent.class));
-    imageEntities.forEach(imageEntity -> config.addCacheConfig(imageEntityCacheSimpleConfig(imageEntity)));
+    regionIndex.getRegions(CacheRegionKind.IMAGE)
+        .forEach(cacheName -> config.addCacheConfig(imageEntityCacheSimpleConfig(cacheName)));
+
+    // Change feeds, the default settings for every region without its own
+    final boolean defaultJournal = regionConfig(HazelcastConfiguration.DEFAULT).isEventJournalEnabled();
+    hazelcastConfiguration.getCacheConfig().entrySet().stream()
+        .filter(region -> defaultJournal || region.getValue().isEventJournalEnabled())
+        .forEach(region -> config.addEventJournalConfig(eventJournalConfig(region.getKey(), region.getValue())));
 
     // Spring Session
-    final MapAttributeConfig attributeConfig = new MapAttributeConfig()
-        .setName(PRINCIPAL_NAME_ATTRIBUTE)
-        .setExtractor("org.springframework.session.hazelcast.PrincipalNameExtractor");
-    config.getMapConfig("spring:session:sessions:nb")
-        .addMapAttributeConfig(attributeConfig)
-        .addMapIndexConfig(new MapIndexConfig(PRINCIPAL_NAME_ATTRIBUTE, false));
-    config.getMapConfig("spring:session:sessions:weiss")
-        .addMapAttributeConfig(attributeConfig)
-        .addMapIndexConfig(new MapIndexConfig(PRINCIPAL_NAME_ATTRIBUTE, false));
-    config.getMapConfig("spring:session:sessions:craft")
-        .addMapAttributeConfig(attributeConfig)
-        .addMapIndexConfig(new MapIndexConfig(PRINCIPAL_NAME_ATTRIBUTE, false));
+    hazelcastConfiguration.getSessionMaps().values().forEach(sessionMap -> config.addMapConfig(sessionMapConfig(sessionMap)));
 
     // User playing devices data (VodTracking)
-    config.getMapConfig("PlayingDevices.*")
-        .setMaxIdleSeconds(1800); // keep the data for half an hour
+    config.addMapConfig(playingDevicesMapConfig(hazelcastConfiguration.getPlayingDevices()));
 
+    // tasks sent to this member find the service there, see RegionMigrationTask
+    config.getUserContext().put(HazelcastService.class.getName(), this);
+    this.staticConfig = config;
     this.hazelcastInstance = Hazelcast.getOrCreateHazelcastInstance(config);
+    if (hazelcastConfiguration.getSnapshot().isEnabled()) {
+      snapshots = new RegionSnapshots(this);
+      snapshots.holdClients();
+    }
+    registerJitteredCacheConfigs();
 
+    if (hazelcastConfiguration.getHotKeys().isEnabled()) {
+      HotKeyOperationProvider.install(this);
+    }
+
+    if (hazelcastConfiguration.getQueryInvalidation().isEnabled()) {
+      querySpaceIndex = new QuerySpaceIndex(this);
+      querySpaceIndex.start();
+    }
+    if (hazelcastConfiguration.getCacheConfig().values().stream().anyMatch(region -> region.getEarlyRefreshSeconds() > 0)) {
+      if (hazelcastConfiguration.getHotKeys().isEnabled()) {
+        earlyRefresh = new EarlyRefresh(this);
+        earlyRefresh.start();
+      } else {
+        log.warn("[cache][early-refresh][disabled: it refreshes the hot keys read, enable hazelcast.hot-keys]");
+      }
+    }
+    if (nonNull(snapshots)) {
+      snapshots.restore();
+    }
   }
 
   @PreDestroy
   public void destroy() {
-    // hazelcastInstance.shutdown(); No need.
+    // hazelcastInstance.shutdown(); No need, unless snapshots replace the shutdown hook.
+    if (nonNull(snapshots) && hazelcastInstance.getLifecycleService().isRunning()) {
+      snapshots.write();
+      hazelcastInstance.getLifecycleService().shutdown();
+    }
+    CacheEntryDispatchers.shutdown();
   }
 
   public Set<String> getCacheNames() {
@@ -205,14 +308,145 @@ public class HazelcastService {
     return hazelcastInstance.getConfig().getCacheConfigs();
   }
 
-  private CacheSimpleConfig entityCacheSimpleConfig(final Class<?> entityClass) {
-    final String cacheName = entityClass.getCanonicalName();
+  /**
+   * The configuration a region would get from {@link HazelcastConfiguration#getCacheConfig()} if it were new.
+   */
+  public CacheSimpleConfig newCacheConfig(final String cacheName) {
     return cacheConfig(cacheName);
   }
 
-  private CacheSimpleConfig cacheConfig(final String cacheName) {
-    final CacheConfig cacheConfig = hazelcastConfiguration.getCacheConfig().getOrDefault(cacheName, hazelcastConfiguration.getCacheConfig().get(
+  /**
+   * Replaces the configuration of a region on this member only, for the regions read from {@link #getCacheConfigs()}
+   * and the proxies created from now on.
+   */
+  public void replaceCacheConfig(final CacheSimpleConfig cacheConfig) {
+    staticConfig.getCacheConfigs().put(cacheConfig.getName(), cacheConfig);
+  }
+
+  /**
+   * The configuration Hazelcast builds for a region from {@code cacheSimpleConfig}, with its expiry jittered when the
+   * region has {@link CacheConfig#getExpiryJitterPercent()}: the simple configuration only names an expiry policy factory
+   * class, it cannot carry the factory settings.
+   */
+  public com.hazelcast.config.CacheConfig<Object, Object> toCacheConfig(final CacheSimpleConfig cacheSimpleConfig) {
+    final com.hazelcast.config.CacheConfig<Object, Object> cacheConfig;
+    try {
+      cacheConfig = new com.hazelcast.config.CacheConfig<>(cacheSimpleConfig);
+    } catch (final Exception e) {
+      throw new CacheException(e);
+    }
+    final int jitterPercent = regionConfig(cacheSimpleConfig.getName()).getExpiryJitterPercent();
+    final ExpiryPolicyFactoryConfig factoryConfig = cacheSimpleConfig.getExpiryPolicyFactoryConfig();
+    final TimedExpiryPolicyFactoryConfig timed = isNull(factoryConfig) ? null : factoryConfig.getTimedExpiryPolicyFactoryConfig();
+    if (jitterPercent <= 0 || isNull(timed) || isNull(timed.getDurationConfig())
+        || timed.getExpiryPolicyType() == ExpiryPolicyType.ETERNAL
+        || getRegionKind(cacheSimpleConfig.getName()) == CacheRegionKind.TIMESTAMPS) {
+      return cacheConfig;
+    }
+    final DurationConfig duration = timed.getDurationConfig();
+    cacheConfig.setExpiryPolicyFactory(new JitteredExpiryPolicyFactory(timed.getExpiryPolicyType(),
+        duration.getTimeUnit().toMillis(duration.getDurationAmount()), Math.min(100, jitterPercent)));
+    return cacheConfig;
+  }
+
+  /**
+   * The settings of a region, those of {@link HazelcastConfiguration#DEFAULT} when it has none of its own.
+   */
+  public CacheConfig regionConfig(final String cacheName) {
+    return hazelcastConfiguration.getCacheConfig().getOrDefault(cacheName, hazelcastConfiguration.getCacheConfig().get(
         HazelcastConfiguration.DEFAULT));
+  }
+
+  /**
+   * Client configuration with this cluster's members and the near caches of the regions that have one enabled, but the
+   * update timestamps.
+   */
+  public ClientConfig getClientConfig() {
+    final ClientConfig clientConfig = new ClientConfig();
+    clientConfig.getGroupConfig().setName(hazelcastInstance.getConfig().getGroupConfig().getName());
+    hazelcastInstance.getCluster().getMembers().forEach(member -> clientConfig.getNetworkConfig()
+        .addAddress(member.getAddress().getHost() + ":" + member.getAddress().getPort()));
+    getCacheNames().forEach(cacheName -> {
+      // the timestamps are read from their owner: a near cache may still hold the timestamp from before a transaction
+      // once it has committed, and queries would then use results it made stale
+      final NearCache nearCache = regionConfig(cacheName).getNearCache();
+      if (nonNull(nearCache) && nearCache.isEnabled() && !CacheRegionKind.DEFAULT_UPDATE_TIMESTAMPS_REGION.equals(cacheName)) {
+        clientConfig.addNearCacheConfig(nearCacheConfig(cacheName, nearCache));
+      }
+    });
+    hazelcastConfiguration.getSessionMaps().values().stream()
+        .filter(sessionMap -> sessionMap.getNearCache().isEnabled())
+        .forEach(sessionMap -> clientConfig.addNearCacheConfig(nearCacheConfig(sessionMap.getName(), sessionMap.getNearCache())));
+    final ImagesCache imagesCache = hazelcastConfiguration.getImagesCache();
+    if (imagesCache.isCompressionEnabled()) {
+      // the published XML only carries the class name, see CompressingImageSerializer
+      clientConfig.getSerializationConfig().addSerializerConfig(new SerializerConfig()
+          .setTypeClassName(ImageEntity.class.getName())
+          .setImplementation(new CompressingImageSerializer(imagesCache.getCodec(), imagesCache.getCompressionThresholdBytes())));
+    }
+    if (hazelcastConfiguration.isHibernateSerializersEnabled()) {
+      HibernateSerializers.serializerConfigs(hazelcastConfiguration.isQueryKeyDigestEnabled())
+          .forEach(clientConfig.getSerializationConfig()::addSerializerConfig);
+    }
+    if (hazelcastConfiguration.getPlayingDevices().isHighWriteEnabled()) {
+      PlayingDevices.serializerConfigs().forEach(clientConfig.getSerializationConfig()::addSerializerConfig);
+    }
+    return clientConfig;
+  }
+
+  public CacheRegionKind getRegionKind(final String cacheName) {
+    final CacheRegionKind kind = regionKinds.get(cacheName);
+    return nonNull(kind) ? kind : CacheRegionKind.of(cacheName);
+  }
+
+  /**
+   * Internal services of this member, for the member-local statistics that have no public API.
+   */
+  public NodeEngineImpl getNodeEngine() {
+    return ((HazelcastInstanceProxy) hazelcastInstance).getOriginal().node.getNodeEngine();
+  }
+
+  private CacheRegionIndex cacheRegionIndex() {
+    final long start = System.nanoTime();
+    CacheRegionIndex regionIndex = null;
+    String source = "manifest";
+    if (hazelcastConfiguration.isRegionIndexEnabled()) {
+      try {
+        regionIndex = CacheRegionIndex.load(HazelcastService.class.getClassLoader());
+      } catch (final IOException e) {
+        log.warn("[cache][regions][error reading {}: {}]", CacheRegionIndex.LOCATION, e.getMessage());
+      }
+    }
+    if (isNull(regionIndex)) {
+      source = "classpath scan";
+      regionIndex = CacheRegionIndex.scan(hazelcastConfiguration.getRegionPackage());
+    }
+    log.info("[cache][regions][{} regions from {} in {} ms]",
+        regionIndex.size(), source, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    return regionIndex;
+  }
+
+  private CacheSimpleConfig entityCacheSimpleConfig(final String cacheName) {
+    return cacheConfig(cacheName);
+  }
+
+  /**
+   * Hazelcast builds the configuration of a region from the simple one when a proxy first asks for it, which would drop
+   * the jitter; the regions with one get theirs first, and clients then receive it from the members.
+   */
+  private void registerJitteredCacheConfigs() {
+    final ICacheService cacheService = getNodeEngine().getService(ICacheService.SERVICE_NAME);
+    getCacheConfigs().values().forEach(cacheSimpleConfig -> {
+      final com.hazelcast.config.CacheConfig<Object, Object> cacheConfig = toCacheConfig(cacheSimpleConfig);
+      if (cacheConfig.getExpiryPolicyFactory() instanceof JitteredExpiryPolicyFactory) {
+        cacheConfig.setManagerPrefix(HazelcastCacheManager.CACHE_MANAGER_PREFIX);
+        cacheService.putCacheConfigIfAbsent(cacheConfig);
+      }
+    });
+  }
+
+  private CacheSimpleConfig cacheConfig(final String cacheName) {
+    final CacheConfig cacheConfig = regionConfig(cacheName);
     final CacheSimpleConfig cacheSimpleConfig = new CacheSimpleConfig()
         .setName(cacheName)
         .setManagementEnabled(cacheConfig.isManagementEnabled())
@@ -220,53 +454,164 @@ public class HazelcastService {
         .setReadThrough(cacheConfig.isReadThrough())
         .setWriteThrough(cacheConfig.isWriteThrough())
         .setEvictionConfig(new EvictionConfig(cacheConfig.getSize(), ENTRY_COUNT, cacheConfig.getEvictionPolicy()))
-        .setExpiryPolicyFactoryConfig(expiryPolicyFactoryConfig(cacheConfig.getDurationAmount(), cacheConfig.getTimeUnit()))
+        .setExpiryPolicyFactoryConfig(expiryPolicyFactoryConfig(cacheConfig.getExpiryPolicyType(), cacheConfig.getDurationAmount(),
+            cacheConfig.getTimeUnit()))
         .setBackupCount(cacheConfig.getBackupCount())
-        .setAsyncBackupCount(cacheConfig.getAsyncBackupCount());
-
-    if (StringUtils.hasText(cacheConfig.getCacheEntryListenerFactory())) {
-      final CacheSimpleEntryListenerConfig listenerConfig = new CacheSimpleEntryListenerConfig();
-      listenerConfig.setCacheEntryListenerFactory(cacheConfig.getCacheEntryListenerFactory());
-      cacheSimpleConfig.addEntryListenerConfig(listenerConfig);
+        .setAsyncBackupCount(cacheConfig.getAsyncBackupCount())
+        .setInMemoryFormat(cacheConfig.getInMemoryFormat());
+
+    final Set<EventType> eventTypes = publishedEventTypes(cacheName, cacheConfig);
+    if (StringUtils.hasText(cacheConfig.getCacheEntryListenerFactory()) && !eventTypes.isEmpty()) {
+      if (eventTypes.containsAll(EnumSet.allOf(EventType.class))) {
+        cacheSimpleConfig.addEntryListenerConfig(entryListenerConfig(cacheConfig, cacheConfig.getCacheEntryListenerFactory()));
+      } else {
+        eventTypes.forEach(eventType -> cacheSimpleConfig.addEntryListenerConfig(
+            entryListenerConfig(cacheConfig, cacheConfig.getCacheEntryListenerFactory() + "$" + eventTypeName(eventType))));
+      }
     }
     return cacheSimpleConfig;
   }
 
-  private ExpiryPolicyFactoryConfig expiryPolicyFactoryConfig(final long durationAmount, final TimeUnit timeUnit) {
-    return new CacheSimpleConfig.ExpiryPolicyFactoryConfig(
-        new CacheSimpleConfig.ExpiryPolicyFactoryConfig.TimedExpiryPolicyFactoryConfig(
-            CacheSimpleConfig.ExpiryPolicyFactoryConfig.TimedExpiryPolicyFactoryConfig.ExpiryPolicyType.CREATED,
-            new CacheSimpleConfig.ExpiryPolicyFactoryConfig.DurationConfig(durationAmount, timeUnit)));
+  /**
+   * The event types of the region some listener of {@link HazelcastConfiguration#getCacheEntryListeners()} subscribes to.
+   */
+  private Set<EventType> publishedEventTypes(final String cacheName, final CacheConfig cacheConfig) {
+    final Set<EventType> eventTypes = EnumSet.noneOf(EventType.class);
+    eventTypes.addAll(cacheConfig.getEventTypes());
+    if (isNull(listenerClasses)) {
+      return eventTypes;
+    }
+    eventTypes.retainAll(CacheEntryListenerRoutes.subscribedEventTypes(listenerClasses, cacheName));
+    return eventTypes;
+  }
+
+  /**
+   * The classes of {@link HazelcastConfiguration#getCacheEntryListeners()}, {@code null} when none is listed or one of
+   * them cannot be loaded, since the listeners may then subscribe to any region.
+   */
+  private static List<Class<?>> listenerClasses(final List<String> classNames) {
+    if (isNull(classNames) || classNames.isEmpty()) {
+      return null;
+    }
+    final List<Class<?>> classes = new ArrayList<>(classNames.size());
+    for (final String className : classNames) {
+      try {
+        classes.add(Class.forName(className, false, HazelcastService.class.getClassLoader()));
+      } catch (final ClassNotFoundException | LinkageError e) {
+        log.warn("[cache][listener {} not found, every region publishes its events]", className);
+        return null;
+      }
+    }
+    return classes;
+  }
+
+  private CacheSimpleEntryListenerConfig entryListenerConfig(final CacheConfig cacheConfig, final String listenerFactory) {
+    final CacheSimpleEntryListenerConfig listenerConfig = new CacheSimpleEntryListenerConfig();
+    listenerConfig.setCacheEntryListenerFactory(listenerFactory);
+    if (StringUtils.hasText(cacheConfig.getCacheEntryEventFilterFactory())) {
+      listenerConfig.setCacheEntryEventFilterFactory(cacheConfig.getCacheEntryEventFilterFactory());
+    }
+    listenerConfig.setOldValueRequired(cacheConfig.isOldValueRequired());
+    listenerConfig.setSynchronous(cacheConfig.isSynchronous());
+    return listenerConfig;
+  }
+
+  private static String eventTypeName(final EventType eventType) {
+    return eventType.name().charAt(0) + eventType.name().substring(1).toLowerCase();
+  }
+
+  private NearCacheConfig nearCacheConfig(final String cacheName, final NearCache nearCache) {
+    final NearCacheConfig nearCacheConfig = new NearCacheConfig(cacheName)
+        .setInMemoryFormat(nearCache.getInMemoryFormat())
+        .setInvalidateOnChange(nearCache.isInvalidateOnChange())
+        .setTimeToLiveSeconds(nearCache.getTimeToLiveSeconds())
+        .setMaxIdleSeconds(nearCache.getMaxIdleSeconds())
+        .setLocalUpdatePolicy(nearCache.getLocalUpdatePolicy())
+        .setEvictionConfig(new EvictionConfig(nearCache.getMaxSize(), ENTRY_COUNT, nearCache.getEvictionPolicy()));
+    nearCacheConfig.getPreloaderConfig()
+        .setEnabled(nearCache.isPreloadEnabled())
+        .setDirectory(nearCache.getPreloadDirectory())
+        .setStoreInitialDelaySeconds(nearCache.getPreloadStoreInitialDelaySeconds())
+        .setStoreIntervalSeconds(nearCache.getPreloadStoreIntervalSeconds());
+    return nearCacheConfig;
   }
 
-  private CacheSimpleConfig fieldCacheSimpleConfig(final Field field) {
-    final String cacheName = field.getDeclaringClass().getCanonicalName() + "." + field.getName();
+  private static EventJournalConfig eventJournalConfig(final String cacheName, final CacheConfig cacheConfig) {
+    return new EventJournalConfig()
+        .setCacheName(HazelcastConfiguration.DEFAULT.equals(cacheName) ? "*" : cacheName)
+        .setEnabled(cacheConfig.isEventJournalEnabled())
+        .setCapacity(cacheConfig.getEventJournalCapacity())
+        .setTimeToLiveSeconds(cacheConfig.getEventJournalTtlSeconds());
+  }
+
+  public static ExpiryPolicyFactoryConfig expiryPolicyFactoryConfig(final ExpiryPolicyType expiryPolicyType,
+      final long durationAmount, final TimeUnit timeUnit) {
+    return new ExpiryPolicyFactoryConfig(new TimedExpiryPolicyFactoryConfig(expiryPolicyType,
+        new DurationConfig(durationAmount, timeUnit)));
+  }
+
+  private CacheSimpleConfig fieldCacheSimpleConfig(final String cacheName) {
     final CacheSimpleConfig cacheConfig = cacheConfig(cacheName);
     cacheConfig.setWriteThrough(false);
     return cacheConfig;
   }
 
-  private CacheSimpleConfig imageEntityCacheSimpleConfig(final Class<? extends ImageEntity> imageEntity) {
-    final String cacheName = "ImagesCache.".concat(imageEntity.getSimpleName());
-    return cacheConfig(cacheName);
+  private CacheSimpleConfig imageEntityCacheSimpleConfig(final String cacheName) {
+    final CacheSimpleConfig cacheConfig = cacheConfig(cacheName);
+    final ImagesCache imagesCache = hazelcastConfiguration.getImagesCache();
+    if (imagesCache.getMaxBytes() > 0) {
+      final EvictionConfig evictionConfig = cacheConfig.getEvictionConfig();
+      final long budgetEntries = imagesCache.getMaxBytes() / Math.max(1, imagesCache.getExpectedEntryBytes());
+      evictionConfig.setSize((int) Math.max(1, Math.min(evictionConfig.getSize(), budgetEntries)));
+    }
+    return cacheConfig;
+  }
+
+  private MapConfig sessionMapConfig(final SessionMap sessionMap) {
+    final MapConfig mapConfig = new MapConfig(sessionMap.getName())
+        .setInMemoryFormat(sessionMap.getInMemoryFormat())
+        .setMaxIdleSeconds(sessionMap.getMaxIdleSeconds())
+        .setBackupCount(sessionMap.getBackupCount())
+        .setAsyncBackupCount(sessionMap.getAsyncBackupCount())
+        .addMapAttributeConfig(new MapAttributeConfig()
+            .setName(PRINCIPAL_NAME_ATTRIBUTE)
+            .setExtractor("org.springframework.session.hazelcast.PrincipalNameExtractor"))
+        .addMapIndexConfig(new MapIndexConfig(PRINCIPAL_NAME_ATTRIBUTE, sessionMap.isPrincipalIndexOrdered()));
+    if (sessionMap.getMaxSize() > 0) {
+      mapConfig
+          .setEvictionPolicy(EvictionPolicy.LRU)
+          .setMaxSizeConfig(new MaxSizeConfig(sessionMap.getMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+    }
+    return mapConfig;
   }
 
-  private Optional<CacheSimpleConfig> hintCacheSimpleConfig(final Method method) {
-    final QueryHints hints = method.getAnnotation(QueryHints.class);
-    final Optional<QueryHint> queryHint = Arrays.asList(hints.value()).stream()
-        .filter(hint -> hint.name().equals(org.hibernate.annotations.QueryHints.CACHE_REGION))
-        .findFirst();
-    if (queryHint.isPresent()) {
-      return Optional.of(cacheConfig(queryHint.get().value()));
-    } else {
-      return Optional.empty();
+  private MapConfig playingDevicesMapConfig(final HazelcastConfiguration.PlayingDevices playingDevices) {
+    final MapConfig mapConfig = new MapConfig(playingDevices.getName())
+        .setMaxIdleSeconds(playingDevices.getMaxIdleSeconds());
+    if (!playingDevices.isHighWriteEnabled()) {
+      return mapConfig;
+    }
+    // heartbeats are applied to the object, without deserializing the previous value
+    mapConfig
+        .setInMemoryFormat(InMemoryFormat.OBJECT)
+        .setBackupCount(playingDevices.getBackupCount())
+        .setAsyncBackupCount(playingDevices.getAsyncBackupCount());
+    if (playingDevices.getMaxSize() > 0) {
+      mapConfig
+          .setEvictionPolicy(EvictionPolicy.LRU)
+          .setMaxSizeConfig(new MaxSizeConfig(playingDevices.getMaxSize(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
     }
+    return mapConfig;
+  }
+
+  private CacheSimpleConfig hintCacheSimpleConfig(final String cacheName) {
+    return cacheConfig(cacheName);
   }
 
   private CacheSimpleConfig defaultUpdateTimestampsCacheConfig() {
-    final String cacheName = "default-update-timestamps-region";
+    final String cacheName = CacheRegionKind.DEFAULT_UPDATE_TIMESTAMPS_REGION;
     final CacheSimpleConfig cacheConfig = cacheConfig(cacheName);
-    cacheConfig.setExpiryPolicyFactoryConfig(expiryPolicyFactoryConfig(1, TimeUnit.DAYS));
+    cacheConfig.setExpiryPolicyFactoryConfig(expiryPolicyFactoryConfig(ExpiryPolicyType.CREATED, 1, TimeUnit.DAYS));
     return cacheConfig;
   }
 }
@@ -0,0 +1,21 @@
+package com.azdio.cache.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Keys of a {@code getAll} or {@code removeAll}, entries of a {@code putAll}.
+ */
+@Data
+public class BulkRequest {
+
+  private List<String> keys = new ArrayList<>();
+  private List<CacheEntryData> entries = new ArrayList<>();
+  /**
+   * Time to live of the entries put, the region expiry policy applies when 0.
+   */
+  private long ttlSeconds = 0;
+
+}
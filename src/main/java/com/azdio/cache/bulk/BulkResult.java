@@ -0,0 +1,14 @@
+package com.azdio.cache.bulk;
+
+import lombok.Data;
+
+/**
+ * Outcome of a {@code putAll} or {@code removeAll}.
+ */
+@Data
+public class BulkResult {
+
+  private final int requested;
+  private final long applied;
+
+}
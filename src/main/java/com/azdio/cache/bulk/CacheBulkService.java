@@ -0,0 +1,327 @@
+package com.azdio.cache.bulk;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.ExpiryPolicy;
+import javax.cache.expiry.ModifiedExpiryPolicy;
+import javax.inject.Singleton;
+
+import com.azdio.cache.HazelcastConfiguration.BulkApi;
+import com.azdio.cache.HazelcastService;
+import com.hazelcast.cache.HazelcastCacheManager;
+import com.hazelcast.cache.impl.CacheEntryIterationResult;
+import com.hazelcast.cache.impl.CacheKeyIterationResult;
+import com.hazelcast.cache.impl.CacheOperationProvider;
+import com.hazelcast.cache.impl.ICacheService;
+import com.hazelcast.cache.impl.operation.MutableOperation;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.Operation;
+
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.exceptions.HttpStatusException;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Bulk reads and writes of a region for tools that should not have to start a Hazelcast client.
+ * <p>
+ * Everything goes through the cache operations of the partition owners, invoked asynchronously: no call blocks the
+ * calling thread, so the endpoints can stay on the Netty event loop. A region nobody used yet is first created on the
+ * I/O scheduler, since creating it waits for the other members. Streams fetch one page of one partition at a time, only
+ * when the response is ready for more, so a region is never held in memory. Keys and values are never deserialized.
+ * Writes must carry {@code Authorization: Bearer <token>}, see {@link BulkApi#getWriteToken()}.
+ */
+@Singleton
+public class CacheBulkService {
+
+  private static final int FIRST = Integer.MAX_VALUE;
+  private static final String BEARER = "Bearer ";
+
+  private final HazelcastService hazelcastService;
+  private final BulkApi bulkApi;
+
+  public CacheBulkService(final HazelcastService hazelcastService) {
+    this.hazelcastService = hazelcastService;
+    this.bulkApi = hazelcastService.getHazelcastConfiguration().getBulkApi();
+  }
+
+  /**
+   * @param cursor {@code null} for the first page, then the {@code nextCursor} of the previous page
+   */
+  public Single<EntryPage> entries(final String name, final int partition, final Integer cursor, final Integer limit) {
+    final Single<CacheOperationProvider> operations = operations(name);
+    checkPartition(partition);
+    final int from = isNull(cursor) ? FIRST : cursor;
+    return operations
+        .flatMap(provider -> this.<CacheEntryIterationResult>invoke(provider.createEntryIteratorOperation(from,
+            pageSize(limit)), partition).toSingle())
+        .map(result -> new EntryPage(partition, from, nextCursor(result.getCount(), result.getTableIndex()),
+            result.getEntries().stream()
+                .map(entry -> new CacheEntryData(encode(entry.getKey()), encode(entry.getValue())))
+                .collect(Collectors.toList())));
+  }
+
+  public Single<KeyPage> keys(final String name, final int partition, final Integer cursor, final Integer limit) {
+    final Single<CacheOperationProvider> operations = operations(name);
+    checkPartition(partition);
+    final int from = isNull(cursor) ? FIRST : cursor;
+    return operations
+        .flatMap(provider -> this.<CacheKeyIterationResult>invoke(provider.createKeyIteratorOperation(from,
+            pageSize(limit)), partition).toSingle())
+        .map(result -> new KeyPage(partition, from, nextCursor(result.getCount(), result.getTableIndex()),
+            result.getKeys().stream().map(CacheBulkService::encode).collect(Collectors.toList())));
+  }
+
+  /**
+   * Every entry of the region, partition after partition.
+   */
+  public Flowable<CacheEntryData> streamEntries(final String name, final Integer limit) {
+    return operations(name)
+        .flatMapPublisher(provider -> Flowable.range(0, partitionCount()))
+        .concatMap(partition -> pages(cursor -> entries(name, partition, cursor, limit), EntryPage::getNextCursor))
+        .concatMapIterable(EntryPage::getEntries);
+  }
+
+  /**
+   * Every key of the region, as entries without value.
+   */
+  public Flowable<CacheEntryData> streamKeys(final String name, final Integer limit) {
+    return operations(name)
+        .flatMapPublisher(provider -> Flowable.range(0, partitionCount()))
+        .concatMap(partition -> pages(cursor -> keys(name, partition, cursor, limit), KeyPage::getNextCursor))
+        .concatMapIterable(KeyPage::getKeys)
+        .map(key -> new CacheEntryData(key, null));
+  }
+
+  /**
+   * Every entry of the region, one chunk per page: {@code key length, key, value length, value} per entry, the
+   * serialized form as in the JSON stream.
+   */
+  public Flowable<byte[]> streamEntriesBinary(final String name, final Integer limit) {
+    final int pageSize = pageSize(limit);
+    return operations(name)
+        .flatMapPublisher(provider -> Flowable.range(0, partitionCount())
+            .concatMap(partition -> pages(cursor -> this.<CacheEntryIterationResult>invoke(
+                provider.createEntryIteratorOperation(isNull(cursor) ? FIRST : cursor, pageSize), partition).toSingle(),
+                result -> nextCursor(result.getCount(), result.getTableIndex()))))
+        .filter(result -> result.getCount() > 0)
+        .map(result -> {
+          int size = 0;
+          for (final Map.Entry<Data, Data> entry : result.getEntries()) {
+            size += 2 * Integer.BYTES + entry.getKey().totalSize() + entry.getValue().totalSize();
+          }
+          final ByteBuffer chunk = ByteBuffer.allocate(size);
+          for (final Map.Entry<Data, Data> entry : result.getEntries()) {
+            chunk.putInt(entry.getKey().totalSize()).put(entry.getKey().toByteArray());
+            chunk.putInt(entry.getValue().totalSize()).put(entry.getValue().toByteArray());
+          }
+          return chunk.array();
+        });
+  }
+
+  /**
+   * The entries found among the requested keys.
+   */
+  public Single<List<CacheEntryData>> getAll(final String name, final BulkRequest request) {
+    final Single<CacheOperationProvider> operations = operations(name);
+    checkBatch(request.getKeys().size());
+    final List<Data> keys = request.getKeys().stream().map(CacheBulkService::decode).collect(Collectors.toList());
+    return operations.flatMap(provider -> Flowable.range(0, keys.size())
+        .concatMapEager(i -> this.<Object>invoke(provider.createGetOperation(keys.get(i), null), partitionId(keys.get(i)), false)
+            .map(value -> new CacheEntryData(request.getKeys().get(i), encode(toData(value))))
+            .toFlowable(), bulkApi.getMaxConcurrentOperations(), 1)
+        .toList());
+  }
+
+  /**
+   * Puts the entries with one operation per partition.
+   */
+  public Single<BulkResult> putAll(final String authorization, final String name, final BulkRequest request) {
+    authorize(authorization);
+    final Single<CacheOperationProvider> operations = operations(name);
+    checkBatch(request.getEntries().size());
+    final ExpiryPolicy expiryPolicy = request.getTtlSeconds() > 0
+        ? new ModifiedExpiryPolicy(new Duration(TimeUnit.SECONDS, request.getTtlSeconds()))
+        : null;
+    final Map<Integer, List<Map.Entry<Data, Data>>> partitions = new LinkedHashMap<>();
+    for (final CacheEntryData entry : request.getEntries()) {
+      final Data key = decode(entry.getKey());
+      partitions.computeIfAbsent(partitionId(key), partition -> new ArrayList<>())
+          .add(new AbstractMap.SimpleImmutableEntry<>(key, decode(entry.getValue())));
+    }
+    return operations.flatMap(provider -> Flowable.fromIterable(partitions.entrySet())
+        .flatMapSingle(partition -> this.<Object>invoke(
+            provider.createPutAllOperation(partition.getValue(), expiryPolicy, MutableOperation.IGNORE_COMPLETION),
+            partition.getKey())
+            .ignoreElement()
+            .toSingleDefault((long) partition.getValue().size()), false, bulkApi.getMaxConcurrentOperations())
+        .reduce(0L, Long::sum))
+        .map(applied -> new BulkResult(request.getEntries().size(), applied));
+  }
+
+  /**
+   * @return the number of keys that were present
+   */
+  public Single<BulkResult> removeAll(final String authorization, final String name, final BulkRequest request) {
+    authorize(authorization);
+    final Single<CacheOperationProvider> operations = operations(name);
+    checkBatch(request.getKeys().size());
+    final List<Data> keys = request.getKeys().stream().map(CacheBulkService::decode).collect(Collectors.toList());
+    return operations.flatMap(provider -> Flowable.fromIterable(keys)
+        .flatMapSingle(key -> this.<Boolean>invoke(
+            provider.createRemoveOperation(key, null, MutableOperation.IGNORE_COMPLETION), partitionId(key))
+            .toSingle(false), false, bulkApi.getMaxConcurrentOperations())
+        .filter(Boolean.TRUE::equals)
+        .count())
+        .map(applied -> new BulkResult(request.getKeys().size(), applied));
+  }
+
+  /**
+   * The pages of a partition from the first one, each fetched once the previous one has been consumed.
+   */
+  private static <P> Flowable<P> pages(final PageFetch<P> fetch, final io.reactivex.functions.Function<P, Integer> nextCursor) {
+    final Integer[] cursor = new Integer[1];
+    return Flowable.defer(() -> fetch.apply(cursor[0]).toFlowable())
+        .doOnNext(page -> cursor[0] = nextCursor.apply(page))
+        .repeat()
+        .takeUntil((P page) -> isNull(nextCursor.apply(page)));
+  }
+
+  /**
+   * Invokes the operation on the partition owner, a {@code null} response completes empty.
+   */
+  private <T> Maybe<T> invoke(final Operation operation, final int partitionId) {
+    return invoke(operation, partitionId, true);
+  }
+
+  /**
+   * @param resultDeserialized {@code false} to get a remote response as the {@link Data} the owner sent
+   */
+  private <T> Maybe<T> invoke(final Operation operation, final int partitionId, final boolean resultDeserialized) {
+    return Maybe.create(emitter -> hazelcastService.getNodeEngine().getOperationService()
+        .createInvocationBuilder(ICacheService.SERVICE_NAME, operation, partitionId)
+        .setResultDeserialized(resultDeserialized)
+        .<T>invoke()
+        .andThen(new ExecutionCallback<T>() {
+
+          @Override
+          public void onResponse(final T response) {
+            if (isNull(response)) {
+              emitter.onComplete();
+            } else {
+              emitter.onSuccess(response);
+            }
+          }
+
+          @Override
+          public void onFailure(final Throwable t) {
+            emitter.tryOnError(t);
+          }
+        }));
+  }
+
+  /**
+   * A value as read: serialized when it comes from another member or a binary region, an object only from a local
+   * region stored as objects.
+   */
+  private Data toData(final Object value) {
+    return value instanceof Data ? (Data) value : hazelcastService.getNodeEngine().toData(value);
+  }
+
+  /**
+   * The operations of a known region; a region declared but not used by anyone yet is created once from its declared
+   * configuration, on the I/O scheduler as that waits for the other members.
+   */
+  private Single<CacheOperationProvider> operations(final String name) {
+    if (!hazelcastService.getCacheNames().contains(name)) {
+      throw new HttpStatusException(HttpStatus.NOT_FOUND, "Unknown region " + name);
+    }
+    final ICacheService cacheService = hazelcastService.getNodeEngine().getService(ICacheService.SERVICE_NAME);
+    final String prefixedName = HazelcastCacheManager.CACHE_MANAGER_PREFIX + name;
+    final Single<CacheOperationProvider> operations = Single.fromCallable(() -> cacheService.getCacheOperationProvider(
+        prefixedName, hazelcastService.getCacheConfigs().get(name).getInMemoryFormat()));
+    if (nonNull(cacheService.getCacheConfig(prefixedName))) {
+      return operations;
+    }
+    return Single.fromCallable(() -> hazelcastService.getHazelcastInstance().getCacheManager().getCache(name))
+        .subscribeOn(Schedulers.io())
+        .flatMap(cache -> operations);
+  }
+
+  private void authorize(final String authorization) {
+    if (bulkApi.getWriteToken().isEmpty()) {
+      throw new HttpStatusException(HttpStatus.FORBIDDEN, "Bulk writes are disabled");
+    }
+    final byte[] expected = (BEARER + bulkApi.getWriteToken()).getBytes(StandardCharsets.UTF_8);
+    if (isNull(authorization) || !MessageDigest.isEqual(expected, authorization.getBytes(StandardCharsets.UTF_8))) {
+      throw new HttpStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
+    }
+  }
+
+  private int partitionCount() {
+    return hazelcastService.getNodeEngine().getPartitionService().getPartitionCount();
+  }
+
+  private int partitionId(final Data key) {
+    return hazelcastService.getNodeEngine().getPartitionService().getPartitionId(key);
+  }
+
+  private void checkPartition(final int partition) {
+    if (partition < 0 || partition >= partitionCount()) {
+      throw new HttpStatusException(HttpStatus.BAD_REQUEST, "Partition must be between 0 and " + (partitionCount() - 1));
+    }
+  }
+
+  private void checkBatch(final int size) {
+    if (size > bulkApi.getMaxBatchEntries()) {
+      throw new HttpStatusException(HttpStatus.REQUEST_ENTITY_TOO_LARGE,
+          size + " entries requested, at most " + bulkApi.getMaxBatchEntries() + " per batch");
+    }
+  }
+
+  private int pageSize(final Integer limit) {
+    return isNull(limit) ? bulkApi.getPageSize() : Math.max(1, Math.min(limit, bulkApi.getMaxPageSize()));
+  }
+
+  /**
+   * Fetched tables are walked from the highest index down, a negative index or an empty page ends the partition.
+   */
+  private static Integer nextCursor(final int count, final int tableIndex) {
+    return count == 0 || tableIndex < 0 ? null : tableIndex;
+  }
+
+  private static String encode(final Data data) {
+    return Base64.getEncoder().encodeToString(data.toByteArray());
+  }
+
+  private static Data decode(final String data) {
+    try {
+      return new HeapData(Base64.getDecoder().decode(data));
+    } catch (final IllegalArgumentException e) {
+      throw new HttpStatusException(HttpStatus.BAD_REQUEST, "Keys and values must be Base64: " + e.getMessage());
+    }
+  }
+
+  @FunctionalInterface
+  private interface PageFetch<P> {
+    Single<P> apply(Integer cursor);
+  }
+}
@@ -0,0 +1,19 @@
+package com.azdio.cache.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A cache entry as exchanged by the bulk API: key and value are the Base64 of their Hazelcast serialized form, so they
+ * can be written back as read whatever their class.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEntryData {
+
+  private String key;
+  private String value;
+
+}
@@ -0,0 +1,18 @@
+package com.azdio.cache.bulk;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * A page of the entries of one partition. {@code nextCursor} is {@code null} after the last page.
+ */
+@Data
+public class EntryPage {
+
+  private final int partition;
+  private final int cursor;
+  private final Integer nextCursor;
+  private final List<CacheEntryData> entries;
+
+}
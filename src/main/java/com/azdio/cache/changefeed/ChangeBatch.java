@@ -0,0 +1,18 @@
+package com.azdio.cache.changefeed;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * A batch of the change stream of a region: the events of one partition, or none for a heartbeat. {@code cursor}
+ * resumes the stream right after this batch.
+ */
+@Data
+public class ChangeBatch {
+
+  private final String cursor;
+  private final long lost;
+  private final List<ChangeEvent> events;
+
+}
@@ -0,0 +1,21 @@
+package com.azdio.cache.changefeed;
+
+import com.hazelcast.cache.CacheEventType;
+
+import lombok.Data;
+
+/**
+ * A mutation read from the event journal of a region. Key and values are the Base64 of their Hazelcast serialized form,
+ * as in the bulk API; {@code null} when the event has none, e.g. no value for a removal.
+ */
+@Data
+public class ChangeEvent {
+
+  private final int partition;
+  private final long sequence;
+  private final CacheEventType type;
+  private final String key;
+  private final String value;
+  private final String oldValue;
+
+}
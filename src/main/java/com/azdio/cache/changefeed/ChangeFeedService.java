@@ -0,0 +1,309 @@
+package com.azdio.cache.changefeed;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Singleton;
+
+import com.azdio.cache.HazelcastConfiguration.ChangeFeed;
+import com.azdio.cache.HazelcastService;
+import com.hazelcast.cache.CacheEventType;
+import com.hazelcast.cache.HazelcastCacheManager;
+import com.hazelcast.cache.impl.ICacheService;
+import com.hazelcast.cache.impl.journal.CacheEventJournalReadOperation;
+import com.hazelcast.cache.impl.journal.CacheEventJournalSubscribeOperation;
+import com.hazelcast.cache.impl.journal.InternalEventJournalCacheEvent;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.internal.journal.EventJournalInitialSubscriberState;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.ringbuffer.ReadResultSet;
+import com.hazelcast.spi.Operation;
+
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.exceptions.HttpStatusException;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * The event journal of a region, see {@link com.azdio.cache.HazelcastConfiguration.CacheConfig#isEventJournalEnabled()},
+ * read by consumers at their own pace instead of pushed to listeners.
+ * <p>
+ * Each partition keeps its events in a ring buffer numbered by sequence; a read is one operation on the partition owner
+ * returning the events from a sequence, invoked asynchronously as the bulk API does. A consumer resumes from the
+ * sequences it has read: a partition sequence for a page, an opaque cursor holding all of them for a stream. Events
+ * dropped by the capacity or time to live of the journal before they were read are counted as lost. A journal that
+ * starts over, its partition having lost its owner and backups, is read again from its oldest event, and the sequences
+ * it went back by are counted as lost. Keys and values are never deserialized.
+ */
+@Singleton
+public class ChangeFeedService {
+
+  private final HazelcastService hazelcastService;
+  private final ChangeFeed changeFeed;
+
+  public ChangeFeedService(final HazelcastService hazelcastService) {
+    this.hazelcastService = hazelcastService;
+    this.changeFeed = hazelcastService.getHazelcastConfiguration().getChangeFeed();
+  }
+
+  /**
+   * @param sequence {@code null} for the oldest event left, then the {@code nextSequence} of the previous page
+   */
+  public Single<ChangePage> changes(final String name, final int partition, final Long sequence, final Integer limit) {
+    final Single<String> journal = journal(name);
+    checkPartition(partition);
+    final int batchSize = batchSize(limit);
+    return journal.flatMap(prefixedName -> (isNull(sequence)
+        ? subscribe(prefixedName, partition).map(EventJournalInitialSubscriberState::getOldestSequence)
+        : Single.just(sequence))
+        .flatMap(from -> read(prefixedName, partition, from, batchSize, nonNull(sequence))));
+  }
+
+  /**
+   * The changes of the region as they happen: passes over the partitions, one batch per partition with new events. A
+   * batch is read only once the consumer is ready for it, a pass that found nothing waits {@code pollMillis} before the
+   * next, twice as long after each further one up to {@code maxPollMillis}, and a batch without events is sent after
+   * {@code heartbeatSeconds} without any. The first pass of a resumed stream, and the passes of a stream idle for the
+   * longest wait, check the partitions without new events for a journal that started over.
+   *
+   * @param cursor the cursor of the last batch received, to resume right after it; {@code null} to start with the
+   *        events to come, or with the oldest events left when {@code replay}
+   */
+  public Flowable<ChangeBatch> stream(final String name, final String cursor, final boolean replay, final Integer limit) {
+    final Single<String> journal = journal(name);
+    final int batchSize = batchSize(limit);
+    final long[] resumed = isNull(cursor) ? null : decodeCursor(cursor);
+    return journal.flatMapPublisher(prefixedName -> (isNull(resumed) ? start(prefixedName, replay) : Single.just(resumed))
+        .flatMapPublisher(sequences -> {
+          final Idle idle = new Idle(nonNull(resumed));
+          return Flowable.defer(() -> pass(prefixedName, sequences, batchSize, idle)).repeat();
+        }));
+  }
+
+  /**
+   * Reads every partition once from {@code sequences}, which move forward as batches are emitted, so the cursor of a
+   * batch never covers events not yet sent.
+   */
+  private Flowable<ChangeBatch> pass(final String journal, final long[] sequences, final int batchSize, final Idle idle) {
+    final boolean checkReset = idle.checkReset;
+    idle.checkReset = false;
+    final boolean[] found = {false};
+    return Flowable.range(0, sequences.length)
+        .concatMapEager(partition -> read(journal, partition, sequences[partition], batchSize, checkReset).toFlowable(),
+            changeFeed.getMaxConcurrentOperations(), 1)
+        .doOnNext(page -> sequences[page.getPartition()] = page.getNextSequence())
+        .filter(page -> page.getLost() > 0 || !page.getEvents().isEmpty())
+        .map(page -> {
+          found[0] = true;
+          idle.passes = 0;
+          idle.lastBatch = System.nanoTime();
+          return new ChangeBatch(encodeCursor(sequences), page.getLost(), page.getEvents());
+        })
+        .concatWith(Flowable.defer(() -> found[0] ? Flowable.<ChangeBatch>empty() : idle(sequences, idle)));
+  }
+
+  private Flowable<ChangeBatch> idle(final long[] sequences, final Idle idle) {
+    final long maxPollMillis = Math.max(changeFeed.getPollMillis(), changeFeed.getMaxPollMillis());
+    final long pollMillis = Math.min(changeFeed.getPollMillis() << Math.min(idle.passes++, 16), maxPollMillis);
+    idle.checkReset = pollMillis == maxPollMillis;
+    return Flowable.timer(pollMillis, TimeUnit.MILLISECONDS)
+        .filter(tick -> System.nanoTime() - idle.lastBatch >= TimeUnit.SECONDS.toNanos(changeFeed.getHeartbeatSeconds()))
+        .map(tick -> {
+          idle.lastBatch = System.nanoTime();
+          return new ChangeBatch(encodeCursor(sequences), 0, Collections.<ChangeEvent>emptyList());
+        });
+  }
+
+  /**
+   * The sequence to read first in every partition.
+   */
+  private Single<long[]> start(final String journal, final boolean replay) {
+    return Flowable.range(0, partitionCount())
+        .concatMapEager(partition -> subscribe(journal, partition).toFlowable(), changeFeed.getMaxConcurrentOperations(), 1)
+        .map(state -> replay ? state.getOldestSequence() : state.getNewestSequence() + 1)
+        .toList()
+        .map(list -> list.stream().mapToLong(Long::longValue).toArray());
+  }
+
+  private Single<EventJournalInitialSubscriberState> subscribe(final String journal, final int partition) {
+    return invoke(new CacheEventJournalSubscribeOperation(journal), partition);
+  }
+
+  /**
+   * The events of a partition from {@code sequence}; the journal starts at its oldest event when older ones were
+   * dropped, hence the lost count.
+   *
+   * @param checkReset when nothing is read, whether to check for a journal that started over: it reads a sequence beyond
+   *        its next one as its next one, so a consumer ahead of it would wait for its sequence to come again; it is read
+   *        again from its oldest event instead, the sequences it went back by counted as lost
+   */
+  private Single<ChangePage> read(final String journal, final int partition, final long sequence, final int batchSize,
+      final boolean checkReset) {
+    final Single<ChangePage> read = read(journal, partition, sequence, sequence, batchSize, 0);
+    if (!checkReset) {
+      return read;
+    }
+    return read.flatMap(page -> page.getLost() > 0 || !page.getEvents().isEmpty()
+        ? Single.just(page)
+        : subscribe(journal, partition).flatMap(state -> sequence > state.getNewestSequence() + 1
+            ? read(journal, partition, sequence, state.getOldestSequence(), batchSize,
+                sequence - state.getNewestSequence() - 1)
+            : Single.just(page)));
+  }
+
+  /**
+   * @param reset sequences the journal went back by, counted as lost
+   */
+  private Single<ChangePage> read(final String journal, final int partition, final long sequence, final long from,
+      final int batchSize, final long reset) {
+    return this.<ReadResultSet<InternalEventJournalCacheEvent>>invoke(
+        new CacheEventJournalReadOperation<Object, Object, InternalEventJournalCacheEvent>(journal, from, 0, batchSize,
+            null, null), partition)
+        .map(result -> {
+          final List<ChangeEvent> events = new ArrayList<>(result.size());
+          for (int i = 0; i < result.size(); i++) {
+            final InternalEventJournalCacheEvent event = result.get(i);
+            events.add(new ChangeEvent(partition, result.getSequence(i), CacheEventType.getByType(event.getEventType()),
+                encode(event.getDataKey()), encode(event.getDataNewValue()), encode(event.getDataOldValue())));
+          }
+          // not set by the operation when there was nothing to read
+          final long nextSequence = result.readCount() > 0 ? result.getNextSequenceToReadFrom() : from;
+          return new ChangePage(partition, sequence, nextSequence,
+              reset + Math.max(0, nextSequence - from - result.readCount()), events);
+        });
+  }
+
+  private <T> Single<T> invoke(final Operation operation, final int partitionId) {
+    return Single.create(emitter -> hazelcastService.getNodeEngine().getOperationService()
+        .<T>invokeOnPartition(ICacheService.SERVICE_NAME, operation, partitionId)
+        .andThen(new ExecutionCallback<T>() {
+
+          @Override
+          public void onResponse(final T response) {
+            emitter.onSuccess(response);
+          }
+
+          @Override
+          public void onFailure(final Throwable t) {
+            emitter.tryOnError(t);
+          }
+        }));
+  }
+
+  /**
+   * The journal name of a region that has one, the region created if nobody used it yet, on the I/O scheduler as that
+   * waits for the other members.
+   */
+  private Single<String> journal(final String name) {
+    if (!hazelcastService.getCacheNames().contains(name)) {
+      throw new HttpStatusException(HttpStatus.NOT_FOUND, "Unknown region " + name);
+    }
+    if (!hazelcastService.getHazelcastInstance().getConfig().findCacheEventJournalConfig(name).isEnabled()) {
+      throw new HttpStatusException(HttpStatus.NOT_FOUND, "Region " + name + " has no event journal");
+    }
+    final ICacheService cacheService = hazelcastService.getNodeEngine().getService(ICacheService.SERVICE_NAME);
+    final String prefixedName = HazelcastCacheManager.CACHE_MANAGER_PREFIX + name;
+    if (nonNull(cacheService.getCacheConfig(prefixedName))) {
+      return Single.just(prefixedName);
+    }
+    return Single.fromCallable(() -> hazelcastService.getHazelcastInstance().getCacheManager().getCache(name))
+        .subscribeOn(Schedulers.io())
+        .map(cache -> prefixedName);
+  }
+
+  private int partitionCount() {
+    return hazelcastService.getNodeEngine().getPartitionService().getPartitionCount();
+  }
+
+  private void checkPartition(final int partition) {
+    if (partition < 0 || partition >= partitionCount()) {
+      throw new HttpStatusException(HttpStatus.BAD_REQUEST, "Partition must be between 0 and " + (partitionCount() - 1));
+    }
+  }
+
+  private int batchSize(final Integer limit) {
+    return isNull(limit) ? changeFeed.getBatchSize() : Math.max(1, Math.min(limit, changeFeed.getMaxBatchSize()));
+  }
+
+  /**
+   * The partition count then the next sequence of each partition, as varints in URL-safe Base64.
+   */
+  private static String encodeCursor(final long[] sequences) {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(2 + 3 * sequences.length);
+    writeVarLong(out, sequences.length);
+    for (final long sequence : sequences) {
+      writeVarLong(out, sequence);
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray());
+  }
+
+  private long[] decodeCursor(final String cursor) {
+    final long[] sequences;
+    try {
+      final ByteBuffer in = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+      final long count = readVarLong(in);
+      if (count < 0 || count > partitionCount()) {
+        throw new IllegalArgumentException(count + " partitions");
+      }
+      sequences = new long[(int) count];
+      if (sequences.length != partitionCount()) {
+        throw new HttpStatusException(HttpStatus.BAD_REQUEST, "Cursor of a cluster with " + sequences.length
+            + " partitions, this one has " + partitionCount());
+      }
+      for (int i = 0; i < sequences.length; i++) {
+        sequences[i] = readVarLong(in);
+      }
+    } catch (final IllegalArgumentException | BufferUnderflowException e) {
+      throw new HttpStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + e.getMessage());
+    }
+    return sequences;
+  }
+
+  private static void writeVarLong(final ByteArrayOutputStream out, final long value) {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      out.write((int) (remaining & 0x7F) | 0x80);
+      remaining >>>= 7;
+    }
+    out.write((int) remaining);
+  }
+
+  private static long readVarLong(final ByteBuffer in) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final byte b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("varint longer than 64 bits");
+  }
+
+  private static String encode(final Data data) {
+    return isNull(data) ? null : Base64.getEncoder().encodeToString(data.toByteArray());
+  }
+
+  /**
+   * Where a stream stands while nothing changes, only used by its own passes, which never overlap.
+   */
+  private static final class Idle {
+    private long lastBatch = System.nanoTime();
+    private int passes;
+    private boolean checkReset;
+
+    Idle(final boolean checkReset) {
+      this.checkReset = checkReset;
+    }
+  }
+}
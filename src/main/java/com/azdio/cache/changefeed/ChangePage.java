@@ -0,0 +1,20 @@
+package com.azdio.cache.changefeed;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * The events of one partition from {@code sequence}, to read again from {@code nextSequence}. {@code lost} events were
+ * dropped from the journal before they were read, the page then starts at the oldest event left.
+ */
+@Data
+public class ChangePage {
+
+  private final int partition;
+  private final long sequence;
+  private final long nextSequence;
+  private final long lost;
+  private final List<ChangeEvent> events;
+
+}
@@ -0,0 +1,184 @@
+package com.azdio.cache.expiry;
+
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import com.azdio.cache.HazelcastService;
+import com.azdio.cache.region.CacheRegionKind;
+import com.azdio.mdw.hazelcast.listeners.HotKeySketch;
+import com.azdio.mdw.hazelcast.listeners.HotKeys;
+import com.hazelcast.cache.HazelcastCacheManager;
+import com.hazelcast.cache.impl.ICacheRecordStore;
+import com.hazelcast.cache.impl.ICacheService;
+import com.hazelcast.cache.impl.operation.CacheRemoveOperation;
+import com.hazelcast.cache.impl.operation.MutableOperation;
+import com.hazelcast.cache.impl.record.CacheRecord;
+import com.hazelcast.internal.partition.InternalPartitionService;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Early probabilistic refresh of the regions with {@code earlyRefreshSeconds}, see
+ * {@link com.azdio.cache.HazelcastConfiguration.CacheConfig#getEarlyRefreshSeconds()}.
+ * <p>
+ * Every second, the hottest keys read on this member, from the {@link HotKeys} read sketch of each region, are checked
+ * on the partition thread of their owner. A record read during the last {@code lead} seconds is removed when it has
+ * less than {@code lead * -ln(u)} left to live, {@code u} being uniform in (0, 1] and drawn from its key and expiration
+ * time, so the draw is the same from one pass to the next and the record goes on average {@code lead} before its time.
+ * The removal is a cache operation on the owner, conditional on the value checked: backups, near caches and listeners
+ * follow it, and a value written meanwhile stays. The next reader misses and reloads it, and hot entries loaded
+ * together are reloaded one by one instead of all missing at once. Other records expire as configured.
+ * <p>
+ * A pass costs a lookup per hot key; a pass is skipped while the previous one runs.
+ */
+@Slf4j
+public class EarlyRefresh {
+
+  private static final long PERIOD_MILLIS = 1000;
+
+  private final HazelcastService hazelcastService;
+  private final NodeEngineImpl nodeEngine;
+  private final ICacheService cacheService;
+  private final Map<String, AtomicLong> refreshed = new ConcurrentHashMap<>();
+  private final AtomicInteger pending = new AtomicInteger();
+
+  public EarlyRefresh(final HazelcastService hazelcastService) {
+    this.hazelcastService = hazelcastService;
+    this.nodeEngine = hazelcastService.getNodeEngine();
+    this.cacheService = nodeEngine.getService(ICacheService.SERVICE_NAME);
+  }
+
+  public void start() {
+    nodeEngine.getExecutionService().scheduleWithRepetition(this::refresh, PERIOD_MILLIS, PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    log.info("[cache][early-refresh][{} regions]", getRegions().size());
+  }
+
+  /**
+   * The regions refreshed early, timestamps excepted: a missing timestamp makes Hibernate trust stale query results.
+   */
+  public List<String> getRegions() {
+    return hazelcastService.getCacheNames().stream()
+        .filter(cacheName -> leadMillis(cacheName) > 0)
+        .sorted()
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Records of the region this member removed early since it started.
+   */
+  public long getRefreshed(final String cacheName) {
+    final AtomicLong count = refreshed.get(cacheName);
+    return isNull(count) ? 0 : count.get();
+  }
+
+  private long leadMillis(final String cacheName) {
+    if (hazelcastService.getRegionKind(cacheName) == CacheRegionKind.TIMESTAMPS) {
+      return 0;
+    }
+    return TimeUnit.SECONDS.toMillis(hazelcastService.regionConfig(cacheName).getEarlyRefreshSeconds());
+  }
+
+  private void refresh() {
+    if (pending.get() > 0) {
+      return;
+    }
+    final Map<Integer, Map<String, List<Data>>> candidates = candidates();
+    pending.addAndGet(candidates.size());
+    candidates.forEach((partitionId, regions) -> nodeEngine.getOperationService().execute(new PartitionSpecificRunnable() {
+
+      @Override
+      public int getPartitionId() {
+        return partitionId;
+      }
+
+      @Override
+      public void run() {
+        try {
+          regions.forEach((region, keys) -> refresh(region, partitionId, keys));
+        } catch (final RuntimeException e) {
+          log.warn("[cache][early-refresh][partition {}][error: {}]", partitionId, e.getMessage());
+        } finally {
+          pending.decrementAndGet();
+        }
+      }
+    }));
+  }
+
+  /**
+   * The keys recently read in each region, per partition this member owns.
+   */
+  private Map<Integer, Map<String, List<Data>>> candidates() {
+    final InternalPartitionService partitionService = nodeEngine.getPartitionService();
+    final Map<Integer, Map<String, List<Data>>> candidates = new HashMap<>();
+    for (final String region : getRegions()) {
+      final HotKeySketch sketch = HotKeys.getReadSketch(region);
+      if (isNull(sketch)) {
+        continue;
+      }
+      for (final Object key : sketch.getKeys()) {
+        if (!(key instanceof Data)) {
+          continue;
+        }
+        final int partitionId = partitionService.getPartitionId((Data) key);
+        if (partitionService.getPartition(partitionId, false).isLocal()) {
+          candidates.computeIfAbsent(partitionId, id -> new HashMap<>())
+              .computeIfAbsent(region, name -> new ArrayList<>())
+              .add((Data) key);
+        }
+      }
+    }
+    return candidates;
+  }
+
+  private void refresh(final String region, final int partitionId, final List<Data> keys) {
+    final String prefixedName = HazelcastCacheManager.CACHE_MANAGER_PREFIX + region;
+    final ICacheRecordStore recordStore = cacheService.getRecordStore(prefixedName, partitionId);
+    if (isNull(recordStore)) {
+      return;
+    }
+    final long lead = leadMillis(region);
+    final long now = System.currentTimeMillis();
+    long expired = 0;
+    for (final Data key : keys) {
+      final CacheRecord<?, ?> record = recordStore.getRecord(key);
+      if (isNull(record)) {
+        continue;
+      }
+      final long remaining = record.getExpirationTime() - now;
+      if (remaining > 0 && record.getLastAccessTime() >= now - lead
+          && remaining <= lead * -Math.log(uniform(key, record.getExpirationTime()))) {
+        nodeEngine.getOperationService().invokeOnPartition(ICacheService.SERVICE_NAME,
+            new CacheRemoveOperation(prefixedName, key, nodeEngine.toData(record.getValue()),
+                MutableOperation.IGNORE_COMPLETION),
+            partitionId);
+        expired++;
+      }
+    }
+    if (expired > 0) {
+      refreshed.computeIfAbsent(region, cacheName -> new AtomicLong()).addAndGet(expired);
+    }
+  }
+
+  /**
+   * A value in (0, 1] mixed from the key and expiration time, see SplittableRandom.
+   */
+  static double uniform(final Data key, final long expirationTime) {
+    long z = key.hashCode() * 0x9E3779B97F4A7C15L + expirationTime;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    z ^= z >>> 31;
+    return ((z >>> 11) + 1) * 0x1.0p-53;
+  }
+}
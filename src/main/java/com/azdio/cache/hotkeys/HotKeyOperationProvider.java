@@ -0,0 +1,241 @@
+package com.azdio.cache.hotkeys;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.cache.expiry.ExpiryPolicy;
+import javax.cache.processor.EntryProcessor;
+
+import com.azdio.cache.HazelcastService;
+import com.azdio.mdw.hazelcast.listeners.HotKeys;
+import com.hazelcast.cache.HazelcastCacheManager;
+import com.hazelcast.cache.impl.AbstractCacheService;
+import com.hazelcast.cache.impl.CacheOperationProvider;
+import com.hazelcast.cache.impl.ICacheService;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.OperationFactory;
+import com.hazelcast.spi.merge.SplitBrainMergePolicy;
+import com.hazelcast.spi.merge.SplitBrainMergeTypes.CacheMergeTypes;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records the keys of the cache operations of this member in the {@link HotKeys} sketches, serialized: writes in the
+ * sketch of the region, reads in its read sketch. An operation is recorded by the member that receives it, the owner of
+ * the key for smart clients, so no key is deserialized and a read costs one sketch update instead of a scan of the
+ * region per report.
+ * <p>
+ * The providers Hazelcast creates per region are wrapped as the cache service caches them; the regions not configured
+ * on this member keep theirs.
+ */
+@Slf4j
+public class HotKeyOperationProvider implements CacheOperationProvider {
+
+  private static final MethodHandle GET_OPERATION_PROVIDERS = getter(AbstractCacheService.class, "operationProviderCache");
+  private static final MethodHandle SET_OPERATION_PROVIDERS = setter(AbstractCacheService.class, "operationProviderCache");
+
+  private final String region;
+  private final CacheOperationProvider delegate;
+
+  HotKeyOperationProvider(final String region, final CacheOperationProvider delegate) {
+    this.region = region;
+    this.delegate = delegate;
+  }
+
+  /**
+   * Wraps the providers of the regions of {@code hazelcastService} and stops recording the cache events. Each provider
+   * is created here, since the cache service hands out the one it creates before caching it.
+   */
+  @SuppressWarnings("unchecked")
+  public static void install(final HazelcastService hazelcastService) {
+    final AbstractCacheService cacheService = hazelcastService.getNodeEngine().getService(ICacheService.SERVICE_NAME);
+    final RecordingProviders providers = new RecordingProviders(hazelcastService.getCacheNames());
+    try {
+      ((ConcurrentMap<String, CacheOperationProvider>) GET_OPERATION_PROVIDERS.invoke(cacheService))
+          .forEach(providers::putIfAbsent);
+      SET_OPERATION_PROVIDERS.invoke(cacheService, providers);
+    } catch (final Throwable e) {
+      throw new IllegalStateException("Cannot access " + AbstractCacheService.class.getName() + ".operationProviderCache", e);
+    }
+    hazelcastService.getCacheConfigs().forEach((region, config) -> cacheService
+        .getCacheOperationProvider(HazelcastCacheManager.CACHE_MANAGER_PREFIX + region, config.getInMemoryFormat()));
+    HotKeys.recordOperations();
+    log.info("[cache][hot keys][recording operations][regions: {}]", hazelcastService.getCacheNames().size());
+  }
+
+  @Override
+  public Operation createPutOperation(final Data key, final Data value, final ExpiryPolicy policy, final boolean get,
+      final int completionId) {
+    HotKeys.record(region, key);
+    return delegate.createPutOperation(key, value, policy, get, completionId);
+  }
+
+  @Override
+  public Operation createPutAllOperation(final List<Map.Entry<Data, Data>> entries, final ExpiryPolicy policy,
+      final int completionId) {
+    entries.forEach(entry -> HotKeys.record(region, entry.getKey()));
+    return delegate.createPutAllOperation(entries, policy, completionId);
+  }
+
+  @Override
+  public Operation createGetOperation(final Data key, final ExpiryPolicy policy) {
+    HotKeys.recordRead(region, key);
+    return delegate.createGetOperation(key, policy);
+  }
+
+  @Override
+  public Operation createContainsKeyOperation(final Data key) {
+    return delegate.createContainsKeyOperation(key);
+  }
+
+  @Override
+  public Operation createPutIfAbsentOperation(final Data key, final Data value, final ExpiryPolicy policy,
+      final int completionId) {
+    HotKeys.record(region, key);
+    return delegate.createPutIfAbsentOperation(key, value, policy, completionId);
+  }
+
+  @Override
+  public Operation createRemoveOperation(final Data key, final Data value, final int completionId) {
+    HotKeys.record(region, key);
+    return delegate.createRemoveOperation(key, value, completionId);
+  }
+
+  @Override
+  public Operation createGetAndRemoveOperation(final Data key, final int completionId) {
+    HotKeys.record(region, key);
+    return delegate.createGetAndRemoveOperation(key, completionId);
+  }
+
+  @Override
+  public Operation createReplaceOperation(final Data key, final Data oldValue, final Data newValue,
+      final ExpiryPolicy policy, final int completionId) {
+    HotKeys.record(region, key);
+    return delegate.createReplaceOperation(key, oldValue, newValue, policy, completionId);
+  }
+
+  @Override
+  public Operation createGetAndReplaceOperation(final Data key, final Data value, final ExpiryPolicy policy,
+      final int completionId) {
+    HotKeys.record(region, key);
+    return delegate.createGetAndReplaceOperation(key, value, policy, completionId);
+  }
+
+  /**
+   * {@link CacheOperationProvider} declares the processor raw, and an override must keep that signature.
+   */
+  @Override
+  @SuppressWarnings("rawtypes")
+  public Operation createEntryProcessorOperation(final Data key, final Integer completionId,
+      final EntryProcessor entryProcessor, final Object... args) {
+    HotKeys.record(region, key);
+    return delegate.createEntryProcessorOperation(key, completionId, entryProcessor, args);
+  }
+
+  @Override
+  public Operation createKeyIteratorOperation(final int lastTableIndex, final int fetchSize) {
+    return delegate.createKeyIteratorOperation(lastTableIndex, fetchSize);
+  }
+
+  @Override
+  public Operation createEntryIteratorOperation(final int lastTableIndex, final int fetchSize) {
+    return delegate.createEntryIteratorOperation(lastTableIndex, fetchSize);
+  }
+
+  @Override
+  public Operation createMergeOperation(final String name, final List<CacheMergeTypes> mergingEntries,
+      final SplitBrainMergePolicy<Data, CacheMergeTypes> policy) {
+    return delegate.createMergeOperation(name, mergingEntries, policy);
+  }
+
+  @Override
+  public OperationFactory createMergeOperationFactory(final String name, final int[] partitions,
+      final List<CacheMergeTypes>[] mergingEntries, final SplitBrainMergePolicy<Data, CacheMergeTypes> policy) {
+    return delegate.createMergeOperationFactory(name, partitions, mergingEntries, policy);
+  }
+
+  @Override
+  public Operation createSetExpiryPolicyOperation(final List<Data> keys, final Data expiryPolicy) {
+    return delegate.createSetExpiryPolicyOperation(keys, expiryPolicy);
+  }
+
+  @Override
+  public OperationFactory createGetAllOperationFactory(final Set<Data> keySet, final ExpiryPolicy policy) {
+    keySet.forEach(key -> HotKeys.recordRead(region, key));
+    return delegate.createGetAllOperationFactory(keySet, policy);
+  }
+
+  @Override
+  public OperationFactory createLoadAllOperationFactory(final Set<Data> keySet, final boolean replaceExistingValues) {
+    return delegate.createLoadAllOperationFactory(keySet, replaceExistingValues);
+  }
+
+  @Override
+  public OperationFactory createClearOperationFactory() {
+    return delegate.createClearOperationFactory();
+  }
+
+  @Override
+  public OperationFactory createRemoveAllOperationFactory(final Set<Data> keySet, final Integer completionId) {
+    if (keySet != null) {
+      keySet.forEach(key -> HotKeys.record(region, key));
+    }
+    return delegate.createRemoveAllOperationFactory(keySet, completionId);
+  }
+
+  @Override
+  public OperationFactory createSizeOperationFactory() {
+    return delegate.createSizeOperationFactory();
+  }
+
+  private static MethodHandle getter(final Class<?> type, final String name) {
+    try {
+      final Field field = type.getDeclaredField(name);
+      field.setAccessible(true);
+      return MethodHandles.lookup().unreflectGetter(field);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw new IllegalStateException("Cannot access " + type.getName() + "." + name, e);
+    }
+  }
+
+  private static MethodHandle setter(final Class<?> type, final String name) {
+    try {
+      final Field field = type.getDeclaredField(name);
+      field.setAccessible(true);
+      return MethodHandles.lookup().unreflectSetter(field);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw new IllegalStateException("Cannot access " + type.getName() + "." + name, e);
+    }
+  }
+
+  /**
+   * The provider cache of the cache service, wrapping the providers of the configured regions as they are cached.
+   */
+  private static final class RecordingProviders extends ConcurrentHashMap<String, CacheOperationProvider> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Set<String> regions;
+
+    RecordingProviders(final Set<String> regions) {
+      this.regions = regions;
+    }
+
+    @Override
+    public CacheOperationProvider putIfAbsent(final String nameWithPrefix, final CacheOperationProvider provider) {
+      final String region = nameWithPrefix.startsWith(HazelcastCacheManager.CACHE_MANAGER_PREFIX)
+          ? nameWithPrefix.substring(HazelcastCacheManager.CACHE_MANAGER_PREFIX.length())
+          : nameWithPrefix;
+      return super.putIfAbsent(nameWithPrefix, regions.contains(region) && !(provider instanceof HotKeyOperationProvider)
+          ? new HotKeyOperationProvider(region, provider)
+          : provider);
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.azdio.cache.hotkeys;
+
+import java.util.List;
+
+import com.azdio.mdw.hazelcast.listeners.HotKey;
+
+import lombok.Data;
+
+/**
+ * Hot keys of a region: written keys counted from its cache events, and read keys ranked by the access hits of the
+ * entries owned by this member.
+ */
+@Data
+public class HotKeyReport {
+
+  private final String region;
+  private final int windowSeconds;
+  /** Cache events of the region in the current and previous window. */
+  private final long events;
+  private final List<HotKey> writes;
+  /** Only filled for single-region reports. */
+  private final List<HotKey> reads;
+
+}
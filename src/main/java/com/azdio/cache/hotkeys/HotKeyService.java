@@ -0,0 +1,158 @@
+package com.azdio.cache.hotkeys;
+
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import javax.inject.Singleton;
+
+import com.azdio.cache.HazelcastService;
+import com.azdio.cache.hotkeys.PartitionLoad.PartitionOperations;
+import com.azdio.mdw.hazelcast.listeners.HotKey;
+import com.azdio.mdw.hazelcast.listeners.HotKeySketch;
+import com.azdio.mdw.hazelcast.listeners.HotKeys;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
+import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+
+import io.micronaut.scheduling.annotation.Scheduled;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hot keys of the regions and load of the partitions of this member.
+ * <p>
+ * Written and read keys come from the {@link HotKeys} sketches, fed by the {@link HotKeyOperationProvider}s of this
+ * member. Partition load is the difference of the executed operation counters of the partition runners, sampled once
+ * per window.
+ */
+@Slf4j
+@Singleton
+public class HotKeyService {
+
+  private static final int HOTTEST_PARTITIONS = 10;
+  private static final int MAX_KEY_LENGTH = 256;
+
+  private final HazelcastService hazelcastService;
+  private long[] executedOperations;
+  private volatile PartitionLoad partitionLoad;
+
+  public HotKeyService(final HazelcastService hazelcastService) {
+    this.hazelcastService = hazelcastService;
+  }
+
+  public Map<String, HotKeyReport> getHotKeys() {
+    final Map<String, HotKeyReport> reports = new LinkedHashMap<>();
+    hazelcastService.getCacheNames().stream().sorted().forEach(cacheName -> {
+      final HotKeySketch sketch = HotKeys.getSketch(cacheName);
+      if (sketch != null) {
+        reports.put(cacheName, new HotKeyReport(cacheName, windowSeconds(), sketch.getEvents(), hotKeys(sketch), null));
+      }
+    });
+    return reports;
+  }
+
+  public HotKeyReport getHotKeys(final String cacheName) {
+    final HotKeySketch sketch = HotKeys.getSketch(cacheName);
+    final HotKeySketch readSketch = HotKeys.getReadSketch(cacheName);
+    return new HotKeyReport(cacheName, windowSeconds(),
+        isNull(sketch) ? 0 : sketch.getEvents(),
+        isNull(sketch) ? Collections.emptyList() : hotKeys(sketch),
+        isNull(readSketch) ? Collections.emptyList() : hotKeys(readSketch));
+  }
+
+  public PartitionLoad getPartitionLoad() {
+    PartitionLoad load = partitionLoad;
+    if (isNull(load)) {
+      load = samplePartitionLoad();
+      partitionLoad = load;
+    }
+    return load;
+  }
+
+  @Scheduled(fixedDelay = "${hazelcast.hot-keys.window-seconds:60}s")
+  public void refresh() {
+    if (isNull(hazelcastService.getHazelcastInstance())) {
+      return;
+    }
+    partitionLoad = samplePartitionLoad();
+  }
+
+  private synchronized PartitionLoad samplePartitionLoad() {
+    final OperationExecutor executor = ((OperationServiceImpl) hazelcastService.getNodeEngine().getOperationService())
+        .getOperationExecutor();
+    final OperationRunner[] runners = executor.getPartitionOperationRunners();
+    final long[] executed = new long[runners.length];
+    for (final OperationRunner runner : runners) {
+      executed[runner.getPartitionId()] = runner.executedOperationsCount();
+    }
+    final long[] previous = isNull(executedOperations) ? new long[executed.length] : executedOperations;
+    executedOperations = executed;
+
+    final long[] threadOperations = new long[executor.getPartitionThreadCount()];
+    final PriorityQueue<PartitionOperations> hottest =
+        new PriorityQueue<>(Comparator.comparingLong(PartitionOperations::getOperations));
+    long operations = 0;
+    long maxPartition = 0;
+    for (int partitionId = 0; partitionId < executed.length; partitionId++) {
+      final long delta = executed[partitionId] - previous[partitionId];
+      final int thread = executor.getPartitionThreadId(partitionId);
+      operations += delta;
+      maxPartition = Math.max(maxPartition, delta);
+      threadOperations[thread] += delta;
+      if (delta > 0) {
+        hottest.add(new PartitionOperations(partitionId, thread, delta));
+        if (hottest.size() > HOTTEST_PARTITIONS) {
+          hottest.poll();
+        }
+      }
+    }
+    long maxThread = 0;
+    for (final long threadOperation : threadOperations) {
+      maxThread = Math.max(maxThread, threadOperation);
+    }
+    final List<PartitionOperations> hottestPartitions = new ArrayList<>(hottest);
+    hottestPartitions.sort(Comparator.comparingLong(PartitionOperations::getOperations).reversed());
+    return new PartitionLoad(windowSeconds(), operations,
+        skew(maxPartition, operations, executed.length),
+        skew(maxThread, operations, threadOperations.length),
+        hottestPartitions, threadOperations);
+  }
+
+  /**
+   * Serialized keys, recorded by the operations, are only deserialized for the report.
+   */
+  private List<HotKey> hotKeys(final HotKeySketch sketch) {
+    final NodeEngineImpl nodeEngine = hazelcastService.getNodeEngine();
+    return sketch.getHotKeys(key -> key instanceof Data ? render(nodeEngine, (Data) key) : render(key));
+  }
+
+  private static String render(final NodeEngineImpl nodeEngine, final Data key) {
+    try {
+      return render(nodeEngine.toObject(key));
+    } catch (final RuntimeException e) {
+      log.debug("[cache][hot keys][key of type {} cannot be read: {}]", key.getType(), e.getMessage());
+      return "Data[hash: " + key.getPartitionHash() + "]";
+    }
+  }
+
+  private static String render(final Object key) {
+    final String rendered = String.valueOf(key);
+    return rendered.length() <= MAX_KEY_LENGTH ? rendered : rendered.substring(0, MAX_KEY_LENGTH) + "...";
+  }
+
+  private static double skew(final long max, final long total, final int count) {
+    return total == 0 ? 0 : max / ((double) total / count);
+  }
+
+  private static int windowSeconds() {
+    return HotKeys.getConfig().getWindowSeconds();
+  }
+}
@@ -0,0 +1,30 @@
+package com.azdio.cache.hotkeys;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Operations executed by the partitions of this member during the last window.
+ */
+@Data
+public class PartitionLoad {
+
+  private final int windowSeconds;
+  private final long operations;
+  /** Busiest partition divided by the mean of all partitions; 1 is perfectly even. */
+  private final double partitionSkew;
+  /** Busiest partition thread divided by the mean of all partition threads. */
+  private final double threadSkew;
+  private final List<PartitionOperations> hottestPartitions;
+  private final long[] threadOperations;
+
+  @Data
+  public static class PartitionOperations {
+
+    private final int partitionId;
+    private final int thread;
+    private final long operations;
+
+  }
+}
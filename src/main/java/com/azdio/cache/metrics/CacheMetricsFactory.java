@@ -0,0 +1,29 @@
+package com.azdio.cache.metrics;
+
+import javax.inject.Singleton;
+
+import com.azdio.mdw.hazelcast.listeners.CacheEntryDispatchMetrics;
+import com.azdio.mdw.hazelcast.listeners.HotKeyMetrics;
+import com.azdio.mdw.hazelcast.serialization.CompressionMetrics;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.context.annotation.Factory;
+
+@Factory
+public class CacheMetricsFactory {
+
+  @Singleton
+  public MeterBinder cacheEntryDispatchMetrics() {
+    return new CacheEntryDispatchMetrics();
+  }
+
+  @Singleton
+  public MeterBinder hotKeyMetrics() {
+    return new HotKeyMetrics();
+  }
+
+  @Singleton
+  public MeterBinder compressionMetrics() {
+    return new CompressionMetrics();
+  }
+}
@@ -0,0 +1,167 @@
+package com.azdio.cache.metrics;
+
+import static java.util.Objects.isNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Singleton;
+
+import com.azdio.cache.HazelcastService;
+import com.azdio.cache.stats.RegionStatisticsTask;
+import com.hazelcast.cache.CacheStatistics;
+import com.hazelcast.cache.HazelcastCacheManager;
+import com.hazelcast.cache.impl.ICacheRecordStore;
+import com.hazelcast.cache.impl.ICacheService;
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.scheduling.annotation.Scheduled;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Member-local statistics of every configured cache region, tagged by region name and kind.
+ * <p>
+ * Statistics are copied into a {@link RegionStatistics} snapshot once per metrics step; meters only read the snapshot,
+ * so a scrape never touches the caches. Nothing is scanned: the memory cost is extrapolated from the first
+ * {@code stats.sample-per-partition} records of each owned partition, as in {@link RegionStatisticsTask}. Regions added
+ * after startup get their meters at the next refresh.
+ */
+@Slf4j
+@Singleton
+public class CacheRegionMetrics implements MeterBinder {
+
+  private final HazelcastService hazelcastService;
+  private final Map<String, RegionStatistics> regions = new ConcurrentHashMap<>();
+  private volatile MeterRegistry registry;
+
+  public CacheRegionMetrics(final HazelcastService hazelcastService) {
+    this.hazelcastService = hazelcastService;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    this.registry = registry;
+    refresh();
+  }
+
+  @Scheduled(fixedDelay = "${micronaut.metrics.export.prometheus.step:1m}")
+  public void refresh() {
+    final MeterRegistry meterRegistry = registry;
+    if (isNull(meterRegistry) || isNull(hazelcastService.getHazelcastInstance())) {
+      return;
+    }
+    final NodeEngineImpl nodeEngine = hazelcastService.getNodeEngine();
+    final ICacheService cacheService = nodeEngine.getService(ICacheService.SERVICE_NAME);
+    final Address thisAddress = nodeEngine.getThisAddress();
+    final int samplePerPartition = hazelcastService.getHazelcastConfiguration().getStats().getSamplePerPartition();
+    hazelcastService.getCacheNames().forEach(cacheName -> {
+      try {
+        regions.computeIfAbsent(cacheName, name -> register(meterRegistry, name))
+            .update(cacheService, nodeEngine, thisAddress, samplePerPartition);
+      } catch (final RuntimeException e) {
+        log.warn("[cache][{}][metrics][error: {}]", cacheName, e.getMessage());
+      }
+    });
+  }
+
+  private RegionStatistics register(final MeterRegistry meterRegistry, final String cacheName) {
+    final RegionStatistics statistics = new RegionStatistics(HazelcastCacheManager.CACHE_MANAGER_PREFIX + cacheName);
+    final Tags tags = Tags.of("cache", cacheName, "kind", hazelcastService.getRegionKind(cacheName).tag());
+
+    FunctionCounter.builder("cache.gets", statistics, s -> s.hits)
+        .tags(tags).tag("result", "hit")
+        .description("The number of times cache lookup methods have returned a cached value.")
+        .register(meterRegistry);
+    FunctionCounter.builder("cache.gets", statistics, s -> s.misses)
+        .tags(tags).tag("result", "miss")
+        .description("The number of times cache lookup methods have not returned a value.")
+        .register(meterRegistry);
+    FunctionCounter.builder("cache.puts", statistics, s -> s.puts)
+        .tags(tags)
+        .description("The number of entries added to the cache.")
+        .register(meterRegistry);
+    FunctionCounter.builder("cache.removals", statistics, s -> s.removals)
+        .tags(tags)
+        .description("The number of entries removed from the cache.")
+        .register(meterRegistry);
+    FunctionCounter.builder("cache.evictions", statistics, s -> s.evictions)
+        .tags(tags)
+        .description("The number of entries evicted from the cache.")
+        .register(meterRegistry);
+    Gauge.builder("cache.size", statistics, s -> s.ownedEntryCount)
+        .tags(tags)
+        .description("The number of entries owned by this member.")
+        .register(meterRegistry);
+    Gauge.builder("cache.owned.memory", statistics, s -> s.ownedEntryMemoryCost)
+        .tags(tags).baseUnit("bytes")
+        .description("Heap cost of the serialized keys and values owned by this member, estimated from a sample.")
+        .register(meterRegistry);
+    Gauge.builder("cache.get.latency.average", statistics, s -> s.averageGetTime)
+        .tags(tags).baseUnit("microseconds")
+        .description("Mean time to execute gets.")
+        .register(meterRegistry);
+    Gauge.builder("cache.put.latency.average", statistics, s -> s.averagePutTime)
+        .tags(tags).baseUnit("microseconds")
+        .description("Mean time to execute puts.")
+        .register(meterRegistry);
+    return statistics;
+  }
+
+  /**
+   * Snapshot of the statistics of a region, refreshed once per step.
+   */
+  static final class RegionStatistics {
+
+    private final String prefixedName;
+    private volatile double hits;
+    private volatile double misses;
+    private volatile double puts;
+    private volatile double removals;
+    private volatile double evictions;
+    private volatile double ownedEntryCount;
+    private volatile double ownedEntryMemoryCost;
+    private volatile double averageGetTime;
+    private volatile double averagePutTime;
+
+    RegionStatistics(final String prefixedName) {
+      this.prefixedName = prefixedName;
+    }
+
+    void update(final ICacheService cacheService, final NodeEngineImpl nodeEngine, final Address thisAddress,
+        final int samplePerPartition) {
+      final CacheStatistics statistics = cacheService.getStatistics(prefixedName);
+      if (isNull(statistics)) {
+        // the cache has not been created on this member yet
+        return;
+      }
+      hits = statistics.getCacheHits();
+      misses = statistics.getCacheMisses();
+      puts = statistics.getCachePuts();
+      removals = statistics.getCacheRemovals();
+      evictions = statistics.getCacheEvictions();
+      ownedEntryCount = statistics.getOwnedEntryCount();
+      averageGetTime = statistics.getAverageGetTime();
+      averagePutTime = statistics.getAveragePutTime();
+      ownedEntryMemoryCost = ownedEntryMemoryCost(cacheService, nodeEngine, thisAddress, samplePerPartition);
+    }
+
+    private long ownedEntryMemoryCost(final ICacheService cacheService, final NodeEngineImpl nodeEngine,
+        final Address thisAddress, final int samplePerPartition) {
+      final long[] keySample = new long[2];
+      long cost = 0;
+      for (final Integer partitionId : nodeEngine.getPartitionService().getMemberPartitions(thisAddress)) {
+        final ICacheRecordStore recordStore = cacheService.getRecordStore(prefixedName, partitionId);
+        if (!isNull(recordStore)) {
+          cost += RegionStatisticsTask.memoryEstimate(recordStore, samplePerPartition, keySample);
+        }
+      }
+      return cost;
+    }
+  }
+}
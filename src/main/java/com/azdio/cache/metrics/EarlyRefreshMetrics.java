@@ -0,0 +1,38 @@
+package com.azdio.cache.metrics;
+
+import static java.util.Objects.isNull;
+
+import javax.inject.Singleton;
+
+import com.azdio.cache.HazelcastService;
+import com.azdio.cache.expiry.EarlyRefresh;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Records expired early by the {@link EarlyRefresh} of this member, per region; nothing when no region has it.
+ */
+@Singleton
+public class EarlyRefreshMetrics implements MeterBinder {
+
+  private final HazelcastService hazelcastService;
+
+  public EarlyRefreshMetrics(final HazelcastService hazelcastService) {
+    this.hazelcastService = hazelcastService;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    final EarlyRefresh earlyRefresh = hazelcastService.getEarlyRefresh();
+    if (isNull(earlyRefresh)) {
+      return;
+    }
+    earlyRefresh.getRegions().forEach(cacheName -> FunctionCounter
+        .builder("cache.early.refresh.expired", earlyRefresh, refresh -> refresh.getRefreshed(cacheName))
+        .tag("cache", cacheName)
+        .description("Records read near their expiry and expired early, so the next read reloads them.")
+        .register(registry));
+  }
+}
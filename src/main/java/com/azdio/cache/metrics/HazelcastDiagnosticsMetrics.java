@@ -0,0 +1,246 @@
+package com.azdio.cache.metrics;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+
+import com.azdio.cache.HazelcastConfiguration.Diagnostics;
+import com.azdio.cache.HazelcastService;
+import com.hazelcast.internal.management.dto.SlowOperationDTO;
+import com.hazelcast.internal.management.dto.SlowOperationInvocationDTO;
+import com.hazelcast.internal.metrics.renderers.ProbeRenderer;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The internal probes and slow operation log of this member as gauges, see {@link Diagnostics}.
+ * <p>
+ * Every step, the probes with a configured prefix are rendered into one slot each and the slow operations into two
+ * slots per operation; the gauges only read their slot, so a scrape costs no allocation and no probe call. A probe gets
+ * its gauge the first time it is seen: {@code operation.thread[hz.x.partition-operation.thread-0].completedTotalCount}
+ * becomes {@code hazelcast.operation.thread.completed.total.count} tagged {@code thread}. A probe or slow operation that
+ * is gone reads NaN; a probe gone for {@value #ABSENT_STEPS} steps, such as the ones of a closed connection, loses its
+ * gauge.
+ */
+@Slf4j
+@Singleton
+public class HazelcastDiagnosticsMetrics implements MeterBinder {
+
+  /**
+   * Steps a probe may be missing before its gauge is removed, so a probe rendered late keeps its series.
+   */
+  private static final int ABSENT_STEPS = 3;
+
+  private final HazelcastService hazelcastService;
+  private final Diagnostics diagnostics;
+  // the maps and step are only used by the sampling task, which never overlaps itself
+  private final Map<String, Slot> probes = new HashMap<>();
+  private final Map<String, Slot[]> slowOperations = new HashMap<>();
+  private final Slot slowOperationCount = new Slot();
+  private final ProbeRenderer renderer = new SlotRenderer();
+  private long step;
+  private MeterRegistry registry;
+  private ScheduledFuture<?> sampling;
+
+  public HazelcastDiagnosticsMetrics(final HazelcastService hazelcastService) {
+    this.hazelcastService = hazelcastService;
+    this.diagnostics = hazelcastService.getHazelcastConfiguration().getDiagnostics();
+  }
+
+  @Override
+  public synchronized void bindTo(final MeterRegistry registry) {
+    if (!diagnostics.isEnabled() || nonNull(this.registry)) {
+      return;
+    }
+    this.registry = registry;
+    Gauge.builder("hazelcast.slow.operations", slowOperationCount, Slot::get)
+        .description("Operations in the slow operation log of the member.")
+        .register(registry);
+    sampling = hazelcastService.getNodeEngine().getExecutionService()
+        .scheduleWithRepetition(this::sample, 0, diagnostics.getStepSeconds(), TimeUnit.SECONDS);
+    log.info("[cache][diagnostics][every {} s][level {}][probes {}]", diagnostics.getStepSeconds(),
+        hazelcastService.getNodeEngine().getMetricsRegistry().minimumLevel(), diagnostics.getProbes());
+  }
+
+  @PreDestroy
+  public synchronized void stop() {
+    if (nonNull(sampling)) {
+      sampling.cancel(false);
+    }
+  }
+
+  private void sample() {
+    try {
+      step++;
+      final NodeEngineImpl nodeEngine = hazelcastService.getNodeEngine();
+      nodeEngine.getMetricsRegistry().render(renderer);
+      sampleSlowOperations(((OperationServiceImpl) nodeEngine.getOperationService()).getSlowOperationDTOs());
+      probes.values().forEach(this::expire);
+      probes.values().removeIf(this::isGone);
+      slowOperations.values().forEach(slots -> {
+        expire(slots[0]);
+        expire(slots[1]);
+      });
+    } catch (final RuntimeException e) {
+      log.warn("[cache][diagnostics][error: {}]", e.getMessage());
+    }
+  }
+
+  private void sampleSlowOperations(final List<SlowOperationDTO> slowOperationLog) {
+    slowOperationCount.set(slowOperationLog.size(), step);
+    for (final SlowOperationDTO slowOperation : slowOperationLog) {
+      final Slot[] slots = slowOperations.computeIfAbsent(operationName(slowOperation.operation), this::slowOperationSlots);
+      int maxDurationMs = 0;
+      for (final SlowOperationInvocationDTO invocation : slowOperation.invocations) {
+        maxDurationMs = Math.max(maxDurationMs, invocation.durationMs);
+      }
+      // operations of a class logged from different stack traces add up
+      slots[0].set(slots[0].step == step ? slots[0].value + slowOperation.totalInvocations : slowOperation.totalInvocations,
+          step);
+      slots[1].set(slots[1].step == step ? Math.max(slots[1].value, maxDurationMs) : maxDurationMs, step);
+    }
+  }
+
+  private Slot[] slowOperationSlots(final String operation) {
+    final Slot[] slots = {new Slot(), new Slot()};
+    Gauge.builder("hazelcast.slow.operation.invocations", slots[0], Slot::get)
+        .tag("operation", operation)
+        .description("Invocations of the operation that ran longer than hazelcast.slow.operation.detector.threshold.millis.")
+        .register(registry);
+    Gauge.builder("hazelcast.slow.operation.max.duration", slots[1], Slot::get)
+        .tag("operation", operation)
+        .baseUnit("milliseconds")
+        .description("Longest of the slow invocations of the operation still in the log.")
+        .register(registry);
+    return slots;
+  }
+
+  /**
+   * Probes not published keep a slot without gauge, so they are matched against the prefixes once.
+   */
+  private void update(final String probe, final double value) {
+    Slot slot = probes.get(probe);
+    if (isNull(slot)) {
+      slot = diagnostics.getProbes().stream().anyMatch(probe::startsWith) ? register(probe) : new Slot();
+      probes.put(probe, slot);
+    }
+    slot.set(value, step);
+  }
+
+  /**
+   * {@code a.b[x].cD} as {@code hazelcast.a.b.c.d} tagged {@code b=x}.
+   */
+  private Slot register(final String probe) {
+    String name = probe;
+    Tags tags = Tags.empty();
+    final int open = probe.indexOf('[');
+    final int close = probe.indexOf(']', open);
+    if (open >= 0 && close > open) {
+      String head = probe.substring(0, open);
+      head = head.endsWith(".") ? head.substring(0, head.length() - 1) : head;
+      final String key = head.substring(head.lastIndexOf('.') + 1);
+      tags = Tags.of(key.isEmpty() ? "name" : key, probe.substring(open + 1, close));
+      name = head + probe.substring(close + 1);
+    }
+    final Slot slot = new Slot();
+    try {
+      slot.gauge = Gauge.builder("hazelcast." + dotted(name), slot, Slot::get).tags(tags).register(registry);
+    } catch (final IllegalArgumentException e) {
+      log.warn("[cache][diagnostics][probe {} not published: {}]", probe, e.getMessage());
+    }
+    return slot;
+  }
+
+  private void expire(final Slot slot) {
+    if (slot.step != step) {
+      slot.value = Double.NaN;
+    }
+  }
+
+  private boolean isGone(final Slot slot) {
+    if (step - slot.step < ABSENT_STEPS) {
+      return false;
+    }
+    if (nonNull(slot.gauge)) {
+      registry.remove(slot.gauge);
+    }
+    return true;
+  }
+
+  /**
+   * {@code completedTotalCount} as {@code completed.total.count}.
+   */
+  private static String dotted(final String name) {
+    final StringBuilder dotted = new StringBuilder(name.length() + 8);
+    for (int i = 0; i < name.length(); i++) {
+      final char c = name.charAt(i);
+      if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(name.charAt(i - 1)) && name.charAt(i - 1) != '.') {
+        dotted.append('.');
+      }
+      dotted.append(Character.toLowerCase(c));
+    }
+    return dotted.toString();
+  }
+
+  /**
+   * The simple class name of a logged operation, without its details.
+   */
+  private static String operationName(final String operation) {
+    final int details = operation.indexOf('{');
+    final String className = details < 0 ? operation : operation.substring(0, details);
+    return className.substring(className.lastIndexOf('.') + 1).trim();
+  }
+
+  private static final class Slot {
+
+    private volatile double value = Double.NaN;
+    private long step;
+    private Gauge gauge;
+
+    double get() {
+      return value;
+    }
+
+    void set(final double value, final long step) {
+      this.value = value;
+      this.step = step;
+    }
+  }
+
+  private final class SlotRenderer implements ProbeRenderer {
+
+    @Override
+    public void renderLong(final String name, final long value) {
+      update(name, value);
+    }
+
+    @Override
+    public void renderDouble(final String name, final double value) {
+      update(name, value);
+    }
+
+    @Override
+    public void renderException(final String name, final Exception e) {
+      // read NaN once expired
+    }
+
+    @Override
+    public void renderNoValue(final String name) {
+      // read NaN once expired
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.azdio.cache.metrics;
+
+import javax.inject.Singleton;
+
+import com.azdio.cache.hotkeys.HotKeyService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Skew of the operations executed by the partitions and partition threads of this member during the last window.
+ */
+@Singleton
+public class PartitionLoadMetrics implements MeterBinder {
+
+  private final HotKeyService hotKeyService;
+
+  public PartitionLoadMetrics(final HotKeyService hotKeyService) {
+    this.hotKeyService = hotKeyService;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder("cache.partition.load.skew", hotKeyService, s -> s.getPartitionLoad().getPartitionSkew())
+        .tag("level", "partition")
+        .description("Operations of the busiest partition divided by the mean of all partitions.")
+        .register(registry);
+    Gauge.builder("cache.partition.load.skew", hotKeyService, s -> s.getPartitionLoad().getThreadSkew())
+        .tag("level", "thread")
+        .description("Operations of the busiest partition thread divided by the mean of all partition threads.")
+        .register(registry);
+  }
+}
@@ -0,0 +1,40 @@
+package com.azdio.cache.metrics;
+
+import static java.util.Objects.isNull;
+
+import javax.inject.Singleton;
+
+import com.azdio.cache.HazelcastService;
+import com.azdio.cache.query.QuerySpaceIndex;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Query results indexed and evicted by the {@link QuerySpaceIndex} of this member, nothing when it is disabled.
+ */
+@Singleton
+public class QueryInvalidationMetrics implements MeterBinder {
+
+  private final HazelcastService hazelcastService;
+
+  public QueryInvalidationMetrics(final HazelcastService hazelcastService) {
+    this.hazelcastService = hazelcastService;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    final QuerySpaceIndex index = hazelcastService.getQuerySpaceIndex();
+    if (isNull(index)) {
+      return;
+    }
+    Gauge.builder("cache.query.invalidation.indexed", index, QuerySpaceIndex::getIndexedKeys)
+        .description("Query results of the partitions owned by this member indexed by table.")
+        .register(registry);
+    FunctionCounter.builder("cache.query.invalidation.evicted", index, QuerySpaceIndex::getEvictedKeys)
+        .description("Query results evicted because a table they read was updated.")
+        .register(registry);
+  }
+}
@@ -0,0 +1,72 @@
+package com.azdio.cache.metrics;
+
+import static java.util.Objects.isNull;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Singleton;
+
+import com.azdio.cache.HazelcastService;
+import com.azdio.cache.sizing.RegionSizingController;
+import com.azdio.cache.sizing.SizingDecision.Action;
+import com.hazelcast.config.CacheSimpleConfig;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.scheduling.annotation.Scheduled;
+
+/**
+ * Size of the regions under adaptive sizing, and the resizes this member decided, nothing when it is disabled. Regions
+ * added after startup get their meters at the next interval.
+ */
+@Singleton
+public class RegionSizingMetrics implements MeterBinder {
+
+  private final HazelcastService hazelcastService;
+  private final RegionSizingController regionSizingController;
+  private final Set<String> regions = ConcurrentHashMap.newKeySet();
+  private volatile MeterRegistry registry;
+
+  public RegionSizingMetrics(final HazelcastService hazelcastService, final RegionSizingController regionSizingController) {
+    this.hazelcastService = hazelcastService;
+    this.regionSizingController = regionSizingController;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    this.registry = registry;
+    refresh();
+  }
+
+  @Scheduled(fixedDelay = "${hazelcast.adaptive-sizing.interval-seconds:60}s")
+  public void refresh() {
+    final MeterRegistry meterRegistry = registry;
+    if (isNull(meterRegistry) || isNull(hazelcastService.getHazelcastInstance())) {
+      return;
+    }
+    hazelcastService.getCacheNames().stream()
+        .filter(regionSizingController::isSized)
+        .filter(regions::add)
+        .forEach(cacheName -> register(meterRegistry, cacheName));
+  }
+
+  private void register(final MeterRegistry meterRegistry, final String cacheName) {
+    Gauge.builder("cache.sizing.size", hazelcastService, s -> size(s.getCacheConfigs().get(cacheName)))
+        .tag("cache", cacheName)
+        .description("Entries the region may hold across the cluster before evicting.")
+        .register(meterRegistry);
+    for (final Action action : Action.values()) {
+      FunctionCounter.builder("cache.sizing.decisions", regionSizingController, c -> c.getDecisions(cacheName, action))
+          .tag("cache", cacheName).tag("action", action.tag())
+          .description("Resizes of the region decided by this member.")
+          .register(meterRegistry);
+    }
+  }
+
+  private static double size(final CacheSimpleConfig cacheConfig) {
+    return isNull(cacheConfig) ? Double.NaN : cacheConfig.getEvictionConfig().getSize();
+  }
+}
@@ -0,0 +1,286 @@
+package com.azdio.cache.query;
+
+import static java.util.Objects.isNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.cache.spi.QueryKey;
+
+import com.azdio.cache.HazelcastConfiguration.QueryInvalidation;
+import com.azdio.cache.HazelcastService;
+import com.azdio.cache.region.CacheRegionKind;
+import com.azdio.mdw.hazelcast.serialization.QueryKeyDigestSerializer;
+import com.azdio.mdw.hazelcast.serialization.QueryKeySerializer;
+import com.azdio.mdw.hazelcast.serialization.QuerySpaces;
+import com.hazelcast.cache.CacheEventType;
+import com.hazelcast.cache.HazelcastCacheManager;
+import com.hazelcast.cache.impl.CacheEventData;
+import com.hazelcast.cache.impl.CacheEventSet;
+import com.hazelcast.cache.impl.ICacheService;
+import com.hazelcast.cache.impl.operation.MutableOperation;
+import com.hazelcast.config.CacheSimpleConfig;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Evicts the query results that read a table as soon as its timestamp is updated, see {@link QueryInvalidation}.
+ * <p>
+ * Each member listens to the query regions for the partitions it owns only, and indexes the keys created there by the
+ * tables of their SQL; keys and values are not deserialized when the keys are written by {@link QueryKeySerializer}, and
+ * digested keys are indexed by their table set, see {@link QueryKeyDigestSerializer}.
+ * Every member listens to the whole timestamps region, and removes the dependent keys of its own partitions with one
+ * operation per partition and region, {@code batchSize} keys at a time. Backups and near caches follow the removal.
+ * <p>
+ * The index is best effort: entries that arrive by migration are not indexed and are left to the timestamp check
+ * Hibernate makes on every read, as without this index.
+ */
+@Slf4j
+public class QuerySpaceIndex {
+
+  private final HazelcastService hazelcastService;
+  private final QueryInvalidation queryInvalidation;
+  private final NodeEngineImpl nodeEngine;
+  private final ICacheService cacheService;
+  /**
+   * Per partition, the keys depending on each table.
+   */
+  private final Map<String, Set<RegionKey>>[] dependents;
+  /**
+   * Per partition, the tables of each indexed key.
+   */
+  private final Map<RegionKey, Set<String>>[] spaces;
+  private final AtomicLong evicted = new AtomicLong();
+
+  @SuppressWarnings("unchecked")
+  public QuerySpaceIndex(final HazelcastService hazelcastService) {
+    this.hazelcastService = hazelcastService;
+    this.queryInvalidation = hazelcastService.getHazelcastConfiguration().getQueryInvalidation();
+    this.nodeEngine = hazelcastService.getNodeEngine();
+    this.cacheService = nodeEngine.getService(ICacheService.SERVICE_NAME);
+    final int partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+    this.dependents = (Map<String, Set<RegionKey>>[]) new Map<?, ?>[partitionCount];
+    this.spaces = (Map<RegionKey, Set<String>>[]) new Map<?, ?>[partitionCount];
+    for (int i = 0; i < partitionCount; i++) {
+      dependents[i] = new ConcurrentHashMap<>();
+      spaces[i] = new ConcurrentHashMap<>();
+    }
+  }
+
+  /**
+   * Starts listening, before any query result is cached on this member.
+   */
+  public void start() {
+    final List<String> regions = new ArrayList<>();
+    hazelcastService.getCacheNames().stream()
+        .filter(region -> hazelcastService.getRegionKind(region) == CacheRegionKind.QUERY)
+        .sorted()
+        .forEach(region -> {
+          cacheService.registerListener(prefixed(region), event -> index(region, event), true);
+          regions.add(region);
+        });
+    cacheService.registerListener(prefixed(CacheRegionKind.DEFAULT_UPDATE_TIMESTAMPS_REGION), this::invalidate, false);
+    log.info("[cache][query-invalidation][indexing {} regions]", regions.size());
+  }
+
+  public long getIndexedKeys() {
+    long indexed = 0;
+    for (final Map<RegionKey, Set<String>> partition : spaces) {
+      indexed += partition.size();
+    }
+    return indexed;
+  }
+
+  public long getEvictedKeys() {
+    return evicted.get();
+  }
+
+  private void index(final String region, final Object event) {
+    for (final CacheEventData eventData : events(event)) {
+      final Data key = eventData.getDataKey();
+      if (isNull(key)) {
+        continue;
+      }
+      final int partitionId = nodeEngine.getPartitionService().getPartitionId(key);
+      final RegionKey regionKey = new RegionKey(region, key);
+      switch (eventData.getCacheEventType()) {
+        case CREATED:
+        case UPDATED:
+          if (!spaces[partitionId].containsKey(regionKey)) {
+            add(partitionId, regionKey);
+          }
+          break;
+        case REMOVED:
+        case EXPIRED:
+        case EVICTED:
+          remove(partitionId, regionKey);
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  private void add(final int partitionId, final RegionKey regionKey) {
+    final Set<String> tables;
+    try {
+      tables = tables(regionKey.getKey());
+    } catch (final IOException | RuntimeException e) {
+      log.debug("[cache][{}][query-invalidation][key not indexed: {}]", regionKey.getRegion(), e.getMessage());
+      return;
+    }
+    if (tables.isEmpty()) {
+      return;
+    }
+    spaces[partitionId].put(regionKey, tables);
+    tables.forEach(table -> dependents[partitionId].computeIfAbsent(table, t -> ConcurrentHashMap.newKeySet()).add(regionKey));
+  }
+
+  private void remove(final int partitionId, final RegionKey regionKey) {
+    final Set<String> tables = spaces[partitionId].remove(regionKey);
+    if (isNull(tables)) {
+      return;
+    }
+    tables.forEach(table -> dependents[partitionId].computeIfPresent(table, (t, keys) -> {
+      keys.remove(regionKey);
+      return keys.isEmpty() ? null : keys;
+    }));
+  }
+
+  private void invalidate(final Object event) {
+    final Set<String> tables = new HashSet<>();
+    for (final CacheEventData eventData : events(event)) {
+      if (eventData.getCacheEventType() != CacheEventType.CREATED && eventData.getCacheEventType() != CacheEventType.UPDATED) {
+        continue;
+      }
+      final Object table = nodeEngine.toObject(eventData.getDataKey());
+      if (table instanceof String) {
+        final String normalized = QuerySpaces.normalize((String) table);
+        tables.add(normalized);
+        tables.add(bitName(QuerySpaces.bit(normalized)));
+      }
+    }
+    if (tables.isEmpty()) {
+      return;
+    }
+    for (int partitionId = 0; partitionId < dependents.length; partitionId++) {
+      final Map<String, List<Data>> regions = new HashMap<>();
+      for (final String table : tables) {
+        final Set<RegionKey> keys = dependents[partitionId].remove(table);
+        if (isNull(keys)) {
+          continue;
+        }
+        for (final RegionKey regionKey : keys) {
+          remove(partitionId, regionKey);
+          regions.computeIfAbsent(regionKey.getRegion(), region -> new ArrayList<>()).add(regionKey.getKey());
+        }
+      }
+      if (regions.isEmpty()) {
+        continue;
+      }
+      if (!nodeEngine.getPartitionService().getPartition(partitionId, false).isLocal()) {
+        // migrated away, the new owner indexes what it is sent from now on
+        dependents[partitionId].clear();
+        spaces[partitionId].clear();
+        continue;
+      }
+      final int partition = partitionId;
+      regions.forEach((region, keys) -> evict(region, partition, keys));
+    }
+  }
+
+  private void evict(final String region, final int partitionId, final List<Data> keys) {
+    final CacheSimpleConfig cacheConfig = hazelcastService.getCacheConfigs().get(region);
+    if (isNull(cacheConfig) || isNull(cacheService.getCacheConfig(prefixed(region)))) {
+      return;
+    }
+    for (int from = 0; from < keys.size(); from += queryInvalidation.getBatchSize()) {
+      final Set<Data> batch = new HashSet<>(keys.subList(from, Math.min(keys.size(), from + queryInvalidation.getBatchSize())));
+      final Operation operation = cacheService.getCacheOperationProvider(prefixed(region), cacheConfig.getInMemoryFormat())
+          .createRemoveAllOperationFactory(batch, MutableOperation.IGNORE_COMPLETION)
+          .createOperation();
+      nodeEngine.getOperationService().invokeOnPartition(ICacheService.SERVICE_NAME, operation, partitionId)
+          .andThen(new ExecutionCallback<Object>() {
+
+            @Override
+            public void onResponse(final Object response) {
+              evicted.addAndGet(batch.size());
+              log.debug("[cache][{}][query-invalidation][partition {}][{} keys evicted]", region, partitionId, batch.size());
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+              log.warn("[cache][{}][query-invalidation][partition {}][error: {}]", region, partitionId, t.getMessage());
+            }
+          });
+    }
+  }
+
+  /**
+   * The tables of the SQL of a key; for a digested key, the bits of its table set, which may stand for other tables as
+   * well and evict a few more results than needed.
+   */
+  private Set<String> tables(final Data key) throws IOException {
+    if (key.getType() == QueryKeySerializer.TYPE_ID || key.getType() == QueryKeyDigestSerializer.TYPE_ID) {
+      // the SQL comes first and the table set last, the parameters are not read
+      final BufferObjectDataInput in = ((InternalSerializationService) nodeEngine.getSerializationService())
+          .createObjectDataInput(key);
+      try {
+        if (key.getType() == QueryKeySerializer.TYPE_ID) {
+          return QuerySpaces.of(in.readUTF());
+        }
+        in.position(in.position() + QueryKeyDigestSerializer.SIZE - Long.BYTES);
+        final long mask = in.readLong();
+        final Set<String> bits = new HashSet<>();
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+          if ((mask & 1L << bit) != 0) {
+            bits.add(bitName(bit));
+          }
+        }
+        return bits;
+      } finally {
+        in.close();
+      }
+    }
+    final Object queryKey = nodeEngine.toObject(key);
+    return queryKey instanceof QueryKey
+        ? QuerySpaces.of(QueryKeySerializer.sqlQueryString((QueryKey) queryKey))
+        : Collections.emptySet();
+  }
+
+  private static String bitName(final int bit) {
+    return "#" + bit;
+  }
+
+  private static Set<CacheEventData> events(final Object event) {
+    if (event instanceof CacheEventSet) {
+      return ((CacheEventSet) event).getEvents();
+    }
+    return event instanceof CacheEventData ? Collections.singleton((CacheEventData) event) : Collections.emptySet();
+  }
+
+  private static String prefixed(final String region) {
+    return HazelcastCacheManager.CACHE_MANAGER_PREFIX + region;
+  }
+
+  @Value
+  private static class RegionKey {
+    String region;
+    Data key;
+  }
+}
@@ -0,0 +1,19 @@
+package com.azdio.cache.reconfig;
+
+import java.io.Serializable;
+
+import lombok.Data;
+
+/**
+ * The record stores of a region one member moved to its new configuration, primaries and backups alike.
+ */
+@Data
+public class MemberMigration implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private String member;
+  private int partitions;
+  private long entries;
+  private long millis;
+}
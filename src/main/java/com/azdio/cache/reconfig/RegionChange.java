@@ -0,0 +1,31 @@
+package com.azdio.cache.reconfig;
+
+import java.util.concurrent.TimeUnit;
+
+import com.hazelcast.config.CacheSimpleConfig.ExpiryPolicyFactoryConfig.TimedExpiryPolicyFactoryConfig.ExpiryPolicyType;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+
+import lombok.Data;
+
+/**
+ * The settings of a region to change, those left {@code null} are kept. A new region starts from the
+ * {@link com.azdio.cache.HazelcastConfiguration#getCacheConfig() default} configuration.
+ */
+@Data
+public class RegionChange {
+  private Integer size;
+  private EvictionPolicy evictionPolicy;
+  /**
+   * Time to live in {@code timeUnit}; both are needed to change it.
+   */
+  private Integer durationAmount;
+  private TimeUnit timeUnit;
+  /**
+   * What restarts the time to live, kept with the current duration when only the type changes.
+   */
+  private ExpiryPolicyType expiryPolicyType;
+  private Integer backupCount;
+  private Integer asyncBackupCount;
+  private InMemoryFormat inMemoryFormat;
+}
@@ -0,0 +1,77 @@
+package com.azdio.cache.reconfig;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+import com.azdio.cache.HazelcastService;
+import com.hazelcast.config.CacheSimpleConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastInstanceAware;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+
+/**
+ * Runs {@link RegionMigrator} on the member it is sent to, through the {@link HazelcastService} the member registered in
+ * its user context: a migration to a new configuration answered with a {@link MemberMigration}, or the replica sync
+ * that follows it on every member, answered with the number of partitions synced.
+ */
+public class RegionMigrationTask implements Callable<Object>, HazelcastInstanceAware, DataSerializable {
+
+  private CacheSimpleConfig cacheConfig;
+  private long timeoutMillis;
+  /**
+   * First replica to sync, 0 to migrate.
+   */
+  private int syncFromReplica;
+  private transient HazelcastInstance hazelcastInstance;
+
+  public RegionMigrationTask() {
+  }
+
+  private RegionMigrationTask(final CacheSimpleConfig cacheConfig, final long timeoutMillis, final int syncFromReplica) {
+    this.cacheConfig = cacheConfig;
+    this.timeoutMillis = timeoutMillis;
+    this.syncFromReplica = syncFromReplica;
+  }
+
+  public static RegionMigrationTask migrate(final CacheSimpleConfig cacheConfig, final long timeoutMillis) {
+    return new RegionMigrationTask(cacheConfig, timeoutMillis, 0);
+  }
+
+  public static RegionMigrationTask syncReplicas(final CacheSimpleConfig cacheConfig, final long timeoutMillis,
+      final int fromReplica) {
+    return new RegionMigrationTask(cacheConfig, timeoutMillis, fromReplica);
+  }
+
+  @Override
+  public void setHazelcastInstance(final HazelcastInstance hazelcastInstance) {
+    this.hazelcastInstance = hazelcastInstance;
+  }
+
+  @Override
+  public Object call() throws Exception {
+    final Object hazelcastService = hazelcastInstance.getUserContext().get(HazelcastService.class.getName());
+    if (!(hazelcastService instanceof HazelcastService)) {
+      throw new IllegalStateException("Member not started by HazelcastService");
+    }
+    final RegionMigrator migrator = new RegionMigrator((HazelcastService) hazelcastService);
+    return syncFromReplica > 0
+        ? migrator.syncReplicas(cacheConfig.getName(), syncFromReplica, timeoutMillis)
+        : migrator.migrate(cacheConfig, timeoutMillis);
+  }
+
+  @Override
+  public void writeData(final ObjectDataOutput out) throws IOException {
+    out.writeObject(cacheConfig);
+    out.writeLong(timeoutMillis);
+    out.writeInt(syncFromReplica);
+  }
+
+  @Override
+  public void readData(final ObjectDataInput in) throws IOException {
+    cacheConfig = in.readObject();
+    timeoutMillis = in.readLong();
+    syncFromReplica = in.readInt();
+  }
+}
@@ -0,0 +1,221 @@
+package com.azdio.cache.reconfig;
+
+import static java.util.Objects.isNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.azdio.cache.HazelcastService;
+import com.hazelcast.cache.HazelcastCacheManager;
+import com.hazelcast.cache.impl.AbstractCacheService;
+import com.hazelcast.cache.impl.CachePartitionSegment;
+import com.hazelcast.cache.impl.CacheRecordStore;
+import com.hazelcast.cache.impl.CacheService;
+import com.hazelcast.cache.impl.ICacheRecordStore;
+import com.hazelcast.cache.impl.ICacheService;
+import com.hazelcast.cache.impl.record.CacheRecord;
+import com.hazelcast.config.CacheConfig;
+import com.hazelcast.config.CacheSimpleConfig;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.internal.partition.impl.PartitionReplicaManager;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.ServiceNamespace;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.partition.IPartition;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves a region of this member to a new configuration. Hazelcast reads the configuration of a region once, when a
+ * partition creates its record store, and rejects a dynamic configuration that differs from the existing one.
+ * <p>
+ * The new configuration replaces the previous one in the cache service, then each partition thread builds a record store
+ * from it, copies the live records over and swaps it in. Operations on the partition wait for the copy, so no read
+ * misses an entry; entries beyond a smaller size are evicted as they are copied, and near caches are invalidated key by
+ * key. Records keep their expiration time, the new expiry applies from their next update. Added backups are filled
+ * afterwards, see {@link #syncReplicas}.
+ */
+@Slf4j
+class RegionMigrator {
+
+  private static final MethodHandle RECORD_STORES = getter(CachePartitionSegment.class, "recordStores");
+  private static final MethodHandle CREATE_RECORD = method(CacheRecordStore.class, "createRecord",
+      Object.class, long.class, long.class);
+
+  private final HazelcastService hazelcastService;
+  private final NodeEngineImpl nodeEngine;
+  private final AbstractCacheService cacheService;
+
+  RegionMigrator(final HazelcastService hazelcastService) {
+    this.hazelcastService = hazelcastService;
+    this.nodeEngine = hazelcastService.getNodeEngine();
+    this.cacheService = nodeEngine.getService(ICacheService.SERVICE_NAME);
+  }
+
+  MemberMigration migrate(final CacheSimpleConfig cacheSimpleConfig, final long timeoutMillis) throws Exception {
+    final long start = System.nanoTime();
+    final String prefixedName = HazelcastCacheManager.CACHE_MANAGER_PREFIX + cacheSimpleConfig.getName();
+    final MemberMigration migration = new MemberMigration();
+    migration.setMember(nodeEngine.getThisAddress().toString());
+    hazelcastService.replaceCacheConfig(cacheSimpleConfig);
+
+    final CacheConfig<?, ?> previous = cacheService.getCacheConfig(prefixedName);
+    if (isNull(previous)) {
+      // not created on this member yet, its record stores will be built from the new configuration
+      return migration;
+    }
+    final CacheConfig<?, ?> cacheConfig = hazelcastService.toCacheConfig(cacheSimpleConfig);
+    cacheConfig.setManagerPrefix(previous.getManagerPrefix());
+    cacheConfig.setUriString(previous.getUriString());
+    cacheService.getConfigs().put(prefixedName, cacheConfig);
+
+    final int partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+    final CountDownLatch done = new CountDownLatch(partitionCount);
+    final AtomicInteger partitions = new AtomicInteger();
+    final AtomicLong entries = new AtomicLong();
+    for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+      final CachePartitionSegment segment = cacheService.getSegment(partitionId);
+      if (!segment.hasRecordStore(prefixedName)) {
+        done.countDown();
+        continue;
+      }
+      nodeEngine.getOperationService().execute(new PartitionSpecificRunnable() {
+
+        @Override
+        public int getPartitionId() {
+          return segment.getPartitionId();
+        }
+
+        @Override
+        public void run() {
+          try {
+            final long copied = swap(segment, prefixedName, cacheConfig);
+            if (copied >= 0) {
+              partitions.incrementAndGet();
+              entries.addAndGet(copied);
+            }
+          } catch (final Throwable e) {
+            log.warn("[cache][{}][reconfiguration][partition {}][error: {}]",
+                cacheSimpleConfig.getName(), segment.getPartitionId(), e.getMessage());
+          } finally {
+            done.countDown();
+          }
+        }
+      });
+    }
+    if (!done.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+      throw new TimeoutException(done.getCount() + " partitions not migrated within " + timeoutMillis + " ms");
+    }
+    migration.setPartitions(partitions.get());
+    migration.setEntries(entries.get());
+    migration.setMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    log.info("[cache][{}][reconfiguration][{} partitions][{} entries][{} ms]",
+        cacheSimpleConfig.getName(), migration.getPartitions(), migration.getEntries(), migration.getMillis());
+    return migration;
+  }
+
+  /**
+   * Asks the owners for the region entries of the replicas this member holds from {@code fromReplica}, once every member
+   * has migrated: an owner sends a replica only the backups its configuration has. Hazelcast drops a request, rather than
+   * queueing it, when this member or the owner is out of replica sync permits, so one request is in flight at a time.
+   *
+   * @return the partitions synced
+   */
+  int syncReplicas(final String region, final int fromReplica, final long timeoutMillis)
+      throws InterruptedException, TimeoutException {
+    final String prefixedName = HazelcastCacheManager.CACHE_MANAGER_PREFIX + region;
+    final CacheConfig<?, ?> cacheConfig = cacheService.getCacheConfig(prefixedName);
+    if (isNull(cacheConfig)) {
+      return 0;
+    }
+    final Address thisAddress = nodeEngine.getThisAddress();
+    final PartitionReplicaManager replicaManager = ((InternalPartitionServiceImpl) nodeEngine.getPartitionService())
+        .getReplicaManager();
+    final Collection<ServiceNamespace> namespaces = Collections.singleton(CacheService.getObjectNamespace(prefixedName));
+    final int permits = replicaManager.availableReplicaSyncPermits();
+    final long deadline = System.currentTimeMillis() + timeoutMillis;
+    int partitions = 0;
+    for (final IPartition partition : nodeEngine.getPartitionService().getPartitions()) {
+      for (int replicaIndex = fromReplica; replicaIndex <= cacheConfig.getTotalBackupCount(); replicaIndex++) {
+        if (thisAddress.equals(partition.getReplicaAddress(replicaIndex))) {
+          replicaManager.triggerPartitionReplicaSync(partition.getPartitionId(), namespaces, replicaIndex);
+          awaitPermits(replicaManager, permits, deadline);
+          partitions++;
+        }
+      }
+    }
+    return partitions;
+  }
+
+  private static void awaitPermits(final PartitionReplicaManager replicaManager, final int permits, final long deadline)
+      throws InterruptedException, TimeoutException {
+    while (replicaManager.availableReplicaSyncPermits() < permits) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new TimeoutException("Replica sync not completed in time");
+      }
+      TimeUnit.MILLISECONDS.sleep(1);
+    }
+  }
+
+  /**
+   * @return the records copied, -1 when the partition has no record store of the region anymore
+   */
+  @SuppressWarnings("unchecked")
+  private long swap(final CachePartitionSegment segment, final String prefixedName, final CacheConfig<?, ?> cacheConfig)
+      throws Throwable {
+    final ICacheRecordStore previous = segment.getRecordStore(prefixedName);
+    if (isNull(previous)) {
+      return -1;
+    }
+    final ICacheRecordStore next = segment.createNew(prefixedName);
+    final boolean sameFormat = previous.getConfig().getInMemoryFormat() == cacheConfig.getInMemoryFormat();
+    final long now = System.currentTimeMillis();
+    long copied = 0;
+    for (final Map.Entry<Data, ?> entry : previous.getReadOnlyRecords().entrySet()) {
+      final CacheRecord<?, ?> record = (CacheRecord<?, ?>) entry.getValue();
+      if (record.isExpiredAt(now)) {
+        continue;
+      }
+      next.putRecord(entry.getKey(), sameFormat
+          ? record
+          : (CacheRecord<?, ?>) CREATE_RECORD.invoke(next, record.getValue(), record.getCreationTime(), record.getExpirationTime()),
+          false);
+      copied++;
+    }
+    ((ConcurrentMap<String, ICacheRecordStore>) RECORD_STORES.invoke(segment)).put(prefixedName, next);
+    return copied;
+  }
+
+  private static MethodHandle getter(final Class<?> type, final String name) {
+    try {
+      final Field field = type.getDeclaredField(name);
+      field.setAccessible(true);
+      return MethodHandles.lookup().unreflectGetter(field);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw new IllegalStateException("Cannot access " + type.getName() + "." + name, e);
+    }
+  }
+
+  private static MethodHandle method(final Class<?> type, final String name, final Class<?>... parameterTypes) {
+    try {
+      final Method method = type.getDeclaredMethod(name, parameterTypes);
+      method.setAccessible(true);
+      return MethodHandles.lookup().unreflect(method);
+    } catch (final NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalStateException("Cannot access " + type.getName() + "." + name, e);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.azdio.cache.reconfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Outcome of {@code PUT /hazelcast/cache/{name}/config}: the settings that change, and once applied, what each member
+ * migrated. Members listed in {@code errors} keep the previous configuration until the request is repeated.
+ */
+@Data
+public class RegionReconfiguration {
+  private String region;
+  private boolean created;
+  private boolean applied;
+  private List<SettingChange> changes = new ArrayList<>();
+  private List<MemberMigration> members = new ArrayList<>();
+  private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,253 @@
+package com.azdio.cache.reconfig;
+
+import static com.hazelcast.config.EvictionConfig.MaxSizePolicy.ENTRY_COUNT;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Singleton;
+
+import com.azdio.cache.HazelcastConfiguration.Reconfiguration;
+import com.azdio.cache.HazelcastService;
+import com.hazelcast.config.CacheSimpleConfig;
+import com.hazelcast.config.CacheSimpleConfig.ExpiryPolicyFactoryConfig.DurationConfig;
+import com.hazelcast.config.CacheSimpleConfig.ExpiryPolicyFactoryConfig.TimedExpiryPolicyFactoryConfig;
+import com.hazelcast.config.CacheSimpleConfig.ExpiryPolicyFactoryConfig.TimedExpiryPolicyFactoryConfig.ExpiryPolicyType;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.MultiExecutionCallback;
+import com.hazelcast.spi.partition.IPartition;
+
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.exceptions.HttpStatusException;
+import io.reactivex.Single;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Adds a region, or changes the configuration of an existing one on every member at once, see {@link RegionMigrator}.
+ * A new region is added with Hazelcast dynamic configuration, so members joining later get it too; a changed region
+ * keeps its new configuration until the members restart with their own.
+ */
+@Slf4j
+@Singleton
+public class RegionReconfigurationService {
+
+  static final String EXECUTOR = "azdio-cache-reconfiguration";
+  private static final String BEARER = "Bearer ";
+
+  private final HazelcastService hazelcastService;
+  private final Reconfiguration reconfiguration;
+
+  public RegionReconfigurationService(final HazelcastService hazelcastService) {
+    this.hazelcastService = hazelcastService;
+    this.reconfiguration = hazelcastService.getHazelcastConfiguration().getReconfiguration();
+  }
+
+  /**
+   * @param dryRun only validates the change and lists the settings it changes
+   */
+  public Single<RegionReconfiguration> reconfigure(final String authorization, final String name, final RegionChange change,
+      final boolean dryRun) {
+    authorize(authorization);
+    return reconfigure(name, change, dryRun);
+  }
+
+  /**
+   * For the callers within the member, without authorization.
+   */
+  public Single<RegionReconfiguration> reconfigure(final String name, final RegionChange change, final boolean dryRun) {
+    validate(change);
+    final CacheSimpleConfig current = hazelcastService.getCacheConfigs().get(name);
+    final CacheSimpleConfig cacheConfig = isNull(current)
+        ? hazelcastService.newCacheConfig(name)
+        : new CacheSimpleConfig(current);
+    try {
+      apply(change, cacheConfig);
+    } catch (final IllegalArgumentException e) {
+      throw new HttpStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+    validate(cacheConfig);
+
+    final RegionReconfiguration result = new RegionReconfiguration();
+    result.setRegion(name);
+    result.setCreated(isNull(current));
+    diff(current, cacheConfig, result.getChanges());
+    if (dryRun || result.getChanges().isEmpty()) {
+      return Single.just(result);
+    }
+    if (isNull(current)) {
+      // dynamic configuration, sent to all members and to those joining later
+      hazelcastService.getHazelcastInstance().getConfig().addCacheConfig(cacheConfig);
+      result.setApplied(true);
+      log.info("[cache][{}][reconfiguration][created: {}]", name, result.getChanges());
+      return Single.just(result);
+    }
+    return migrate(current, cacheConfig, result);
+  }
+
+  /**
+   * Migrates the region on every member, then has the members holding the backups it gains sync them.
+   */
+  private Single<RegionReconfiguration> migrate(final CacheSimpleConfig current, final CacheSimpleConfig cacheConfig,
+      final RegionReconfiguration result) {
+    final Set<Member> members = hazelcastService.getHazelcastInstance().getCluster().getMembers();
+    final int previousBackups = current.getBackupCount() + current.getAsyncBackupCount();
+    final int backups = cacheConfig.getBackupCount() + cacheConfig.getAsyncBackupCount();
+    return submitToMembers(RegionMigrationTask.migrate(cacheConfig, reconfiguration.getTimeoutMillis()), members)
+        .flatMap(responses -> {
+          responses.forEach((member, value) -> {
+            if (value instanceof MemberMigration) {
+              result.getMembers().add((MemberMigration) value);
+            } else {
+              result.getErrors().add(member.getAddress() + ": " + value);
+            }
+          });
+          result.setApplied(result.getErrors().isEmpty() && result.getMembers().size() == members.size());
+          if (!result.isApplied() || backups <= previousBackups) {
+            return Single.just(result);
+          }
+          return submitToMembers(RegionMigrationTask.syncReplicas(cacheConfig, reconfiguration.getTimeoutMillis(),
+              previousBackups + 1), members)
+              .map(syncs -> {
+                syncs.forEach((member, value) -> {
+                  if (!(value instanceof Integer)) {
+                    result.getErrors().add(member.getAddress() + ": backups not synced: " + value);
+                  }
+                });
+                return result;
+              });
+        })
+        .doOnSuccess(reconfigured -> log.info("[cache][{}][reconfiguration][{}][{} members][errors: {}]",
+            reconfigured.getRegion(), reconfigured.getChanges(), reconfigured.getMembers().size(), reconfigured.getErrors()));
+  }
+
+  /**
+   * The answers of the members, those that have not answered within {@code timeoutMillis} are missing.
+   */
+  private Single<Map<Member, Object>> submitToMembers(final RegionMigrationTask task, final Set<Member> members) {
+    final Map<Member, Object> responses = new ConcurrentHashMap<>();
+    return Single.<Boolean>create(emitter -> hazelcastService.getHazelcastInstance().getExecutorService(EXECUTOR)
+        .submitToMembers(task, members, new MultiExecutionCallback() {
+
+          @Override
+          public void onResponse(final Member member, final Object value) {
+            responses.put(member, value);
+          }
+
+          @Override
+          public void onComplete(final Map<Member, Object> values) {
+            emitter.onSuccess(true);
+          }
+        }))
+        .timeout(reconfiguration.getTimeoutMillis() + 1000, TimeUnit.MILLISECONDS, Single.just(false))
+        .map(complete -> {
+          final Map<Member, Object> answers = new HashMap<>(responses);
+          members.forEach(member -> answers.putIfAbsent(member,
+              "no answer within " + reconfiguration.getTimeoutMillis() + " ms"));
+          return answers;
+        });
+  }
+
+  private void authorize(final String authorization) {
+    if (reconfiguration.getToken().isEmpty()) {
+      throw new HttpStatusException(HttpStatus.FORBIDDEN, "Region reconfiguration is disabled");
+    }
+    final byte[] expected = (BEARER + reconfiguration.getToken()).getBytes(StandardCharsets.UTF_8);
+    if (isNull(authorization) || !MessageDigest.isEqual(expected, authorization.getBytes(StandardCharsets.UTF_8))) {
+      throw new HttpStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
+    }
+  }
+
+  private static void validate(final RegionChange change) {
+    if (isNull(change)) {
+      throw new HttpStatusException(HttpStatus.BAD_REQUEST, "No change");
+    }
+    if (nonNull(change.getSize()) && change.getSize() <= 0) {
+      throw new HttpStatusException(HttpStatus.BAD_REQUEST, "Size must be positive");
+    }
+    if (isNull(change.getDurationAmount()) != isNull(change.getTimeUnit())) {
+      throw new HttpStatusException(HttpStatus.BAD_REQUEST, "Duration amount and time unit go together");
+    }
+    if (nonNull(change.getDurationAmount()) && change.getDurationAmount() < 0) {
+      throw new HttpStatusException(HttpStatus.BAD_REQUEST, "Duration amount must not be negative");
+    }
+    if (nonNull(change.getBackupCount()) && change.getBackupCount() < 0
+        || nonNull(change.getAsyncBackupCount()) && change.getAsyncBackupCount() < 0) {
+      throw new HttpStatusException(HttpStatus.BAD_REQUEST, "Backup counts must not be negative");
+    }
+  }
+
+  private static void validate(final CacheSimpleConfig cacheConfig) {
+    if (cacheConfig.getBackupCount() + cacheConfig.getAsyncBackupCount() > IPartition.MAX_BACKUP_COUNT) {
+      throw new HttpStatusException(HttpStatus.BAD_REQUEST,
+          "A region has at most " + IPartition.MAX_BACKUP_COUNT + " backups");
+    }
+  }
+
+  private static void apply(final RegionChange change, final CacheSimpleConfig cacheConfig) {
+    final EvictionConfig evictionConfig = cacheConfig.getEvictionConfig();
+    if (nonNull(change.getSize()) || nonNull(change.getEvictionPolicy())) {
+      cacheConfig.setEvictionConfig(new EvictionConfig(
+          nonNull(change.getSize()) ? change.getSize() : evictionConfig.getSize(),
+          ENTRY_COUNT,
+          nonNull(change.getEvictionPolicy()) ? change.getEvictionPolicy() : evictionConfig.getEvictionPolicy()));
+    }
+    if (nonNull(change.getDurationAmount()) || nonNull(change.getExpiryPolicyType())) {
+      final CacheSimpleConfig.ExpiryPolicyFactoryConfig factoryConfig = cacheConfig.getExpiryPolicyFactoryConfig();
+      final TimedExpiryPolicyFactoryConfig timed = isNull(factoryConfig) ? null : factoryConfig.getTimedExpiryPolicyFactoryConfig();
+      final DurationConfig duration = isNull(timed) ? null : timed.getDurationConfig();
+      if (isNull(change.getDurationAmount()) && isNull(duration)) {
+        throw new IllegalArgumentException("The region has no duration, set one with the expiry policy type");
+      }
+      final ExpiryPolicyType expiryPolicyType = nonNull(change.getExpiryPolicyType()) ? change.getExpiryPolicyType()
+          : isNull(timed) ? ExpiryPolicyType.CREATED : timed.getExpiryPolicyType();
+      cacheConfig.setExpiryPolicyFactoryConfig(nonNull(change.getDurationAmount())
+          ? HazelcastService.expiryPolicyFactoryConfig(expiryPolicyType, change.getDurationAmount(), change.getTimeUnit())
+          : HazelcastService.expiryPolicyFactoryConfig(expiryPolicyType, duration.getDurationAmount(), duration.getTimeUnit()));
+    }
+    if (nonNull(change.getBackupCount())) {
+      cacheConfig.setBackupCount(change.getBackupCount());
+    }
+    if (nonNull(change.getAsyncBackupCount())) {
+      cacheConfig.setAsyncBackupCount(change.getAsyncBackupCount());
+    }
+    if (nonNull(change.getInMemoryFormat())) {
+      cacheConfig.setInMemoryFormat(change.getInMemoryFormat());
+    }
+  }
+
+  private static void diff(final CacheSimpleConfig from, final CacheSimpleConfig to, final List<SettingChange> changes) {
+    diff("size", isNull(from) ? null : from.getEvictionConfig().getSize(), to.getEvictionConfig().getSize(), changes);
+    diff("evictionPolicy", isNull(from) ? null : from.getEvictionConfig().getEvictionPolicy(),
+        to.getEvictionConfig().getEvictionPolicy(), changes);
+    diff("expiry", isNull(from) ? null : expiry(from), expiry(to), changes);
+    diff("backupCount", isNull(from) ? null : from.getBackupCount(), to.getBackupCount(), changes);
+    diff("asyncBackupCount", isNull(from) ? null : from.getAsyncBackupCount(), to.getAsyncBackupCount(), changes);
+    diff("inMemoryFormat", isNull(from) ? null : from.getInMemoryFormat(), to.getInMemoryFormat(), changes);
+  }
+
+  private static void diff(final String setting, final Object from, final Object to, final List<SettingChange> changes) {
+    if (!Objects.equals(from, to)) {
+      changes.add(new SettingChange(setting, isNull(from) ? null : String.valueOf(from), String.valueOf(to)));
+    }
+  }
+
+  private static String expiry(final CacheSimpleConfig cacheConfig) {
+    final CacheSimpleConfig.ExpiryPolicyFactoryConfig factoryConfig = cacheConfig.getExpiryPolicyFactoryConfig();
+    if (isNull(factoryConfig) || isNull(factoryConfig.getTimedExpiryPolicyFactoryConfig())) {
+      return isNull(factoryConfig) ? "none" : factoryConfig.getClassName();
+    }
+    final DurationConfig duration = factoryConfig.getTimedExpiryPolicyFactoryConfig().getDurationConfig();
+    return factoryConfig.getTimedExpiryPolicyFactoryConfig().getExpiryPolicyType() + " "
+        + (isNull(duration) ? "eternal" : duration.getDurationAmount() + " " + duration.getTimeUnit());
+  }
+}
@@ -0,0 +1,17 @@
+package com.azdio.cache.reconfig;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A setting of a region before and after a reconfiguration, {@code from} is {@code null} for a new region.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettingChange {
+  private String setting;
+  private String from;
+  private String to;
+}
@@ -0,0 +1,135 @@
+package com.azdio.cache.region;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import javax.persistence.QueryHint;
+
+import org.reflections.Reflections;
+import org.reflections.scanners.FieldAnnotationsScanner;
+import org.reflections.scanners.MethodAnnotationsScanner;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import com.azdio.mdw.domain.ImageEntityWithContent;
+import com.azdio.mdw.domain.ImageEntityWithHash;
+
+/**
+ * Cache region names discovered in the domain jars, keyed by region name.
+ * <p>
+ * The index is written at build time by {@link CacheRegionIndexGenerator} to {@link #LOCATION} so the member does not
+ * have to scan the classpath on every start. {@link #scan(String)} is kept as the fallback when the manifest is missing.
+ */
+public class CacheRegionIndex {
+
+  public static final String LOCATION = "META-INF/azdio-cache/cache-regions.properties";
+
+  private final Map<String, CacheRegionKind> regions;
+
+  private CacheRegionIndex(final Map<String, CacheRegionKind> regions) {
+    this.regions = Collections.unmodifiableMap(regions);
+  }
+
+  public Map<String, CacheRegionKind> getRegions() {
+    return regions;
+  }
+
+  public Set<String> getRegions(final CacheRegionKind kind) {
+    return regions.entrySet().stream()
+        .filter(entry -> entry.getValue() == kind)
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toCollection(TreeSet::new));
+  }
+
+  public int size() {
+    return regions.size();
+  }
+
+  /**
+   * Loads the build-time manifest, or returns {@code null} if it is not on the classpath.
+   */
+  public static CacheRegionIndex load(final ClassLoader classLoader) throws IOException {
+    try (InputStream in = classLoader.getResourceAsStream(LOCATION)) {
+      if (in == null) {
+        return null;
+      }
+      final Properties properties = new Properties();
+      properties.load(in);
+      final Map<String, CacheRegionKind> regions = new TreeMap<>();
+      properties.stringPropertyNames()
+          .forEach(name -> regions.put(name, CacheRegionKind.valueOf(properties.getProperty(name))));
+      return new CacheRegionIndex(regions);
+    }
+  }
+
+  public void store(final OutputStream out) throws IOException {
+    final Properties properties = new Properties();
+    regions.forEach((name, kind) -> properties.setProperty(name, kind.name()));
+    properties.store(out, "Cache regions, generated by " + CacheRegionIndexGenerator.class.getName());
+  }
+
+  /**
+   * Scans {@code packagePrefix} for {@code @Cacheable} entities, {@code @Cache} collection fields, {@code @QueryHints}
+   * cache regions and image entities.
+   */
+  public static CacheRegionIndex scan(final String packagePrefix) {
+    final Reflections reflections = new Reflections(packagePrefix,
+        new TypeAnnotationsScanner(),
+        new SubTypesScanner(),
+        new MethodAnnotationsScanner(),
+        new FieldAnnotationsScanner());
+
+    final Map<String, CacheRegionKind> regions = new TreeMap<>();
+
+    // Second Level Caches
+    reflections.getTypesAnnotatedWith(javax.persistence.Cacheable.class)
+        .forEach(entityClass -> regions.put(entityClass.getCanonicalName(), CacheRegionKind.ENTITY));
+
+    // Collections fields cache
+    reflections.getFieldsAnnotatedWith(org.hibernate.annotations.Cache.class)
+        .forEach(field -> regions.put(collectionRegionName(field), CacheRegionKind.COLLECTION));
+
+    // Query Caches
+    reflections.getMethodsAnnotatedWith(QueryHints.class).stream()
+        .map(CacheRegionIndex::queryRegionName)
+        .filter(name -> name != null)
+        .forEach(name -> regions.put(name, CacheRegionKind.QUERY));
+
+    // Images cache
+    reflections.getSubTypesOf(ImageEntityWithHash.class)
+        .forEach(imageEntity -> regions.put(imageRegionName(imageEntity), CacheRegionKind.IMAGE));
+    reflections.getSubTypesOf(ImageEntityWithContent.class)
+        .forEach(imageEntity -> regions.put(imageRegionName(imageEntity), CacheRegionKind.IMAGE));
+
+    return new CacheRegionIndex(regions);
+  }
+
+  private static String collectionRegionName(final Field field) {
+    return field.getDeclaringClass().getCanonicalName() + "." + field.getName();
+  }
+
+  private static String imageRegionName(final Class<?> imageEntity) {
+    return CacheRegionKind.IMAGES_CACHE_PREFIX.concat(imageEntity.getSimpleName());
+  }
+
+  private static String queryRegionName(final Method method) {
+    final QueryHints hints = method.getAnnotation(QueryHints.class);
+    return Arrays.stream(hints.value())
+        .filter(hint -> hint.name().equals(org.hibernate.annotations.QueryHints.CACHE_REGION))
+        .map(QueryHint::value)
+        .findFirst()
+        .orElse(null);
+  }
+}
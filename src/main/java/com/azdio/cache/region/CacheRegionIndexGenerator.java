@@ -0,0 +1,33 @@
+package com.azdio.cache.region;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Build step that scans the domain jars once and writes the {@link CacheRegionIndex} manifest into the build output.
+ * <p>
+ * Usage: {@code CacheRegionIndexGenerator <outputDirectory> [packagePrefix]}
+ */
+public class CacheRegionIndexGenerator {
+
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 1) {
+      throw new IllegalArgumentException("Usage: CacheRegionIndexGenerator <outputDirectory> [packagePrefix]");
+    }
+    final String packagePrefix = args.length > 1 ? args[1] : "com.azdio.mdw";
+
+    final long start = System.nanoTime();
+    final CacheRegionIndex index = CacheRegionIndex.scan(packagePrefix);
+    final long took = (System.nanoTime() - start) / 1_000_000;
+
+    final File manifest = new File(args[0], CacheRegionIndex.LOCATION);
+    manifest.getParentFile().mkdirs();
+    try (OutputStream out = new FileOutputStream(manifest)) {
+      index.store(out);
+    }
+    System.out.println("[cache][regions][" + index.size() + " regions from " + packagePrefix + " in " + took + " ms]["
+        + manifest + "]");
+  }
+}
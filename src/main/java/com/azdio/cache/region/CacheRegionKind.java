@@ -0,0 +1,38 @@
+package com.azdio.cache.region;
+
+/**
+ * The kind of Hibernate / application region a cache belongs to.
+ */
+public enum CacheRegionKind {
+  ENTITY,
+  COLLECTION,
+  QUERY,
+  TIMESTAMPS,
+  IMAGE;
+
+  public static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+  public static final String DEFAULT_UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+  public static final String IMAGES_CACHE_PREFIX = "ImagesCache.";
+
+  /**
+   * Best guess for a region that is not in the {@link CacheRegionIndex}, e.g. one added at runtime: entity regions are
+   * named after the class, collection regions after the class and the field.
+   */
+  public static CacheRegionKind of(final String cacheName) {
+    if (cacheName.startsWith(IMAGES_CACHE_PREFIX)) {
+      return IMAGE;
+    }
+    if (cacheName.equals(DEFAULT_UPDATE_TIMESTAMPS_REGION)) {
+      return TIMESTAMPS;
+    }
+    final int lastDot = cacheName.lastIndexOf('.');
+    if (lastDot < 0 || cacheName.equals(DEFAULT_QUERY_RESULTS_REGION)) {
+      return QUERY;
+    }
+    return Character.isLowerCase(cacheName.charAt(lastDot + 1)) ? COLLECTION : ENTITY;
+  }
+
+  public String tag() {
+    return name().toLowerCase();
+  }
+}
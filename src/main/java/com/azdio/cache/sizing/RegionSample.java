@@ -0,0 +1,39 @@
+package com.azdio.cache.sizing;
+
+import lombok.Data;
+
+/**
+ * A sized region over the last interval, cluster-wide.
+ */
+@Data
+class RegionSample {
+
+  private final String region;
+  private final int size;
+  private final long ownedEntries;
+  /** Estimated heap cost of the owned entries. */
+  private final long ownedMemory;
+  /** Owned entries and backups. */
+  private final int copies;
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+
+  double bytesPerEntry() {
+    return ownedEntries == 0 ? 0 : (double) ownedMemory / ownedEntries;
+  }
+
+  /**
+   * Hits of the interval per byte held, how much the region gives back for its heap.
+   */
+  double hitsPerByte() {
+    return ownedMemory == 0 ? 0 : (double) hits / ownedMemory;
+  }
+
+  /**
+   * Heap a member needs for {@code entries} owned entries and their backups.
+   */
+  double memberBytes(final long entries, final int members) {
+    return bytesPerEntry() * entries * copies / members;
+  }
+}
@@ -0,0 +1,139 @@
+package com.azdio.cache.sizing;
+
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Singleton;
+
+import com.azdio.cache.HazelcastConfiguration.AdaptiveSizing;
+import com.azdio.cache.HazelcastService;
+import com.azdio.cache.reconfig.RegionChange;
+import com.azdio.cache.reconfig.RegionReconfiguration;
+import com.azdio.cache.reconfig.RegionReconfigurationService;
+import com.azdio.cache.sizing.SizingDecision.Action;
+import com.azdio.cache.stats.CacheStatsService;
+import com.azdio.cache.stats.ClusterCacheStats;
+import com.hazelcast.config.CacheSimpleConfig;
+
+import io.micronaut.scheduling.annotation.Scheduled;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resizes the regions of the configured kinds once per interval, on the oldest member only, see
+ * {@link RegionSizingPolicy}. Hits, misses and evictions are the differences of the cluster counters between two
+ * intervals, so a member that becomes the oldest waits one interval before deciding.
+ */
+@Slf4j
+@Singleton
+public class RegionSizingController {
+
+  private final HazelcastService hazelcastService;
+  private final CacheStatsService cacheStatsService;
+  private final RegionReconfigurationService regionReconfigurationService;
+  private final AdaptiveSizing adaptiveSizing;
+  private final RegionSizingPolicy policy;
+  private final Map<String, long[]> counters = new HashMap<>();
+  private final Map<String, AtomicLong> decisions = new ConcurrentHashMap<>();
+
+  public RegionSizingController(final HazelcastService hazelcastService, final CacheStatsService cacheStatsService,
+      final RegionReconfigurationService regionReconfigurationService) {
+    this.hazelcastService = hazelcastService;
+    this.cacheStatsService = cacheStatsService;
+    this.regionReconfigurationService = regionReconfigurationService;
+    this.adaptiveSizing = hazelcastService.getHazelcastConfiguration().getAdaptiveSizing();
+    this.policy = new RegionSizingPolicy(adaptiveSizing);
+  }
+
+  public boolean isSized(final String cacheName) {
+    return adaptiveSizing.isEnabled() && adaptiveSizing.getKinds().contains(hazelcastService.getRegionKind(cacheName));
+  }
+
+  /**
+   * Resizes of the region decided by this member since it started.
+   */
+  public long getDecisions(final String cacheName, final Action action) {
+    final AtomicLong count = decisions.get(cacheName + ':' + action);
+    return isNull(count) ? 0 : count.get();
+  }
+
+  @Scheduled(fixedDelay = "${hazelcast.adaptive-sizing.interval-seconds:60}s")
+  public synchronized void run() {
+    if (!adaptiveSizing.isEnabled() || isNull(hazelcastService.getHazelcastInstance())) {
+      return;
+    }
+    if (!hazelcastService.getHazelcastInstance().getCluster().getMembers().iterator().next().localMember()) {
+      counters.clear();
+      return;
+    }
+    final ClusterCacheStats stats = cacheStatsService.getStats().blockingGet();
+    if (!stats.getMissingMembers().isEmpty()) {
+      // partial counters would look like a drop in traffic
+      log.debug("[cache][sizing][skipped][missing members: {}]", stats.getMissingMembers());
+      return;
+    }
+    final List<RegionSample> samples = samples(stats);
+    final long budgetBytes = stats.getMinHeapMax() * adaptiveSizing.getHeapBudgetPercent() / 100;
+    final Optional<SizingDecision> decision = policy.decide(samples, stats.getMaxOldGenUsage(), budgetBytes, stats.getMembers());
+    if (decision.isPresent()) {
+      apply(decision.get(), stats.getMaxOldGenUsage());
+    } else {
+      log.debug("[cache][sizing][{} regions][old gen usage {}][no change]", samples.size(), stats.getMaxOldGenUsage());
+    }
+  }
+
+  /**
+   * The sized regions that were already sampled in the previous interval.
+   */
+  private List<RegionSample> samples(final ClusterCacheStats stats) {
+    final List<RegionSample> samples = new ArrayList<>();
+    final Map<String, long[]> previousCounters = new HashMap<>(counters);
+    counters.clear();
+    stats.getRegions().forEach((cacheName, region) -> {
+      final CacheSimpleConfig cacheConfig = hazelcastService.getCacheConfigs().get(cacheName);
+      if (isNull(cacheConfig) || !isSized(cacheName)) {
+        return;
+      }
+      final long[] current = {region.getHits(), region.getMisses(), region.getEvictions()};
+      counters.put(cacheName, current);
+      final long[] previous = previousCounters.get(cacheName);
+      if (isNull(previous)) {
+        return;
+      }
+      samples.add(new RegionSample(cacheName, cacheConfig.getEvictionConfig().getSize(), region.getOwnedEntries(),
+          region.getOwnedMemoryEstimate(), 1 + cacheConfig.getBackupCount() + cacheConfig.getAsyncBackupCount(),
+          delta(current, previous, 0), delta(current, previous, 1), delta(current, previous, 2)));
+    });
+    return samples;
+  }
+
+  private static long delta(final long[] current, final long[] previous, final int counter) {
+    // counters restart with a member
+    return Math.max(0, current[counter] - previous[counter]);
+  }
+
+  private void apply(final SizingDecision decision, final double oldGenUsage) {
+    log.info("[cache][{}][sizing][{} {} -> {}][{}][old gen usage {}]", decision.getRegion(), decision.getAction().tag(),
+        decision.getFrom(), decision.getTo(), decision.getReason(), String.format("%.2f", oldGenUsage));
+    final RegionChange change = new RegionChange();
+    change.setSize(decision.getTo());
+    try {
+      final RegionReconfiguration reconfiguration = regionReconfigurationService
+          .reconfigure(decision.getRegion(), change, false)
+          .blockingGet();
+      if (!reconfiguration.isApplied()) {
+        log.warn("[cache][{}][sizing][not applied][errors: {}]", decision.getRegion(), reconfiguration.getErrors());
+        return;
+      }
+      decisions.computeIfAbsent(decision.getRegion() + ':' + decision.getAction(), key -> new AtomicLong()).incrementAndGet();
+    } catch (final RuntimeException e) {
+      log.warn("[cache][{}][sizing][error: {}]", decision.getRegion(), e.getMessage());
+    }
+  }
+}
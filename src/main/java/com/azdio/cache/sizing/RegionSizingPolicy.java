@@ -0,0 +1,121 @@
+package com.azdio.cache.sizing;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.azdio.cache.HazelcastConfiguration.AdaptiveSizing;
+import com.azdio.cache.sizing.SizingDecision.Action;
+
+/**
+ * Decides at most one resize per interval.
+ * <ul>
+ * <li>Above the high old generation usage, or over the heap budget, the region with the fewest hits per byte shrinks
+ * below its entries, so its least recently used entries are evicted.</li>
+ * <li>Below the low usage, the region evicting the most grows once it has been evicting and missing for
+ * {@code hysteresisIntervals}. When that would exceed the budget, a region with less than half its hits per byte shrinks
+ * instead, and the growth waits for the next interval.</li>
+ * <li>Between the two, sizes are left as they are.</li>
+ * </ul>
+ * A resized region is left alone for {@code cooldownIntervals}, and does not count as evicting in the interval that
+ * follows.
+ */
+class RegionSizingPolicy {
+
+  private final AdaptiveSizing adaptiveSizing;
+  private final Map<String, RegionState> states = new HashMap<>();
+
+  RegionSizingPolicy(final AdaptiveSizing adaptiveSizing) {
+    this.adaptiveSizing = adaptiveSizing;
+  }
+
+  /**
+   * @param budgetBytes heap per member the regions may take
+   */
+  Optional<SizingDecision> decide(final Collection<RegionSample> samples, final double oldGenUsage, final long budgetBytes,
+      final int members) {
+    states.keySet().retainAll(samples.stream().map(RegionSample::getRegion).collect(Collectors.toSet()));
+    for (final RegionSample sample : samples) {
+      final RegionState state = states.computeIfAbsent(sample.getRegion(), region -> new RegionState());
+      // a shrink evicts during the interval that follows it, which is not thrashing
+      state.thrashing = state.cooldown == 0 && isThrashing(sample) ? state.thrashing + 1 : 0;
+      state.cooldown = Math.max(0, state.cooldown - 1);
+    }
+    final double usedBytes = samples.stream().mapToDouble(sample -> sample.memberBytes(sample.getOwnedEntries(), members)).sum();
+
+    if (oldGenUsage >= adaptiveSizing.getHighOldGenUsage() || usedBytes > budgetBytes) {
+      final String reason = oldGenUsage >= adaptiveSizing.getHighOldGenUsage()
+          ? String.format("old gen usage %.2f", oldGenUsage)
+          : String.format("%s over the budget of %s", megabytes(usedBytes), megabytes(budgetBytes));
+      return leastUsed(samples, Double.MAX_VALUE, null).map(sample -> shrink(sample, reason));
+    }
+    if (oldGenUsage >= adaptiveSizing.getLowOldGenUsage()) {
+      return Optional.empty();
+    }
+    final Optional<RegionSample> grower = samples.stream()
+        .filter(sample -> state(sample).cooldown == 0 && state(sample).thrashing >= adaptiveSizing.getHysteresisIntervals())
+        .filter(sample -> sample.getSize() < adaptiveSizing.getMaxSize())
+        .max(Comparator.comparingLong(RegionSample::getEvictions));
+    if (!grower.isPresent()) {
+      return Optional.empty();
+    }
+    final RegionSample sample = grower.get();
+    final int size = (int) Math.min(adaptiveSizing.getMaxSize(), Math.ceil(sample.getSize() * (1 + adaptiveSizing.getGrowStep())));
+    final double hitRatio = (double) sample.getHits() / Math.max(1, sample.getHits() + sample.getMisses());
+    if (usedBytes + sample.memberBytes(size - sample.getSize(), members) <= budgetBytes) {
+      return Optional.of(decided(sample, Action.GROW, size,
+          String.format("%d evictions, hit ratio %.2f", sample.getEvictions(), hitRatio)));
+    }
+    final String reason = String.format("room for %s, %d evictions, hit ratio %.2f", sample.getRegion(), sample.getEvictions(), hitRatio);
+    return leastUsed(samples, sample.hitsPerByte() / 2, sample).map(donor -> shrink(donor, reason));
+  }
+
+  private boolean isThrashing(final RegionSample sample) {
+    return sample.getMisses() > 0 && sample.getEvictions() > 0
+        && sample.getEvictions() >= sample.getSize() * adaptiveSizing.getGrowEvictionRatio();
+  }
+
+  /**
+   * The region with the fewest hits per byte under {@code maxHitsPerByte} that can shrink. The memory of a region kept
+   * in OBJECT format is not estimated, so it is never the one.
+   */
+  private Optional<RegionSample> leastUsed(final Collection<RegionSample> samples, final double maxHitsPerByte,
+      final RegionSample excluded) {
+    return samples.stream()
+        .filter(sample -> sample != excluded && state(sample).cooldown == 0)
+        .filter(sample -> sample.getOwnedMemory() > 0 && sample.getSize() > adaptiveSizing.getMinSize())
+        .filter(sample -> sample.hitsPerByte() < maxHitsPerByte)
+        .min(Comparator.comparingDouble(RegionSample::hitsPerByte));
+  }
+
+  private SizingDecision shrink(final RegionSample sample, final String reason) {
+    final long entries = Math.min(sample.getSize(), sample.getOwnedEntries());
+    final int size = (int) Math.max(adaptiveSizing.getMinSize(), entries * (1 - adaptiveSizing.getShrinkStep()));
+    return decided(sample, Action.SHRINK, size, String.format("%s, %.3g hits per KB", reason, sample.hitsPerByte() * 1024));
+  }
+
+  private SizingDecision decided(final RegionSample sample, final Action action, final int size, final String reason) {
+    final RegionState state = state(sample);
+    state.cooldown = adaptiveSizing.getCooldownIntervals() + 1;
+    state.thrashing = 0;
+    return new SizingDecision(sample.getRegion(), action, sample.getSize(), size, reason);
+  }
+
+  private RegionState state(final RegionSample sample) {
+    return states.get(sample.getRegion());
+  }
+
+  private static String megabytes(final double bytes) {
+    return String.format("%.1f MB", bytes / (1024 * 1024));
+  }
+
+  private static final class RegionState {
+    /** Consecutive intervals the region evicted and missed. */
+    private int thrashing;
+    /** Intervals left before the region may be resized again. */
+    private int cooldown;
+  }
+}
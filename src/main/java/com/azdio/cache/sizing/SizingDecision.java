@@ -0,0 +1,26 @@
+package com.azdio.cache.sizing;
+
+import lombok.Data;
+
+/**
+ * A new size for a region, and what it was decided on.
+ */
+@Data
+public class SizingDecision {
+
+  public enum Action {
+    GROW,
+    SHRINK;
+
+    public String tag() {
+      return name().toLowerCase();
+    }
+  }
+
+  private final String region;
+  private final Action action;
+  private final int from;
+  private final int to;
+  private final String reason;
+
+}
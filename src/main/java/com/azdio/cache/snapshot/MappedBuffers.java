@@ -0,0 +1,63 @@
+package com.azdio.cache.snapshot;
+
+import static java.util.Objects.isNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Unmaps the windows of the snapshot files as soon as they are done with, rather than when they are garbage collected:
+ * until then they hold address space, and the file cannot be deleted on every platform.
+ */
+@Slf4j
+final class MappedBuffers {
+
+  private static final MethodHandle UNMAP = unmapper();
+
+  private MappedBuffers() {
+  }
+
+  /**
+   * The buffer must not be used afterwards.
+   */
+  static void unmap(final MappedByteBuffer buffer) {
+    if (isNull(buffer) || isNull(UNMAP)) {
+      return;
+    }
+    try {
+      UNMAP.invokeExact((ByteBuffer) buffer);
+    } catch (final Throwable t) {
+      log.warn("[cache][snapshot][error unmapping a window: {}]", t.getMessage());
+    }
+  }
+
+  private static MethodHandle unmapper() {
+    final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try {
+      // Java 9 and later
+      final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      return lookup.unreflect(unsafeClass.getMethod("invokeCleaner", ByteBuffer.class)).bindTo(theUnsafe.get(null));
+    } catch (final NoSuchMethodException e) {
+      try {
+        // Java 8
+        final MethodHandle cleaner = lookup.unreflect(Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner"));
+        final MethodHandle clean = lookup.unreflect(Class.forName("sun.misc.Cleaner").getMethod("clean"));
+        return MethodHandles.filterReturnValue(cleaner, clean).asType(MethodType.methodType(void.class, ByteBuffer.class));
+      } catch (final ReflectiveOperationException | RuntimeException java8) {
+        log.warn("[cache][snapshot][windows unmapped when collected: {}]", java8.getMessage());
+        return null;
+      }
+    } catch (final ReflectiveOperationException | RuntimeException e) {
+      log.warn("[cache][snapshot][windows unmapped when collected: {}]", e.getMessage());
+      return null;
+    }
+  }
+}
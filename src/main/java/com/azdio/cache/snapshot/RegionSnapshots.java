@@ -0,0 +1,295 @@
+package com.azdio.cache.snapshot;
+
+import static java.util.Objects.isNull;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+
+import com.azdio.cache.HazelcastConfiguration.Snapshot;
+import com.azdio.cache.HazelcastService;
+import com.hazelcast.cache.HazelcastCacheManager;
+import com.hazelcast.cache.ICache;
+import com.hazelcast.cache.impl.ICacheRecordStore;
+import com.hazelcast.cache.impl.ICacheService;
+import com.hazelcast.cache.impl.record.CacheRecord;
+import com.hazelcast.client.impl.ClientEngine;
+import com.hazelcast.client.impl.ClientSelectors;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the entries this member owns in the regions chosen by {@link Snapshot} on shutdown, and puts them back on
+ * startup. Entries stay serialized both ways; one file per region, regions are processed in parallel.
+ * <p>
+ * Snapshots are only restored while the cluster starts cold, before the member lets any client in: the first member
+ * of a new cluster opens a restore window of {@link Snapshot#getRestoreWindowSeconds()} in a cluster map, and each
+ * member that joins within it restores its own snapshot, once per cluster. A member that joins a cluster after the
+ * window, or joins it again, as in a rolling deploy, drops its snapshot: the cluster still holds its entries through
+ * their backups, and may have removed, invalidated or evicted any of them since the snapshot, which a restore would
+ * bring back. Entries are put if absent, so the ones written since the cluster started stay. Expired entries are
+ * dropped, the others keep their remaining time to live. A snapshot is deleted once loaded or skipped.
+ */
+@Slf4j
+public class RegionSnapshots {
+
+  private static final String EXTENSION = ".snapshot";
+  /**
+   * Per cluster, the end of its restore window and the members that joined it, by instance name.
+   */
+  private static final String RESTORES = "azdio-cache-snapshot-restores";
+  private static final String RESTORE_WINDOW_END = "restore-window-end";
+  private static final long ETERNAL = Long.MAX_VALUE;
+
+  private final HazelcastService hazelcastService;
+  private final Snapshot snapshot;
+
+  public RegionSnapshots(final HazelcastService hazelcastService) {
+    this.hazelcastService = hazelcastService;
+    this.snapshot = hazelcastService.getHazelcastConfiguration().getSnapshot();
+  }
+
+  /**
+   * Snapshots the chosen regions, must run before the member leaves the cluster.
+   */
+  public void write() {
+    final List<String> regions = hazelcastService.getCacheNames().stream()
+        .filter(this::isSelected)
+        .sorted()
+        .collect(Collectors.toList());
+    if (regions.isEmpty()) {
+      return;
+    }
+    final Path directory = directory();
+    try {
+      Files.createDirectories(directory);
+    } catch (final IOException e) {
+      log.error("[cache][snapshot][error creating {}: {}]", directory, e.getMessage());
+      return;
+    }
+    final NodeEngineImpl nodeEngine = hazelcastService.getNodeEngine();
+    final ICacheService cacheService = nodeEngine.getService(ICacheService.SERVICE_NAME);
+    final List<Integer> partitions = nodeEngine.getPartitionService().getMemberPartitions(nodeEngine.getThisAddress());
+    final long now = System.currentTimeMillis();
+    run(regions, region -> write(region, directory, cacheService, nodeEngine.getSerializationService(), partitions, now));
+  }
+
+  /**
+   * Refuses the clients until {@link #restore()} is over, to be called as soon as the member has started.
+   */
+  public void holdClients() {
+    clientEngine().applySelector(ClientSelectors.none());
+  }
+
+  /**
+   * Loads the snapshots of the chosen regions left by the previous run of this member while the cluster starts cold,
+   * deletes them otherwise, then lets the clients in.
+   */
+  public void restore() {
+    try {
+      restoreSnapshots();
+    } finally {
+      clientEngine().applySelector(ClientSelectors.any());
+    }
+  }
+
+  private void restoreSnapshots() {
+    final boolean cold = joinsColdCluster();
+    final Path directory = directory();
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    final List<String> regions = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+      for (final Path file : files) {
+        final String fileName = file.getFileName().toString();
+        final String region = fileName.substring(0, fileName.length() - EXTENSION.length());
+        if (hazelcastService.getCacheNames().contains(region) && isSelected(region)) {
+          regions.add(region);
+        } else {
+          log.info("[cache][{}][snapshot][not restored: region is not configured for snapshots]", region);
+        }
+      }
+    } catch (final IOException e) {
+      log.error("[cache][snapshot][error listing {}: {}]", directory, e.getMessage());
+      return;
+    }
+    if (!cold) {
+      log.info("[cache][snapshot][not restored: the cluster was already running][members: {}]",
+          hazelcastService.getHazelcastInstance().getCluster().getMembers().size());
+      run(regions, region -> Files.delete(directory.resolve(region + EXTENSION)));
+      return;
+    }
+    run(regions, region -> restore(region, directory.resolve(region + EXTENSION)));
+  }
+
+  /**
+   * Whether this member joins the cluster for the first time within its restore window, opening the window when the
+   * cluster is new.
+   */
+  private boolean joinsColdCluster() {
+    final HazelcastInstance hazelcastInstance = hazelcastService.getHazelcastInstance();
+    final IMap<String, Long> restores = hazelcastInstance.getMap(RESTORES);
+    final long now = System.currentTimeMillis();
+    final long newWindowEnd = now + TimeUnit.SECONDS.toMillis(snapshot.getRestoreWindowSeconds());
+    final Long openedWindowEnd = restores.putIfAbsent(RESTORE_WINDOW_END, newWindowEnd);
+    final long windowEnd = isNull(openedWindowEnd) ? newWindowEnd : openedWindowEnd;
+    final boolean firstJoin = isNull(restores.putIfAbsent(hazelcastInstance.getName(), now));
+    return firstJoin && now < windowEnd;
+  }
+
+  private void write(final String region, final Path directory, final ICacheService cacheService,
+      final SerializationService serializationService, final List<Integer> partitions, final long now) throws IOException {
+    final long start = System.nanoTime();
+    final String prefixedName = HazelcastCacheManager.CACHE_MANAGER_PREFIX + region;
+    final Path temporary = directory.resolve(region + EXTENSION + ".tmp");
+    final SnapshotWriter writer = new SnapshotWriter(temporary, snapshot.getSegmentBytes(), now);
+    try {
+      for (final Integer partitionId : partitions) {
+        final ICacheRecordStore recordStore = cacheService.getRecordStore(prefixedName, partitionId);
+        if (isNull(recordStore)) {
+          continue;
+        }
+        for (final Map.Entry<Data, ?> entry : recordStore.getReadOnlyRecords().entrySet()) {
+          final CacheRecord<?, ?> record = (CacheRecord<?, ?>) entry.getValue();
+          final Object value = record.getValue();
+          if (isNull(value) || record.isExpiredAt(now)) {
+            continue;
+          }
+          final Data data = value instanceof Data ? (Data) value : serializationService.toData(value);
+          writer.write(entry.getKey().toByteArray(), data.toByteArray(), record.getExpirationTime());
+        }
+      }
+    } finally {
+      writer.close();
+    }
+    Files.move(temporary, directory.resolve(region + EXTENSION), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    log.info("[cache][{}][snapshot][written: {} entries][{} bytes][{} ms]", region, writer.getEntries(), writer.getBytes(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  private void restore(final String region, final Path file) throws IOException, InterruptedException {
+    final long start = System.nanoTime();
+    final ICache<Object, Object> cache = hazelcastService.getHazelcastInstance().getCacheManager().getCache(region);
+    final AtomicLong restored = new AtomicLong();
+    final AtomicLong failed = new AtomicLong();
+    long expired = 0;
+    try (SnapshotReader reader = new SnapshotReader(file, snapshot.getSegmentBytes())) {
+      final long age = System.currentTimeMillis() - reader.getCreatedAt();
+      if (age > TimeUnit.SECONDS.toMillis(snapshot.getMaxAgeSeconds())) {
+        log.info("[cache][{}][snapshot][not restored: {} s old]", region, TimeUnit.MILLISECONDS.toSeconds(age));
+      } else {
+        final Semaphore pending = new Semaphore(snapshot.getMaxPendingPuts());
+        final ExecutionCallback<Boolean> callback = new ExecutionCallback<Boolean>() {
+
+          @Override
+          public void onResponse(final Boolean put) {
+            if (Boolean.TRUE.equals(put)) {
+              restored.incrementAndGet();
+            }
+            pending.release();
+          }
+
+          @Override
+          public void onFailure(final Throwable t) {
+            failed.incrementAndGet();
+            pending.release();
+          }
+        };
+        while (reader.next()) {
+          final long now = System.currentTimeMillis();
+          final long expirationTime = reader.getExpirationTime();
+          if (expirationTime > 0 && expirationTime <= now) {
+            expired++;
+            continue;
+          }
+          final Data key = new HeapData(reader.getKey());
+          final Data value = new HeapData(reader.getValue());
+          pending.acquire();
+          if (expirationTime <= 0 || expirationTime == ETERNAL) {
+            cache.putIfAbsentAsync(key, value).andThen(callback);
+          } else {
+            cache.putIfAbsentAsync(key, value, new CreatedExpiryPolicy(new Duration(TimeUnit.MILLISECONDS, expirationTime - now)))
+                .andThen(callback);
+          }
+        }
+        pending.acquire(snapshot.getMaxPendingPuts());
+        log.info("[cache][{}][snapshot][restored: {} entries][expired: {}][failed: {}][{} ms]", region, restored.get(), expired,
+            failed.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      }
+    }
+    Files.delete(file);
+  }
+
+  private void run(final List<String> regions, final RegionTask task) {
+    if (regions.isEmpty()) {
+      return;
+    }
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(snapshot.getParallelism(), regions.size())));
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      regions.forEach(region -> futures.add(executor.submit(() -> {
+        try {
+          task.run(region);
+        } catch (final IOException | RuntimeException e) {
+          log.error("[cache][{}][snapshot][error: {}]", region, e.getMessage());
+        }
+        return null;
+      })));
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final ExecutionException e) {
+      log.error("[cache][snapshot][error: {}]", e.getCause().getMessage());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private ClientEngine clientEngine() {
+    return hazelcastService.getNodeEngine().getNode().getClientEngine();
+  }
+
+  private Path directory() {
+    return Paths.get(snapshot.getDirectory(), hazelcastService.getHazelcastInstance().getName());
+  }
+
+  private boolean isSelected(final String region) {
+    return snapshot.getRegions().stream().anyMatch(pattern -> region.matches(Arrays.stream(pattern.split("\\*", -1))
+        .map(Pattern::quote)
+        .collect(Collectors.joining(".*"))));
+  }
+
+  @FunctionalInterface
+  private interface RegionTask {
+    void run(String region) throws IOException, InterruptedException;
+  }
+}
@@ -0,0 +1,104 @@
+package com.azdio.cache.snapshot;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads back the entries of a {@link SnapshotWriter} file one at a time, through a read-only window of
+ * {@code segmentBytes} moved along the file.
+ */
+final class SnapshotReader implements Closeable {
+
+  private final FileChannel channel;
+  private final int segmentBytes;
+  private final long size;
+  private final long createdAt;
+  private MappedByteBuffer segment;
+  private long segmentStart;
+  private byte[] key;
+  private byte[] value;
+  private long expirationTime;
+
+  SnapshotReader(final Path file, final int segmentBytes) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.segmentBytes = segmentBytes;
+    this.size = channel.size();
+    require(Integer.BYTES + Long.BYTES);
+    if (segment.getInt() != SnapshotWriter.MAGIC) {
+      close();
+      throw new IOException(file + " is not a snapshot");
+    }
+    createdAt = segment.getLong();
+  }
+
+  long getCreatedAt() {
+    return createdAt;
+  }
+
+  /**
+   * @return {@code false} after the last entry
+   */
+  boolean next() throws IOException {
+    require(Integer.BYTES);
+    final int keyLength = segment.getInt();
+    if (keyLength == SnapshotWriter.END) {
+      return false;
+    }
+    key = bytes(keyLength);
+    require(Integer.BYTES);
+    value = bytes(segment.getInt());
+    require(Long.BYTES);
+    expirationTime = segment.getLong();
+    return true;
+  }
+
+  byte[] getKey() {
+    return key;
+  }
+
+  byte[] getValue() {
+    return value;
+  }
+
+  long getExpirationTime() {
+    return expirationTime;
+  }
+
+  @Override
+  public void close() throws IOException {
+    MappedBuffers.unmap(segment);
+    segment = null;
+    channel.close();
+  }
+
+  private byte[] bytes(final int length) throws IOException {
+    require(length);
+    final byte[] bytes = new byte[length];
+    segment.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Maps the next window at the current position when fewer than {@code bytes} are left in the current one.
+   */
+  private void require(final int bytes) throws IOException {
+    if (segment != null && segment.remaining() >= bytes) {
+      return;
+    }
+    if (segment != null) {
+      segmentStart += segment.position();
+      MappedBuffers.unmap(segment);
+      segment = null;
+    }
+    final long length = Math.min(Math.max(segmentBytes, bytes), size - segmentStart);
+    if (length < bytes) {
+      throw new EOFException("Snapshot truncated at " + segmentStart);
+    }
+    segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, length);
+  }
+}
@@ -0,0 +1,85 @@
+package com.azdio.cache.snapshot;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Appends entries to a snapshot file through a window of {@code segmentBytes} mapped at the end of the file, so only
+ * the entry being written is ever on heap.
+ * <p>
+ * Layout: {@code magic, created at}, then per entry {@code key length, key, value length, value, expiration time}, and
+ * a key length of {@code -1} after the last entry. Keys and values are the serialized {@code Data} of the record store.
+ */
+final class SnapshotWriter implements Closeable {
+
+  static final int MAGIC = 0x415a5331;
+  static final int END = -1;
+
+  private final FileChannel channel;
+  private final int segmentBytes;
+  private MappedByteBuffer segment;
+  private long segmentStart;
+  private long entries;
+
+  SnapshotWriter(final Path file, final int segmentBytes, final long createdAt) throws IOException {
+    this.channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+    this.segmentBytes = segmentBytes;
+    reserve(Integer.BYTES + Long.BYTES);
+    segment.putInt(MAGIC).putLong(createdAt);
+  }
+
+  void write(final byte[] key, final byte[] value, final long expirationTime) throws IOException {
+    reserve(Integer.BYTES + key.length + Integer.BYTES + value.length + Long.BYTES);
+    segment.putInt(key.length).put(key).putInt(value.length).put(value).putLong(expirationTime);
+    entries++;
+  }
+
+  long getEntries() {
+    return entries;
+  }
+
+  long getBytes() {
+    return segmentStart + (segment == null ? 0 : segment.position());
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      reserve(Integer.BYTES);
+      segment.putInt(END);
+      segment.force();
+      segmentStart += segment.position();
+      MappedBuffers.unmap(segment);
+      segment = null;
+      channel.truncate(segmentStart);
+    } finally {
+      MappedBuffers.unmap(segment);
+      segment = null;
+      channel.close();
+    }
+  }
+
+  /**
+   * Maps a new window at the current position when the current one cannot hold {@code bytes} more.
+   */
+  private void reserve(final int bytes) throws IOException {
+    if (segment != null && segment.remaining() >= bytes) {
+      return;
+    }
+    if (segment != null) {
+      segment.force();
+      segmentStart += segment.position();
+      MappedBuffers.unmap(segment);
+      segment = null;
+    }
+    segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentStart, Math.max(segmentBytes, bytes));
+  }
+}
@@ -0,0 +1,129 @@
+package com.azdio.cache.stats;
+
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Singleton;
+
+import com.azdio.cache.HazelcastConfiguration.Stats;
+import com.azdio.cache.HazelcastService;
+import com.azdio.cache.stats.ClusterCacheStats.RegionStats;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.MultiExecutionCallback;
+
+import io.reactivex.Single;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Footprint of every region across the cluster, collected by running {@link RegionStatisticsTask} on all members at
+ * once. The merged result is kept for {@code ttlMillis}; callers arriving during a collection share it.
+ */
+@Slf4j
+@Singleton
+public class CacheStatsService {
+
+  static final String EXECUTOR = "azdio-cache-stats";
+
+  private final HazelcastService hazelcastService;
+  private final Stats stats;
+  private volatile long expiresAt;
+  private volatile Single<ClusterCacheStats> cached;
+
+  public CacheStatsService(final HazelcastService hazelcastService) {
+    this.hazelcastService = hazelcastService;
+    this.stats = hazelcastService.getHazelcastConfiguration().getStats();
+  }
+
+  public Single<ClusterCacheStats> getStats() {
+    if (isNull(cached) || System.currentTimeMillis() >= expiresAt) {
+      synchronized (this) {
+        if (isNull(cached) || System.currentTimeMillis() >= expiresAt) {
+          cached = collect().cache();
+          expiresAt = System.currentTimeMillis() + stats.getTtlMillis();
+        }
+      }
+    }
+    return cached;
+  }
+
+  private Single<ClusterCacheStats> collect() {
+    final long start = System.nanoTime();
+    final Set<Member> members = hazelcastService.getHazelcastInstance().getCluster().getMembers();
+    final Map<Member, MemberCacheStats> responses = new ConcurrentHashMap<>();
+    return Single.<Boolean>create(emitter -> hazelcastService.getHazelcastInstance().getExecutorService(EXECUTOR)
+        .submitToMembers(new RegionStatisticsTask(stats.getSamplePerPartition()), members, new MultiExecutionCallback() {
+
+          @Override
+          public void onResponse(final Member member, final Object value) {
+            if (value instanceof MemberCacheStats) {
+              responses.put(member, (MemberCacheStats) value);
+            } else {
+              log.warn("[cache][stats][{}][error: {}]", member.getAddress(), value);
+            }
+          }
+
+          @Override
+          public void onComplete(final Map<Member, Object> values) {
+            emitter.onSuccess(true);
+          }
+        }))
+        .timeout(stats.getTimeoutMillis(), TimeUnit.MILLISECONDS, Single.just(false))
+        .map(complete -> merge(members, new HashMap<>(responses), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+  }
+
+  private ClusterCacheStats merge(final Set<Member> members, final Map<Member, MemberCacheStats> responses,
+      final long collectMillis) {
+    final List<String> missing = new ArrayList<>();
+    final Map<String, RegionStats> regions = new TreeMap<>();
+    long minHeapMax = Long.MAX_VALUE;
+    double maxOldGenUsage = 0;
+    for (final Member member : members) {
+      final MemberCacheStats memberStats = responses.get(member);
+      if (isNull(memberStats)) {
+        missing.add(member.getAddress().toString());
+        continue;
+      }
+      minHeapMax = Math.min(minHeapMax, memberStats.getHeapMax());
+      maxOldGenUsage = Math.max(maxOldGenUsage, memberStats.getOldGenUsage());
+      for (final RegionFootprint footprint : memberStats.getRegions()) {
+        final RegionStats region = regions.computeIfAbsent(footprint.getRegion(), name -> {
+          final RegionStats regionStats = new RegionStats();
+          regionStats.setMembers(new TreeMap<>());
+          return regionStats;
+        });
+        final long ownedEntries = region.getOwnedEntries() + footprint.getOwnedEntries();
+        if (ownedEntries > 0) {
+          region.setAverageKeyBytes((region.getAverageKeyBytes() * region.getOwnedEntries()
+              + footprint.getAverageKeyBytes() * footprint.getOwnedEntries()) / ownedEntries);
+        }
+        region.setOwnedEntries(ownedEntries);
+        region.setBackupEntries(region.getBackupEntries() + footprint.getBackupEntries());
+        region.setOwnedMemoryEstimate(region.getOwnedMemoryEstimate() + footprint.getOwnedMemoryEstimate());
+        region.setHits(region.getHits() + footprint.getHits());
+        region.setMisses(region.getMisses() + footprint.getMisses());
+        region.setPuts(region.getPuts() + footprint.getPuts());
+        region.setRemovals(region.getRemovals() + footprint.getRemovals());
+        region.setEvictions(region.getEvictions() + footprint.getEvictions());
+        region.setExpiries(region.getExpiries() + footprint.getExpiries());
+        region.getMembers().put(memberStats.getMember(), footprint);
+      }
+    }
+    regions.values().forEach(region -> {
+      final long gets = region.getHits() + region.getMisses();
+      region.setHitRatio(gets == 0 ? 0 : (double) region.getHits() / gets);
+    });
+    if (!missing.isEmpty()) {
+      log.warn("[cache][stats][no answer within {} ms from {}]", stats.getTimeoutMillis(), missing);
+    }
+    return new ClusterCacheStats(System.currentTimeMillis(), collectMillis, members.size(), missing,
+        minHeapMax == Long.MAX_VALUE ? 0 : minHeapMax, maxOldGenUsage, regions);
+  }
+}
@@ -0,0 +1,44 @@
+package com.azdio.cache.stats;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * The footprint of every region summed over the members that answered in time.
+ */
+@Data
+public class ClusterCacheStats {
+
+  private final long collectedAt;
+  private final long collectMillis;
+  private final int members;
+  /** Members that did not answer within the timeout, their share is missing from the totals. */
+  private final List<String> missingMembers;
+  /** Smallest heap of the members that answered. */
+  private final long minHeapMax;
+  /** Highest old generation usage of the members that answered, see {@link MemberCacheStats#getOldGenUsage()}. */
+  private final double maxOldGenUsage;
+  private final Map<String, RegionStats> regions;
+
+  @Data
+  public static class RegionStats {
+
+    private long ownedEntries;
+    private long backupEntries;
+    private long ownedMemoryEstimate;
+    /** Serialized size of a key, the member averages weighted by their owned entries. */
+    private long averageKeyBytes;
+    private long hits;
+    private long misses;
+    /** Hits divided by gets, 0 before the first get. */
+    private double hitRatio;
+    private long puts;
+    private long removals;
+    private long evictions;
+    private long expiries;
+    private Map<String, RegionFootprint> members;
+
+  }
+}
@@ -0,0 +1,23 @@
+package com.azdio.cache.stats;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * The footprint of every region on one member, as returned by {@link RegionStatisticsTask}.
+ */
+@Data
+public class MemberCacheStats implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String member;
+  private final long collectMillis;
+  private final long heapMax;
+  /** Old generation used after the last collection, as a share of its maximum. */
+  private final double oldGenUsage;
+  private final List<RegionFootprint> regions;
+
+}
@@ -0,0 +1,29 @@
+package com.azdio.cache.stats;
+
+import java.io.Serializable;
+
+import lombok.Data;
+
+/**
+ * What one member holds of a region, and its statistics since the member started.
+ */
+@Data
+public class RegionFootprint implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private String region;
+  private long ownedEntries;
+  private long backupEntries;
+  /** Heap cost of the owned keys and values, extrapolated from a sample of each partition. */
+  private long ownedMemoryEstimate;
+  /** Serialized size of the owned keys, averaged over the same sample. */
+  private long averageKeyBytes;
+  private long hits;
+  private long misses;
+  private long puts;
+  private long removals;
+  private long evictions;
+  private long expiries;
+
+}
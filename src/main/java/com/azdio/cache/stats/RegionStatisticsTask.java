@@ -0,0 +1,142 @@
+package com.azdio.cache.stats;
+
+import static java.util.Objects.isNull;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import com.hazelcast.cache.CacheStatistics;
+import com.hazelcast.cache.HazelcastCacheManager;
+import com.hazelcast.cache.impl.CacheStatisticsImpl;
+import com.hazelcast.cache.impl.ICacheRecordStore;
+import com.hazelcast.cache.impl.ICacheService;
+import com.hazelcast.cache.impl.record.CacheRecord;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastInstanceAware;
+import com.hazelcast.instance.HazelcastInstanceImpl;
+import com.hazelcast.instance.HazelcastInstanceProxy;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.partition.IPartition;
+
+/**
+ * Collects the {@link RegionFootprint} of every configured region on the member it runs on.
+ * <p>
+ * Entry counts are the sizes of the partition record stores, and statistics come from the counters Hazelcast keeps, so
+ * nothing is scanned: only the memory cost is extrapolated from the first {@code samplePerPartition} records of each
+ * owned partition.
+ */
+public class RegionStatisticsTask implements Callable<MemberCacheStats>, HazelcastInstanceAware, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int samplePerPartition;
+  private transient HazelcastInstance hazelcastInstance;
+
+  public RegionStatisticsTask(final int samplePerPartition) {
+    this.samplePerPartition = samplePerPartition;
+  }
+
+  @Override
+  public void setHazelcastInstance(final HazelcastInstance hazelcastInstance) {
+    this.hazelcastInstance = hazelcastInstance;
+  }
+
+  @Override
+  public MemberCacheStats call() {
+    final long start = System.nanoTime();
+    final NodeEngineImpl nodeEngine = hazelcastInstance instanceof HazelcastInstanceProxy
+        ? ((HazelcastInstanceProxy) hazelcastInstance).getOriginal().node.getNodeEngine()
+        : ((HazelcastInstanceImpl) hazelcastInstance).node.getNodeEngine();
+    final ICacheService cacheService = nodeEngine.getService(ICacheService.SERVICE_NAME);
+    final Address thisAddress = nodeEngine.getThisAddress();
+    final int partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+    final List<RegionFootprint> regions = new ArrayList<>();
+    for (final String cacheName : hazelcastInstance.getConfig().getCacheConfigs().keySet()) {
+      final String prefixedName = HazelcastCacheManager.CACHE_MANAGER_PREFIX + cacheName;
+      final RegionFootprint footprint = new RegionFootprint();
+      footprint.setRegion(cacheName);
+      final long[] keySample = new long[2];
+      for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+        final ICacheRecordStore recordStore = cacheService.getRecordStore(prefixedName, partitionId);
+        if (isNull(recordStore) || recordStore.size() == 0) {
+          continue;
+        }
+        final IPartition partition = nodeEngine.getPartitionService().getPartition(partitionId);
+        if (partition.isLocal()) {
+          footprint.setOwnedEntries(footprint.getOwnedEntries() + recordStore.size());
+          footprint.setOwnedMemoryEstimate(footprint.getOwnedMemoryEstimate() + memoryEstimate(recordStore, samplePerPartition, keySample));
+        } else if (partition.isOwnerOrBackup(thisAddress)) {
+          footprint.setBackupEntries(footprint.getBackupEntries() + recordStore.size());
+        }
+      }
+      footprint.setAverageKeyBytes(keySample[1] == 0 ? 0 : keySample[0] / keySample[1]);
+      final CacheStatistics statistics = cacheService.getStatistics(prefixedName);
+      if (!isNull(statistics)) {
+        footprint.setHits(statistics.getCacheHits());
+        footprint.setMisses(statistics.getCacheMisses());
+        footprint.setPuts(statistics.getCachePuts());
+        footprint.setRemovals(statistics.getCacheRemovals());
+        footprint.setEvictions(statistics.getCacheEvictions());
+        if (statistics instanceof CacheStatisticsImpl) {
+          footprint.setExpiries(((CacheStatisticsImpl) statistics).getCacheExpiries());
+        }
+      }
+      regions.add(footprint);
+    }
+    return new MemberCacheStats(thisAddress.toString(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+        Runtime.getRuntime().maxMemory(), oldGenUsage(), regions);
+  }
+
+  /**
+   * Usage of the tenured pool after its last collection, which unlike the current usage does not count the garbage
+   * waiting for the next one. The whole heap when the collector has no such pool.
+   */
+  private static double oldGenUsage() {
+    for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      final MemoryUsage usage = pool.getCollectionUsage();
+      if (pool.getType() == MemoryType.HEAP && (pool.getName().contains("Old Gen") || pool.getName().contains("Tenured"))
+          && !isNull(usage) && usage.getMax() > 0) {
+        return (double) usage.getUsed() / usage.getMax();
+      }
+    }
+    final Runtime runtime = Runtime.getRuntime();
+    return (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+  }
+
+  /**
+   * Heap cost of the serialized keys and values of a record store, extrapolated from its first {@code samplePerPartition}
+   * records.
+   *
+   * @param keySample serialized bytes and count of the sampled keys, added to
+   */
+  public static long memoryEstimate(final ICacheRecordStore recordStore, final int samplePerPartition,
+      final long[] keySample) {
+    final int size = recordStore.size();
+    long cost = 0;
+    int sampled = 0;
+    final Iterator<? extends Map.Entry<Data, ?>> records = recordStore.getReadOnlyRecords().entrySet().iterator();
+    while (sampled < samplePerPartition && records.hasNext()) {
+      final Map.Entry<Data, ?> record = records.next();
+      cost += record.getKey().getHeapCost();
+      keySample[0] += record.getKey().totalSize();
+      keySample[1]++;
+      final Object value = ((CacheRecord<?, ?>) record.getValue()).getValue();
+      if (value instanceof Data) {
+        cost += ((Data) value).getHeapCost();
+      }
+      sampled++;
+    }
+    return sampled == 0 ? 0 : cost * size / sampled;
+  }
+}
@@ -0,0 +1,57 @@
+package com.azdio.mdw.hazelcast.expiry;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.configuration.Factory;
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.ExpiryPolicy;
+
+import com.hazelcast.config.CacheSimpleConfig.ExpiryPolicyFactoryConfig.TimedExpiryPolicyFactoryConfig.ExpiryPolicyType;
+
+import lombok.Data;
+
+/**
+ * Expiry of the given type whose durations are drawn between {@code (100 - jitterPercent)%} of {@code durationMillis}
+ * and {@code durationMillis}, each time the type restarts it, so entries written together expire over a window rather
+ * than at once. Entries never live longer than {@code durationMillis}.
+ * <p>
+ * The factory travels with the region configuration, so clients need this class too.
+ */
+@Data
+public class JitteredExpiryPolicyFactory implements Factory<ExpiryPolicy> {
+
+  private static final long serialVersionUID = 1L;
+
+  private final ExpiryPolicyType type;
+  private final long durationMillis;
+  private final int jitterPercent;
+
+  @Override
+  public ExpiryPolicy create() {
+    return new JitteredExpiryPolicy();
+  }
+
+  private class JitteredExpiryPolicy implements ExpiryPolicy {
+
+    @Override
+    public Duration getExpiryForCreation() {
+      return jittered();
+    }
+
+    @Override
+    public Duration getExpiryForAccess() {
+      return type == ExpiryPolicyType.ACCESSED || type == ExpiryPolicyType.TOUCHED ? jittered() : null;
+    }
+
+    @Override
+    public Duration getExpiryForUpdate() {
+      return type == ExpiryPolicyType.MODIFIED || type == ExpiryPolicyType.TOUCHED ? jittered() : null;
+    }
+
+    private Duration jittered() {
+      final double jitter = jitterPercent / 100.0 * ThreadLocalRandom.current().nextDouble();
+      return new Duration(TimeUnit.MILLISECONDS, Math.max(1, (long) (durationMillis * (1 - jitter))));
+    }
+  }
+}
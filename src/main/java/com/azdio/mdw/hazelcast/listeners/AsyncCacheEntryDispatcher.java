@@ -0,0 +1,205 @@
+package com.azdio.mdw.hazelcast.listeners;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryExpiredListener;
+import javax.cache.event.CacheEntryListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+import javax.cache.event.EventType;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded queue and worker thread in front of a single {@link CacheEntryListener}.
+ * <p>
+ * Events are delivered in batches of at most {@code batchSize} events of the same type. A partial batch is delivered
+ * once {@code flushIntervalMillis} has elapsed since its first event was taken from the queue.
+ */
+@Slf4j
+public class AsyncCacheEntryDispatcher {
+
+  @Getter
+  private final String name;
+  private final CacheEntryListener<Object, Object> listener;
+  private final BlockingQueue<CacheEntryEvent<? extends Object, ? extends Object>> queue;
+  private final CacheEntryDispatchConfig.Overflow overflow;
+  private final int batchSize;
+  private final long flushIntervalNanos;
+  private final Thread worker;
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong dispatched = new AtomicLong();
+  private volatile boolean running = true;
+
+  public AsyncCacheEntryDispatcher(final CacheEntryListener<Object, Object> listener, final CacheEntryDispatchConfig config) {
+    this.name = listener.getClass().getSimpleName();
+    this.listener = listener;
+    this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+    this.overflow = config.getOverflow();
+    this.batchSize = Math.max(1, config.getBatchSize());
+    this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMillis());
+    this.worker = new Thread(this::run, "cache-listener-" + name);
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  /**
+   * Queues the events, or counts them as dropped when the queue is full in {@code DROP} mode, when the calling thread is
+   * interrupted while waiting in {@code BLOCK} mode, or once shut down.
+   */
+  public void dispatch(final List<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+    boolean interrupted = false;
+    for (final CacheEntryEvent<? extends Object, ? extends Object> event : events) {
+      if (!running) {
+        dropped.incrementAndGet();
+      } else if (overflow == CacheEntryDispatchConfig.Overflow.BLOCK && !interrupted) {
+        try {
+          put(event);
+        } catch (final InterruptedException e) {
+          // the rest of the batch still goes in if there is room, the interrupt is restored below
+          interrupted = true;
+          if (!queue.offer(event)) {
+            dropped.incrementAndGet();
+          }
+        }
+      } else if (!queue.offer(event)) {
+        dropped.incrementAndGet();
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Waits for room in the queue, but not past a shutdown, after which nothing drains it.
+   */
+  private void put(final CacheEntryEvent<? extends Object, ? extends Object> event) throws InterruptedException {
+    while (!queue.offer(event, 100, TimeUnit.MILLISECONDS)) {
+      if (!running) {
+        dropped.incrementAndGet();
+        return;
+      }
+    }
+  }
+
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  public long getDropped() {
+    return dropped.get();
+  }
+
+  public long getDispatched() {
+    return dispatched.get();
+  }
+
+  /**
+   * Stops accepting new work and delivers what is already queued. The worker is only interrupted if it has not drained
+   * the queue within 5 s, the events still queued are then dropped.
+   */
+  public void shutdown() {
+    running = false;
+    try {
+      worker.join(TimeUnit.SECONDS.toMillis(5));
+      if (worker.isAlive()) {
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(1));
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void run() {
+    final List<CacheEntryEvent<? extends Object, ? extends Object>> buffer = new ArrayList<>(batchSize);
+    boolean interrupted = false;
+    while (!interrupted && (running || !queue.isEmpty())) {
+      try {
+        final CacheEntryEvent<? extends Object, ? extends Object> first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        buffer.add(first);
+        fill(buffer);
+      } catch (final InterruptedException e) {
+        interrupted = true;
+      }
+      deliver(buffer);
+      buffer.clear();
+    }
+    if (!queue.isEmpty()) {
+      final int remaining = queue.size();
+      queue.clear();
+      dropped.addAndGet(remaining);
+      log.warn("[cache][listener: {}][stopped][dropped: {}]", name, remaining);
+    }
+  }
+
+  private void fill(final List<CacheEntryEvent<? extends Object, ? extends Object>> buffer) throws InterruptedException {
+    final long deadline = System.nanoTime() + flushIntervalNanos;
+    while (buffer.size() < batchSize) {
+      if (queue.drainTo(buffer, batchSize - buffer.size()) > 0) {
+        continue;
+      }
+      final long remaining = deadline - System.nanoTime();
+      // nothing more is coming once shut down
+      if (remaining <= 0 || !running) {
+        return;
+      }
+      final CacheEntryEvent<? extends Object, ? extends Object> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        return;
+      }
+      buffer.add(next);
+    }
+  }
+
+  private void deliver(final List<CacheEntryEvent<? extends Object, ? extends Object>> buffer) {
+    int from = 0;
+    while (from < buffer.size()) {
+      final EventType eventType = buffer.get(from).getEventType();
+      int to = from + 1;
+      while (to < buffer.size() && buffer.get(to).getEventType() == eventType) {
+        to++;
+      }
+      deliver(eventType, new ArrayList<>(buffer.subList(from, to)));
+      from = to;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void deliver(final EventType eventType, final List<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+    try {
+      switch (eventType) {
+      case CREATED:
+        ((CacheEntryCreatedListener<Object, Object>) listener).onCreated(events);
+        break;
+      case UPDATED:
+        ((CacheEntryUpdatedListener<Object, Object>) listener).onUpdated(events);
+        break;
+      case REMOVED:
+        ((CacheEntryRemovedListener<Object, Object>) listener).onRemoved(events);
+        break;
+      case EXPIRED:
+        ((CacheEntryExpiredListener<Object, Object>) listener).onExpired(events);
+        break;
+      default:
+        break;
+      }
+      dispatched.addAndGet(events.size());
+    } catch (final Exception e) {
+      log.error("[cache][listener: {}][error: {}]", name, e.getMessage());
+      log.error(e.getMessage(), e);
+    }
+  }
+}
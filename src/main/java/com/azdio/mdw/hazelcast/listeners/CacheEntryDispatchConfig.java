@@ -0,0 +1,31 @@
+package com.azdio.mdw.hazelcast.listeners;
+
+import lombok.Data;
+
+/**
+ * How {@link CompositeCacheEntryListener} hands event batches to the registered listeners.
+ */
+@Data
+public class CacheEntryDispatchConfig {
+
+  public enum Mode {
+    /** Listeners are called one after another on the Hazelcast event thread. */
+    SYNC,
+    /** Every listener gets its own bounded queue drained by a dedicated thread. */
+    ASYNC
+  }
+
+  public enum Overflow {
+    /** Events that do not fit in a full queue are dropped and counted. */
+    DROP,
+    /** The Hazelcast event thread waits until the queue has room. */
+    BLOCK
+  }
+
+  private Mode mode = Mode.SYNC;
+  private int queueCapacity = 10000;
+  private int batchSize = 100;
+  private long flushIntervalMillis = 50;
+  private Overflow overflow = Overflow.DROP;
+
+}
@@ -0,0 +1,46 @@
+package com.azdio.mdw.hazelcast.listeners;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exports queue depth, dropped and dispatched event counts of every {@link AsyncCacheEntryDispatcher}, including the
+ * ones created after the registry was bound.
+ */
+@Component
+public class CacheEntryDispatchMetrics implements MeterBinder {
+
+  private static final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    registries.add(registry);
+    CacheEntryDispatchers.getDispatchers().forEach(dispatcher -> bindTo(registry, dispatcher));
+  }
+
+  static void bind(final AsyncCacheEntryDispatcher dispatcher) {
+    registries.forEach(registry -> bindTo(registry, dispatcher));
+  }
+
+  private static void bindTo(final MeterRegistry registry, final AsyncCacheEntryDispatcher dispatcher) {
+    Gauge.builder("cache.listener.queue.depth", dispatcher, AsyncCacheEntryDispatcher::getQueueDepth)
+        .tag("listener", dispatcher.getName())
+        .description("Events waiting to be delivered to the listener")
+        .register(registry);
+    FunctionCounter.builder("cache.listener.events.dropped", dispatcher, AsyncCacheEntryDispatcher::getDropped)
+        .tag("listener", dispatcher.getName())
+        .description("Events dropped because the listener queue was full")
+        .register(registry);
+    FunctionCounter.builder("cache.listener.events.dispatched", dispatcher, AsyncCacheEntryDispatcher::getDispatched)
+        .tag("listener", dispatcher.getName())
+        .description("Events delivered to the listener")
+        .register(registry);
+  }
+}
@@ -0,0 +1,62 @@
+package com.azdio.mdw.hazelcast.listeners;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryListener;
+
+/**
+ * One {@link AsyncCacheEntryDispatcher} per registered listener, shared by every cache's
+ * {@link CompositeCacheEntryListener}. Once {@link #shutdown()}, events are refused until the next
+ * {@link #setConfig(CacheEntryDispatchConfig)}, so late events never start new dispatchers.
+ */
+public final class CacheEntryDispatchers {
+
+  private static volatile CacheEntryDispatchConfig config = new CacheEntryDispatchConfig();
+  private static final Map<CacheEntryListener<Object, Object>, AsyncCacheEntryDispatcher> dispatchers = new ConcurrentHashMap<>();
+  private static volatile boolean shutdown;
+
+  private CacheEntryDispatchers() {
+  }
+
+  public static CacheEntryDispatchConfig getConfig() {
+    return config;
+  }
+
+  public static void setConfig(final CacheEntryDispatchConfig config) {
+    CacheEntryDispatchers.config = config;
+    shutdown = false;
+  }
+
+  public static boolean isAsync() {
+    return config.getMode() == CacheEntryDispatchConfig.Mode.ASYNC;
+  }
+
+  public static void dispatch(final CacheEntryListener<Object, Object> listener,
+      final List<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+    if (shutdown) {
+      return;
+    }
+    dispatchers.computeIfAbsent(listener, key -> {
+      final AsyncCacheEntryDispatcher dispatcher = new AsyncCacheEntryDispatcher(key, config);
+      CacheEntryDispatchMetrics.bind(dispatcher);
+      return dispatcher;
+    }).dispatch(events);
+  }
+
+  public static Collection<AsyncCacheEntryDispatcher> getDispatchers() {
+    return dispatchers.values();
+  }
+
+  /**
+   * Refuses new events, then lets every dispatcher deliver what it already queued.
+   */
+  public static void shutdown() {
+    shutdown = true;
+    dispatchers.values().forEach(AsyncCacheEntryDispatcher::shutdown);
+    dispatchers.clear();
+  }
+}
@@ -0,0 +1,129 @@
+package com.azdio.mdw.hazelcast.listeners;
+
+import static com.azdio.mdw.hazelcast.listeners.CacheEntryListenersProvider.getCacheEntryCreatedListeners;
+import static com.azdio.mdw.hazelcast.listeners.CacheEntryListenersProvider.getCacheEntryExpiredListener;
+import static com.azdio.mdw.hazelcast.listeners.CacheEntryListenersProvider.getCacheEntryRemovedListener;
+import static com.azdio.mdw.hazelcast.listeners.CacheEntryListenersProvider.getCacheEntryUpdatedListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryExpiredListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+import javax.cache.event.EventType;
+
+/**
+ * The registered listeners that subscribe to a region, see {@link CacheRegions}. Resolved once per region and event
+ * type.
+ */
+public final class CacheEntryListenerRoutes {
+
+  private static final Map<String, List<CacheEntryCreatedListener<Object, Object>>> created = new ConcurrentHashMap<>();
+  private static final Map<String, List<CacheEntryUpdatedListener<Object, Object>>> updated = new ConcurrentHashMap<>();
+  private static final Map<String, List<CacheEntryRemovedListener<Object, Object>>> removed = new ConcurrentHashMap<>();
+  private static final Map<String, List<CacheEntryExpiredListener<Object, Object>>> expired = new ConcurrentHashMap<>();
+
+  private CacheEntryListenerRoutes() {
+  }
+
+  public static List<CacheEntryCreatedListener<Object, Object>> createdListeners(final String region) {
+    return created.computeIfAbsent(region, key -> subscribed(getCacheEntryCreatedListeners(), key));
+  }
+
+  public static List<CacheEntryUpdatedListener<Object, Object>> updatedListeners(final String region) {
+    return updated.computeIfAbsent(region, key -> subscribed(getCacheEntryUpdatedListener(), key));
+  }
+
+  public static List<CacheEntryRemovedListener<Object, Object>> removedListeners(final String region) {
+    return removed.computeIfAbsent(region, key -> subscribed(getCacheEntryRemovedListener(), key));
+  }
+
+  public static List<CacheEntryExpiredListener<Object, Object>> expiredListeners(final String region) {
+    return expired.computeIfAbsent(region, key -> subscribed(getCacheEntryExpiredListener(), key));
+  }
+
+  public static boolean isSubscribed(final String region, final EventType eventType) {
+    switch (eventType) {
+    case CREATED:
+      return !createdListeners(region).isEmpty();
+    case UPDATED:
+      return !updatedListeners(region).isEmpty();
+    case REMOVED:
+      return !removedListeners(region).isEmpty();
+    case EXPIRED:
+      return !expiredListeners(region).isEmpty();
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * The event types a region publishes to listeners of these classes: the listener interfaces they implement, for the
+   * classes whose {@link CacheRegions} match the region.
+   */
+  public static Set<EventType> subscribedEventTypes(final Collection<Class<?>> listenerClasses, final String region) {
+    final Set<EventType> eventTypes = EnumSet.noneOf(EventType.class);
+    for (final Class<?> listenerClass : listenerClasses) {
+      if (!subscribes(listenerClass, region)) {
+        continue;
+      }
+      if (CacheEntryCreatedListener.class.isAssignableFrom(listenerClass)) {
+        eventTypes.add(EventType.CREATED);
+      }
+      if (CacheEntryUpdatedListener.class.isAssignableFrom(listenerClass)) {
+        eventTypes.add(EventType.UPDATED);
+      }
+      if (CacheEntryRemovedListener.class.isAssignableFrom(listenerClass)) {
+        eventTypes.add(EventType.REMOVED);
+      }
+      if (CacheEntryExpiredListener.class.isAssignableFrom(listenerClass)) {
+        eventTypes.add(EventType.EXPIRED);
+      }
+    }
+    return eventTypes;
+  }
+
+  /**
+   * Forgets the resolved routes, called whenever listeners are registered.
+   */
+  public static void clear() {
+    created.clear();
+    updated.clear();
+    removed.clear();
+    expired.clear();
+  }
+
+  static boolean subscribes(final Object listener, final String region) {
+    return subscribes(listener.getClass(), region);
+  }
+
+  static boolean subscribes(final Class<?> listenerClass, final String region) {
+    final CacheRegions regions = listenerClass.getAnnotation(CacheRegions.class);
+    return regions == null || Arrays.stream(regions.value()).anyMatch(pattern -> matches(pattern, region));
+  }
+
+  static boolean matches(final String pattern, final String region) {
+    if (pattern.indexOf('*') < 0) {
+      return pattern.equals(region);
+    }
+    final String regex = Arrays.stream(pattern.split("\\*", -1))
+        .map(Pattern::quote)
+        .collect(Collectors.joining(".*"));
+    return region.matches(regex);
+  }
+
+  private static <L> List<L> subscribed(final List<L> listeners, final String region) {
+    return listeners.stream()
+        .filter(listener -> subscribes(listener, region))
+        .collect(Collectors.toList());
+  }
+}
@@ -4,12 +4,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.cache.event.CacheEntryCreatedListener;
 import javax.cache.event.CacheEntryExpiredListener;
 import javax.cache.event.CacheEntryRemovedListener;
 import javax.cache.event.CacheEntryUpdatedListener;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -29,12 +31,52 @@ public class CacheEntryListenersProvider {
   @Autowired
   List<CacheEntryRemovedListener<Object, Object>> removedListeners;
 
+  @Value("${cache.listeners.dispatch.mode:SYNC}")
+  CacheEntryDispatchConfig.Mode dispatchMode;
+  @Value("${cache.listeners.dispatch.queue-capacity:10000}")
+  int dispatchQueueCapacity;
+  @Value("${cache.listeners.dispatch.batch-size:100}")
+  int dispatchBatchSize;
+  @Value("${cache.listeners.dispatch.flush-interval-millis:50}")
+  long dispatchFlushIntervalMillis;
+  @Value("${cache.listeners.dispatch.overflow:DROP}")
+  CacheEntryDispatchConfig.Overflow dispatchOverflow;
+  @Value("${cache.listeners.hot-keys.enabled:false}")
+  boolean hotKeysEnabled;
+  @Value("${cache.listeners.hot-keys.top-k:10}")
+  int hotKeysTopK;
+  @Value("${cache.listeners.hot-keys.window-seconds:60}")
+  int hotKeysWindowSeconds;
+  @Value("${cache.listeners.hot-keys.sample-every:1}")
+  int hotKeysSampleEvery;
+
   @PostConstruct
   public void init() {
+    final CacheEntryDispatchConfig dispatchConfig = new CacheEntryDispatchConfig();
+    dispatchConfig.setMode(dispatchMode);
+    dispatchConfig.setQueueCapacity(dispatchQueueCapacity);
+    dispatchConfig.setBatchSize(dispatchBatchSize);
+    dispatchConfig.setFlushIntervalMillis(dispatchFlushIntervalMillis);
+    dispatchConfig.setOverflow(dispatchOverflow);
+    CacheEntryDispatchers.setConfig(dispatchConfig);
+
+    final HotKeyConfig hotKeyConfig = new HotKeyConfig();
+    hotKeyConfig.setEnabled(hotKeysEnabled);
+    hotKeyConfig.setTopK(hotKeysTopK);
+    hotKeyConfig.setWindowSeconds(hotKeysWindowSeconds);
+    hotKeyConfig.setSampleEvery(hotKeysSampleEvery);
+    HotKeys.setConfig(hotKeyConfig);
+
     cacheEntryCreatedListeners.addAll(createdListeners);
     cacheEntryUpdatedListener.addAll(updatedListeners);
     cacheEntryExpiredListener.addAll(expiredListeners);
     cacheEntryRemovedListener.addAll(removedListeners);
+    CacheEntryListenerRoutes.clear();
+  }
+
+  @PreDestroy
+  public void destroy() {
+    CacheEntryDispatchers.shutdown();
   }
 
   public static List<CacheEntryCreatedListener<Object, Object>> getCacheEntryCreatedListeners() {
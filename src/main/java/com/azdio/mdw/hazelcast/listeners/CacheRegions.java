@@ -0,0 +1,24 @@
+package com.azdio.mdw.hazelcast.listeners;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restricts a cache entry listener to the regions whose name matches one of the patterns. A {@code *} matches any
+ * sequence of characters, as in Hazelcast config names, e.g. {@code ImagesCache.*}.
+ * <p>
+ * Listeners without this annotation receive the events of every region.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CacheRegions {
+
+  String[] value();
+
+}
@@ -1,9 +1,15 @@
 package com.azdio.mdw.hazelcast.listeners;
 
-import static com.azdio.mdw.hazelcast.listeners.CacheEntryListenersProvider.getCacheEntryCreatedListeners;
-import static com.azdio.mdw.hazelcast.listeners.CacheEntryListenersProvider.getCacheEntryExpiredListener;
-import static com.azdio.mdw.hazelcast.listeners.CacheEntryListenersProvider.getCacheEntryRemovedListener;
-import static com.azdio.mdw.hazelcast.listeners.CacheEntryListenersProvider.getCacheEntryUpdatedListener;
+import static com.azdio.mdw.hazelcast.listeners.CacheEntryDispatchers.dispatch;
+import static com.azdio.mdw.hazelcast.listeners.CacheEntryDispatchers.isAsync;
+import static com.azdio.mdw.hazelcast.listeners.CacheEntryListenerRoutes.createdListeners;
+import static com.azdio.mdw.hazelcast.listeners.CacheEntryListenerRoutes.expiredListeners;
+import static com.azdio.mdw.hazelcast.listeners.CacheEntryListenerRoutes.removedListeners;
+import static com.azdio.mdw.hazelcast.listeners.CacheEntryListenerRoutes.updatedListeners;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 import javax.cache.event.CacheEntryCreatedListener;
 import javax.cache.event.CacheEntryEvent;
@@ -11,6 +17,15 @@ import javax.cache.event.CacheEntryExpiredListener;
 import javax.cache.event.CacheEntryRemovedListener;
 import javax.cache.event.CacheEntryUpdatedListener;
 
+/**
+ * Fans the events of a cache out to the listeners registered in {@link CacheEntryListenersProvider} that subscribe to
+ * its region. When the members list the listener classes, only regions with a subscriber are configured with this
+ * listener, see {@link CacheEntryListenerRoutes#subscribedEventTypes(java.util.Collection, String)}; otherwise
+ * {@link HazelcastCacheEntryEventFilterFactory} drops the events nobody subscribes to.
+ * <p>
+ * The nested classes only implement a single listener interface, so Hazelcast does not deliver the other event types
+ * at all. They are used for regions configured with a subset of event types.
+ */
 public class CompositeCacheEntryListener implements
     CacheEntryCreatedListener<Object, Object>,
     CacheEntryUpdatedListener<Object, Object>,
@@ -19,22 +34,114 @@ public class CompositeCacheEntryListener implements
 
   @Override
   public void onCreated(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
-    getCacheEntryCreatedListeners().forEach(listener -> listener.onCreated(events));
+    final String region = region(events);
+    if (region == null) {
+      return;
+    }
+    HotKeys.record(region, events);
+    if (isAsync()) {
+      final List<CacheEntryEvent<? extends Object, ? extends Object>> batch = toList(events);
+      createdListeners(region).forEach(listener -> dispatch(listener, batch));
+    } else {
+      createdListeners(region).forEach(listener -> listener.onCreated(events));
+    }
   }
 
   @Override
   public void onUpdated(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
-    getCacheEntryUpdatedListener().forEach(listener -> listener.onUpdated(events));
+    final String region = region(events);
+    if (region == null) {
+      return;
+    }
+    HotKeys.record(region, events);
+    if (isAsync()) {
+      final List<CacheEntryEvent<? extends Object, ? extends Object>> batch = toList(events);
+      updatedListeners(region).forEach(listener -> dispatch(listener, batch));
+    } else {
+      updatedListeners(region).forEach(listener -> listener.onUpdated(events));
+    }
   }
 
   @Override
   public void onRemoved(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
-    getCacheEntryRemovedListener().forEach(listener -> listener.onRemoved(events));
+    final String region = region(events);
+    if (region == null) {
+      return;
+    }
+    HotKeys.record(region, events);
+    if (isAsync()) {
+      final List<CacheEntryEvent<? extends Object, ? extends Object>> batch = toList(events);
+      removedListeners(region).forEach(listener -> dispatch(listener, batch));
+    } else {
+      removedListeners(region).forEach(listener -> listener.onRemoved(events));
+    }
   }
 
   @Override
   public void onExpired(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
-   getCacheEntryExpiredListener().forEach(listener -> listener.onExpired(events));
+    final String region = region(events);
+    if (region == null) {
+      return;
+    }
+    HotKeys.record(region, events);
+    if (isAsync()) {
+      final List<CacheEntryEvent<? extends Object, ? extends Object>> batch = toList(events);
+      expiredListeners(region).forEach(listener -> dispatch(listener, batch));
+    } else {
+      expiredListeners(region).forEach(listener -> listener.onExpired(events));
+    }
+  }
+
+  private static String region(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+    final Iterator<CacheEntryEvent<? extends Object, ? extends Object>> iterator = events.iterator();
+    return iterator.hasNext() ? iterator.next().getSource().getName() : null;
+  }
+
+  private static List<CacheEntryEvent<? extends Object, ? extends Object>> toList(
+      final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+    final List<CacheEntryEvent<? extends Object, ? extends Object>> list = new ArrayList<>();
+    events.forEach(list::add);
+    return list;
+  }
+
+  public static class Created implements CacheEntryCreatedListener<Object, Object> {
+
+    private final CompositeCacheEntryListener composite = new CompositeCacheEntryListener();
+
+    @Override
+    public void onCreated(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+      composite.onCreated(events);
+    }
+  }
+
+  public static class Updated implements CacheEntryUpdatedListener<Object, Object> {
+
+    private final CompositeCacheEntryListener composite = new CompositeCacheEntryListener();
+
+    @Override
+    public void onUpdated(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+      composite.onUpdated(events);
+    }
+  }
+
+  public static class Removed implements CacheEntryRemovedListener<Object, Object> {
+
+    private final CompositeCacheEntryListener composite = new CompositeCacheEntryListener();
+
+    @Override
+    public void onRemoved(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+      composite.onRemoved(events);
+    }
+  }
+
+  public static class Expired implements CacheEntryExpiredListener<Object, Object> {
+
+    private final CompositeCacheEntryListener composite = new CompositeCacheEntryListener();
+
+    @Override
+    public void onExpired(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+      composite.onExpired(events);
+    }
   }
 
 }
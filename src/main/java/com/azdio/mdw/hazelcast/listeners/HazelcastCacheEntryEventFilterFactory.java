@@ -0,0 +1,28 @@
+package com.azdio.mdw.hazelcast.listeners;
+
+import javax.cache.configuration.Factory;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryEventFilter;
+
+/**
+ * Drops the events of a region and type no registered listener subscribes to before they reach
+ * {@link CompositeCacheEntryListener}, so they are neither batched nor dispatched. The event types no listener class
+ * subscribes to are not published at all, see {@link CacheEntryListenerRoutes#subscribedEventTypes}.
+ */
+public class HazelcastCacheEntryEventFilterFactory implements Factory<CacheEntryEventFilter<Object, Object>> {
+
+  private static final long serialVersionUID = 1L;
+
+  @Override
+  public CacheEntryEventFilter<Object, Object> create() {
+    return new SubscribedRegionFilter();
+  }
+
+  static class SubscribedRegionFilter implements CacheEntryEventFilter<Object, Object> {
+
+    @Override
+    public boolean evaluate(final CacheEntryEvent<? extends Object, ? extends Object> event) {
+      return CacheEntryListenerRoutes.isSubscribed(event.getSource().getName(), event.getEventType());
+    }
+  }
+}
@@ -3,6 +3,11 @@ package com.azdio.mdw.hazelcast.listeners;
 import javax.cache.configuration.Factory;
 import javax.cache.event.CacheEntryListener;
 
+/**
+ * Creates the {@link CompositeCacheEntryListener} of a cache. The nested factories create listeners for a single event
+ * type and are named {@code HazelcastCacheEntryListenerFactory$Created}, {@code $Updated}, {@code $Removed} and
+ * {@code $Expired}.
+ */
 public class HazelcastCacheEntryListenerFactory implements Factory<CacheEntryListener<Object, Object>> {
 
   private static final long serialVersionUID = 1L;
@@ -12,4 +17,44 @@ public class HazelcastCacheEntryListenerFactory implements Factory<CacheEntryLis
     return new CompositeCacheEntryListener();
   }
 
+  public static class Created implements Factory<CacheEntryListener<Object, Object>> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public CacheEntryListener<Object, Object> create() {
+      return new CompositeCacheEntryListener.Created();
+    }
+  }
+
+  public static class Updated implements Factory<CacheEntryListener<Object, Object>> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public CacheEntryListener<Object, Object> create() {
+      return new CompositeCacheEntryListener.Updated();
+    }
+  }
+
+  public static class Removed implements Factory<CacheEntryListener<Object, Object>> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public CacheEntryListener<Object, Object> create() {
+      return new CompositeCacheEntryListener.Removed();
+    }
+  }
+
+  public static class Expired implements Factory<CacheEntryListener<Object, Object>> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public CacheEntryListener<Object, Object> create() {
+      return new CompositeCacheEntryListener.Expired();
+    }
+  }
+
 }
@@ -0,0 +1,14 @@
+package com.azdio.mdw.hazelcast.listeners;
+
+import lombok.Data;
+
+/**
+ * A key of a region and its estimated number of events.
+ */
+@Data
+public class HotKey {
+
+  private final String key;
+  private final long count;
+
+}
@@ -0,0 +1,28 @@
+package com.azdio.mdw.hazelcast.listeners;
+
+import lombok.Data;
+
+/**
+ * Size and window of the per-region {@link HotKeySketch}es fed from the cache event pipeline, or on a member from the
+ * cache operations. Off unless enabled.
+ */
+@Data
+public class HotKeyConfig {
+
+  private boolean enabled = false;
+  /** Hot keys kept per region and window. */
+  private int topK = 10;
+  /** Counters per count-min row; the estimate of a key is off by at most 2 * events / width with high probability. */
+  private int width = 1024;
+  /** Count-min rows. */
+  private int depth = 4;
+  /** Events are counted in the current and the previous window of this length. */
+  private int windowSeconds = 60;
+  /**
+   * Only the keys hashing into 1 of n buckets are counted, with n times the weight: a sampled key is counted on every
+   * event, the others never. Above 1, a single hot key is therefore missed n - 1 times out of n whatever its traffic;
+   * keep 1 where one key can take most of the events.
+   */
+  private int sampleEvery = 1;
+
+}
@@ -0,0 +1,41 @@
+package com.azdio.mdw.hazelcast.listeners;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exports the hottest key of every {@link HotKeySketch}, including the ones created after the registry was bound. Key
+ * names are not used as tags; they are only available from the sketch itself.
+ */
+@Component
+public class HotKeyMetrics implements MeterBinder {
+
+  private static final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    registries.add(registry);
+    HotKeys.getSketches().forEach(sketch -> bindTo(registry, sketch));
+  }
+
+  static void bind(final HotKeySketch sketch) {
+    registries.forEach(registry -> bindTo(registry, sketch));
+  }
+
+  private static void bindTo(final MeterRegistry registry, final HotKeySketch sketch) {
+    Gauge.builder("cache.hotkey.top.events", sketch, HotKeySketch::getTopCount)
+        .tag("cache", sketch.getRegion())
+        .description("Estimated events of the hottest key in the current and previous window")
+        .register(registry);
+    Gauge.builder("cache.hotkey.top.share", sketch, HotKeySketch::getTopShare)
+        .tag("cache", sketch.getRegion())
+        .description("Share of the events of the region that went to its hottest key")
+        .register(registry);
+  }
+}
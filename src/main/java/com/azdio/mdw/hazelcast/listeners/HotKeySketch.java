@@ -0,0 +1,263 @@
+package com.azdio.mdw.hazelcast.listeners;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Rolling hot keys of a region, in fixed memory: a count-min sketch estimates how often a key was seen, and the
+ * {@code top-k} keys with the highest estimates are kept as candidates. Counts cover the current and the previous window.
+ * <p>
+ * Recording a candidate only adds to its counter; the window lock is only taken when the estimate of another key
+ * exceeds the smallest candidate count, to change the candidates. Sorting and rendering are left to the reader. Keys are compared with {@code equals} and counted by {@code hashCode}, so serialized
+ * keys can be recorded as they are.
+ */
+public class HotKeySketch {
+
+  private static final int MAX_KEY_LENGTH = 256;
+
+  private final String region;
+  private volatile HotKeyConfig config;
+  private volatile long windowNanos;
+  private volatile Window current;
+  private volatile Window previous;
+  private volatile long windowStart;
+
+  public HotKeySketch(final String region, final HotKeyConfig config) {
+    this.region = region;
+    reconfigure(config);
+  }
+
+  public String getRegion() {
+    return region;
+  }
+
+  /**
+   * Starts over with new settings, keeping this instance and so the gauges bound to it.
+   */
+  public synchronized void reconfigure(final HotKeyConfig config) {
+    this.config = config;
+    this.windowNanos = TimeUnit.SECONDS.toNanos(Math.max(1, config.getWindowSeconds()));
+    this.current = new Window(config);
+    this.previous = new Window(config);
+    this.windowStart = System.nanoTime();
+  }
+
+  /**
+   * Counts the key when its hash falls in the sample, with the weight of the keys left out.
+   */
+  public void record(final Object key) {
+    final int hashCode = key.hashCode();
+    final int sampleEvery = config.getSampleEvery();
+    if (sampleEvery > 1 && (mix(hashCode, 0) & Integer.MAX_VALUE) % sampleEvery != 0) {
+      return;
+    }
+    rotate(System.nanoTime());
+    current.add(key, hashCode, Math.max(1, sampleEvery));
+  }
+
+  /**
+   * The keys ranked in the current or the previous window, as recorded.
+   */
+  public Set<Object> getKeys() {
+    rotate(System.nanoTime());
+    final Set<Object> keys = new HashSet<>(current.candidates.keySet());
+    keys.addAll(previous.candidates.keySet());
+    return keys;
+  }
+
+  /**
+   * Hot keys of the current and the previous window, hottest first.
+   */
+  public List<HotKey> getHotKeys() {
+    return getHotKeys(HotKeySketch::render);
+  }
+
+  /**
+   * Hot keys of the current and the previous window, hottest first, rendered with {@code render}.
+   */
+  public List<HotKey> getHotKeys(final Function<Object, String> render) {
+    rotate(System.nanoTime());
+    final Window currentWindow = current;
+    final Window previousWindow = previous;
+    final Set<Object> keys = new HashSet<>(currentWindow.candidates.keySet());
+    keys.addAll(previousWindow.candidates.keySet());
+    final List<Object> hottest = new ArrayList<>(keys);
+    final Map<Object, Long> counts = new HashMap<>(keys.size());
+    hottest.forEach(key -> counts.put(key, currentWindow.estimate(key) + previousWindow.estimate(key)));
+    hottest.sort(Comparator.comparingLong(counts::get).reversed());
+    final int topK = Math.min(config.getTopK(), hottest.size());
+    final List<HotKey> hotKeys = new ArrayList<>(topK);
+    for (final Object key : hottest.subList(0, topK)) {
+      hotKeys.add(new HotKey(render.apply(key), counts.get(key)));
+    }
+    return hotKeys;
+  }
+
+  /**
+   * Events of the current and the previous window.
+   */
+  public long getEvents() {
+    rotate(System.nanoTime());
+    return current.events.sum() + previous.events.sum();
+  }
+
+  /**
+   * Estimated events of the hottest key of the current and the previous window.
+   */
+  public long getTopCount() {
+    rotate(System.nanoTime());
+    final Window currentWindow = current;
+    final Window previousWindow = previous;
+    long topCount = 0;
+    for (final Object key : currentWindow.candidates.keySet()) {
+      topCount = Math.max(topCount, currentWindow.estimate(key) + previousWindow.estimate(key));
+    }
+    for (final Object key : previousWindow.candidates.keySet()) {
+      topCount = Math.max(topCount, currentWindow.estimate(key) + previousWindow.estimate(key));
+    }
+    return topCount;
+  }
+
+  /**
+   * Share of the events of the region that went to its hottest key.
+   */
+  public double getTopShare() {
+    final long events = getEvents();
+    return events == 0 ? 0 : (double) getTopCount() / events;
+  }
+
+  private void rotate(final long now) {
+    if (now - windowStart < windowNanos) {
+      return;
+    }
+    synchronized (this) {
+      final long elapsed = now - windowStart;
+      if (elapsed < windowNanos) {
+        return;
+      }
+      previous = elapsed < 2 * windowNanos ? current : new Window(config);
+      current = new Window(config);
+      windowStart = now;
+    }
+  }
+
+  private static String render(final Object key) {
+    final String rendered = String.valueOf(key);
+    return rendered.length() <= MAX_KEY_LENGTH ? rendered : rendered.substring(0, MAX_KEY_LENGTH) + "...";
+  }
+
+  /**
+   * Independent hashes of a key, one per {@code seed}.
+   */
+  private static int mix(final int hashCode, final int seed) {
+    int hash = hashCode ^ (seed + 1) * 0x9E3779B9;
+    hash = (hash ^ (hash >>> 16)) * 0x85EBCA6B;
+    hash = (hash ^ (hash >>> 13)) * 0xC2B2AE35;
+    return hash ^ hash >>> 16;
+  }
+
+  /**
+   * Count-min sketch and top-k candidates of one window.
+   */
+  static final class Window {
+
+    private final int topK;
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray counters;
+    private final LongAdder events = new LongAdder();
+    /**
+     * Candidate keys, counted from their estimate when they became candidates.
+     */
+    private final Map<Object, LongAdder> candidates = new ConcurrentHashMap<>();
+    /**
+     * At most the smallest candidate count once there are {@code top-k} candidates, 0 before.
+     */
+    private volatile long floor;
+
+    Window(final HotKeyConfig config) {
+      this.topK = Math.max(1, config.getTopK());
+      this.width = Math.max(16, config.getWidth());
+      this.depth = Math.max(1, config.getDepth());
+      this.counters = new AtomicLongArray(width * depth);
+    }
+
+    void add(final Object key, final int hashCode, final int weight) {
+      events.add(weight);
+      long estimate = Long.MAX_VALUE;
+      for (int row = 0; row < depth; row++) {
+        estimate = Math.min(estimate, counters.addAndGet(row * width + column(hashCode, row), weight));
+      }
+      final LongAdder count = candidates.get(key);
+      if (count != null) {
+        count.add(weight);
+      } else if (estimate > floor) {
+        offer(key, estimate, weight);
+      }
+    }
+
+    long estimate(final Object key) {
+      final int hashCode = key.hashCode();
+      long estimate = Long.MAX_VALUE;
+      for (int row = 0; row < depth; row++) {
+        estimate = Math.min(estimate, counters.get(row * width + column(hashCode, row)));
+      }
+      return estimate;
+    }
+
+    /**
+     * Makes the key a candidate in place of the coldest one when its estimate is higher, the floor being stale.
+     */
+    private synchronized void offer(final Object key, final long estimate, final int weight) {
+      final LongAdder count = candidates.get(key);
+      if (count != null) {
+        count.add(weight);
+        return;
+      }
+      if (candidates.size() >= topK) {
+        final Object coldest = coldest();
+        final long coldestCount = candidates.get(coldest).sum();
+        if (estimate <= coldestCount) {
+          floor = coldestCount;
+          return;
+        }
+        candidates.remove(coldest);
+      }
+      final LongAdder added = new LongAdder();
+      added.add(estimate);
+      candidates.put(key, added);
+      floor = candidates.size() < topK ? 0 : candidates.get(coldest()).sum();
+    }
+
+    private Object coldest() {
+      Object coldest = null;
+      long coldestCount = Long.MAX_VALUE;
+      for (final Map.Entry<Object, LongAdder> candidate : candidates.entrySet()) {
+        final long count = candidate.getValue().sum();
+        if (count < coldestCount) {
+          coldest = candidate.getKey();
+          coldestCount = count;
+        }
+      }
+      return coldest;
+    }
+
+    /**
+     * Rows hash independently, so two keys only share all their counters by chance in every row; the sample uses
+     * another seed.
+     */
+    private int column(final int hashCode, final int row) {
+      return (mix(hashCode, row + 1) & Integer.MAX_VALUE) % width;
+    }
+  }
+}
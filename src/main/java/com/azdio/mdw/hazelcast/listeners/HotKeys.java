@@ -0,0 +1,91 @@
+package com.azdio.mdw.hazelcast.listeners;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.cache.event.CacheEntryEvent;
+
+/**
+ * One {@link HotKeySketch} of written keys per region, fed with the keys of the cache events delivered to this process,
+ * and on a member that records its cache operations, one of read keys too.
+ */
+public final class HotKeys {
+
+  private static volatile HotKeyConfig config = new HotKeyConfig();
+  /**
+   * Set once the cache operations of this member are recorded, which then stand for the events.
+   */
+  private static volatile boolean operations;
+  private static final Map<String, HotKeySketch> sketches = new ConcurrentHashMap<>();
+  private static final Map<String, HotKeySketch> readSketches = new ConcurrentHashMap<>();
+
+  private HotKeys() {
+  }
+
+  public static HotKeyConfig getConfig() {
+    return config;
+  }
+
+  /**
+   * Starts the existing sketches over with the new settings; they stay the ones the gauges are bound to.
+   */
+  public static void setConfig(final HotKeyConfig config) {
+    HotKeys.config = config;
+    sketches.values().forEach(sketch -> sketch.reconfigure(config));
+    readSketches.values().forEach(sketch -> sketch.reconfigure(config));
+  }
+
+  public static void recordOperations() {
+    operations = true;
+  }
+
+  public static void record(final String region, final Object key) {
+    if (config.isEnabled()) {
+      sketch(region).record(key);
+    }
+  }
+
+  public static void record(final String region,
+      final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+    if (config.isEnabled() && !operations) {
+      final HotKeySketch sketch = sketch(region);
+      events.forEach(event -> sketch.record(event.getKey()));
+    }
+  }
+
+  public static void recordRead(final String region, final Object key) {
+    if (config.isEnabled()) {
+      readSketch(region).record(key);
+    }
+  }
+
+  public static HotKeySketch sketch(final String region) {
+    final HotKeySketch sketch = sketches.get(region);
+    if (sketch != null) {
+      return sketch;
+    }
+    return sketches.computeIfAbsent(region, key -> {
+      final HotKeySketch created = new HotKeySketch(key, config);
+      HotKeyMetrics.bind(created);
+      return created;
+    });
+  }
+
+  public static HotKeySketch readSketch(final String region) {
+    final HotKeySketch sketch = readSketches.get(region);
+    return sketch != null ? sketch : readSketches.computeIfAbsent(region, key -> new HotKeySketch(key, config));
+  }
+
+  public static HotKeySketch getSketch(final String region) {
+    return sketches.get(region);
+  }
+
+  public static HotKeySketch getReadSketch(final String region) {
+    return readSketches.get(region);
+  }
+
+  public static Collection<HotKeySketch> getSketches() {
+    return sketches.values();
+  }
+}
@@ -1,7 +1,14 @@
 package com.azdio.mdw.hazelcast.listeners;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.cache.event.CacheEntryCreatedListener;
 import javax.cache.event.CacheEntryEvent;
@@ -13,10 +20,16 @@ import javax.cache.event.EventType;
 import org.hibernate.cache.internal.QueryResultsCacheImpl;
 import org.hibernate.cache.spi.QueryKey;
 import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Logs cache events at debug level, sampled per region: every {@code sample-every}th event, and at most
+ * {@code max-per-second} events per second. Values are only rendered, and truncated to {@code max-value-length}, when a
+ * line is actually written.
+ */
 @Slf4j
 @Component
 public class LoggingCacheEntryListener implements
@@ -25,35 +38,57 @@ public class LoggingCacheEntryListener implements
     CacheEntryExpiredListener<Object, Object>,
     CacheEntryRemovedListener<Object, Object> {
 
+  private static final MethodHandle CACHE_ITEM_RESULTS = cacheItemResults();
+
+  private final ConcurrentMap<String, LogSampler> samplers = new ConcurrentHashMap<>();
+
+  @Value("${cache.listeners.logging.sample-every:1}")
+  int sampleEvery = 1;
+  @Value("${cache.listeners.logging.max-per-second:0}")
+  int maxPerSecond = 0;
+  @Value("${cache.listeners.logging.max-value-length:512}")
+  int maxValueLength = 512;
+
   @Override
   public void onCreated(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
     if (log.isDebugEnabled()) {
-      events.forEach(this::log);
+      for (final CacheEntryEvent<? extends Object, ? extends Object> event : events) {
+        log(event);
+      }
     }
   }
 
   @Override
   public void onUpdated(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
     if (log.isDebugEnabled()) {
-      events.forEach(this::log);
+      for (final CacheEntryEvent<? extends Object, ? extends Object> event : events) {
+        log(event);
+      }
     }
   }
 
   @Override
   public void onRemoved(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
     if (log.isDebugEnabled()) {
-      events.forEach(this::log);
+      for (final CacheEntryEvent<? extends Object, ? extends Object> event : events) {
+        log(event);
+      }
     }
   }
 
   @Override
   public void onExpired(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
     if (log.isDebugEnabled()) {
-      events.forEach(this::log);
+      for (final CacheEntryEvent<? extends Object, ? extends Object> event : events) {
+        log(event);
+      }
     }
   }
 
   private void log(final CacheEntryEvent<? extends Object, ? extends Object> event) {
+    if (!sampler(event.getSource().getName()).sample()) {
+      return;
+    }
     if (log.isTraceEnabled() && event.getValue() instanceof AbstractReadWriteAccess.SoftLockImpl) {
       log.trace("[cache][{}][{}][key: {}][value: {}]", event.getSource().getName(), event.getEventType(), event.getKey(), event.getValue());
     } else {
@@ -67,30 +102,39 @@ public class LoggingCacheEntryListener implements
     }
   }
 
+  private LogSampler sampler(final String region) {
+    final LogSampler sampler = samplers.get(region);
+    if (sampler != null) {
+      return sampler;
+    }
+    return samplers.computeIfAbsent(region, key -> new LogSampler(sampleEvery, maxPerSecond));
+  }
+
   private void logCacheEvent(final CacheEntryEvent<? extends Object, ? extends Object> event) {
     if (event.getEventType().equals(EventType.EXPIRED) || event.getSource().getName().startsWith("ImagesCache")) {
       log.debug("[cache][{}][{}][key: {}]", event.getSource().getName(), event.getEventType(), event.getKey());
-    } else {
+    } else if (event.isOldValueAvailable()) {
       log.debug("[cache][{}][{}][key: {}][value: {}][old value: {}]",
           event.getSource().getName(), event.getEventType(), event.getKey(),
-          event.getValue(), event.getOldValue());
+          new LazyValue(event.getValue(), maxValueLength), new LazyValue(event.getOldValue(), maxValueLength));
+    } else {
+      log.debug("[cache][{}][{}][key: {}][value: {}]",
+          event.getSource().getName(), event.getEventType(), event.getKey(),
+          new LazyValue(event.getValue(), maxValueLength));
     }
   }
 
   private void logQueryCacheEvent(final CacheEntryEvent<? extends Object, ? extends Object> event) {
     final QueryKey queryKey = (QueryKey) event.getKey();
-    final QueryResultsCacheImpl.CacheItem result = (QueryResultsCacheImpl.CacheItem) event.getValue();
-    if (Objects.nonNull(result)) {
-      final Class<?>[] declaredClasses = QueryResultsCacheImpl.class.getDeclaredClasses();
-      final Field results = declaredClasses[0].getDeclaredFields()[1];
-      results.setAccessible(true);
+    final Object result = event.getValue();
+    if (Objects.nonNull(result) && Objects.nonNull(CACHE_ITEM_RESULTS)) {
       try {
         log.debug("[cache][{}][{}][key: {}][value: {}]",
             event.getSource().getName(), event.getEventType(),
-            queryKey, results.get(result));
-      } catch (IllegalArgumentException | IllegalAccessException e) {
+            queryKey, new LazyValue(CACHE_ITEM_RESULTS.invoke(result), maxValueLength));
+      } catch (final ClassCastException e) {
         // NOP
-      } catch (final Exception e) {
+      } catch (final Throwable e) {
         log.error("[cache][error: {}]", e.getMessage());
         log.error(e.getMessage(), e);
       }
@@ -98,4 +142,71 @@ public class LoggingCacheEntryListener implements
       log.debug("[cache][{}][{}][key: {}]", event.getSource().getName(), event.getEventType(), queryKey);
     }
   }
+
+  private static MethodHandle cacheItemResults() {
+    try {
+      final Field results = QueryResultsCacheImpl.CacheItem.class.getDeclaredField("results");
+      results.setAccessible(true);
+      final MethodHandle getter = MethodHandles.lookup().unreflectGetter(results);
+      return getter.asType(getter.type().changeParameterType(0, Object.class));
+    } catch (final NoSuchFieldException | IllegalAccessException | RuntimeException e) {
+      log.warn("[cache][query results of {} will not be logged: {}]", QueryResultsCacheImpl.CacheItem.class.getName(), e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Rate limiter of a single region.
+   */
+  static final class LogSampler {
+
+    private final int every;
+    private final int maxPerSecond;
+    private final AtomicLong seen = new AtomicLong();
+    private final AtomicInteger logged = new AtomicInteger();
+    private volatile long second;
+
+    LogSampler(final int every, final int maxPerSecond) {
+      this.every = every;
+      this.maxPerSecond = maxPerSecond;
+    }
+
+    boolean sample() {
+      if (every > 1 && seen.getAndIncrement() % every != 0) {
+        return false;
+      }
+      if (maxPerSecond <= 0) {
+        return true;
+      }
+      final long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+      if (now != second) {
+        second = now;
+        logged.set(0);
+      }
+      return logged.incrementAndGet() <= maxPerSecond;
+    }
+  }
+
+  /**
+   * Renders the value only when the log line is written.
+   */
+  static final class LazyValue {
+
+    private final Object value;
+    private final int maxLength;
+
+    LazyValue(final Object value, final int maxLength) {
+      this.value = value;
+      this.maxLength = maxLength;
+    }
+
+    @Override
+    public String toString() {
+      final String rendered = String.valueOf(value);
+      if (maxLength <= 0 || rendered.length() <= maxLength) {
+        return rendered;
+      }
+      return rendered.substring(0, maxLength) + "...(" + rendered.length() + " chars)";
+    }
+  }
 }
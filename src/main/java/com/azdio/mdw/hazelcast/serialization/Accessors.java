@@ -0,0 +1,59 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+
+/**
+ * Method handles to the private fields and constructors of the Hibernate cache payloads, resolved once per serializer.
+ */
+final class Accessors {
+
+  private Accessors() {
+  }
+
+  static MethodHandle getter(final Class<?> type, final String name) {
+    try {
+      final Field field = type.getDeclaredField(name);
+      field.setAccessible(true);
+      return MethodHandles.lookup().unreflectGetter(field);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw new IllegalStateException("Cannot access " + type.getName() + "." + name, e);
+    }
+  }
+
+  static MethodHandle setter(final Class<?> type, final String name) {
+    try {
+      final Field field = type.getDeclaredField(name);
+      field.setAccessible(true);
+      return MethodHandles.lookup().unreflectSetter(field);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw new IllegalStateException("Cannot access " + type.getName() + "." + name, e);
+    }
+  }
+
+  static MethodHandle constructor(final Class<?> type, final Class<?>... parameterTypes) {
+    try {
+      final Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+      constructor.setAccessible(true);
+      return MethodHandles.lookup().unreflectConstructor(constructor);
+    } catch (final NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalStateException("Cannot access constructor of " + type.getName(), e);
+    }
+  }
+
+  static IOException rethrow(final Throwable e) {
+    if (e instanceof IOException) {
+      return (IOException) e;
+    }
+    if (e instanceof RuntimeException) {
+      throw (RuntimeException) e;
+    }
+    if (e instanceof Error) {
+      throw (Error) e;
+    }
+    return new IOException(e);
+  }
+}
@@ -0,0 +1,74 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.partition.strategy.DefaultPartitioningStrategy;
+import com.hazelcast.spi.properties.GroupProperty;
+
+/**
+ * Places the entity and collection keys of the {@link ColocationConfig colocated} regions by their id only, so an entity
+ * and the collections it owns, keyed by the owner id, share a partition and a member: an aggregate is read from a single
+ * member. Other keys keep the default partitioning.
+ * <p>
+ * The strategy is global to a process, see {@link #PROPERTY}: members read it from their configuration, clients only from
+ * the system property, see {@link #installOnClients(ColocationConfig)}. Members and clients must switch together with
+ * the same regions, since a key is looked up in the partition its writer chose; the colocated regions start empty, and
+ * snapshots written before the switch are not found.
+ */
+public class AggregatePartitioningStrategy implements PartitioningStrategy<Object> {
+
+  public static final String PROPERTY = GroupProperty.PARTITIONING_STRATEGY_CLASS.getName();
+
+  private static final long serialVersionUID = 1L;
+  private static final DefaultPartitioningStrategy DEFAULT = new DefaultPartitioningStrategy();
+
+  private static volatile ColocationConfig config = new ColocationConfig();
+  private static final Map<String, Boolean> colocated = new ConcurrentHashMap<>();
+
+  public static ColocationConfig getConfig() {
+    return config;
+  }
+
+  public static void setConfig(final ColocationConfig config) {
+    AggregatePartitioningStrategy.config = config;
+    colocated.clear();
+  }
+
+  /**
+   * Has the clients created from now on in this process colocate the keys of {@code config}, to call before the
+   * Hazelcast client starts.
+   */
+  public static void installOnClients(final ColocationConfig config) {
+    setConfig(config);
+    System.setProperty(PROPERTY, AggregatePartitioningStrategy.class.getName());
+  }
+
+  @Override
+  public Object getPartitionKey(final Object key) {
+    if (key == null || key.getClass() != CacheKeySerializer.TYPE || !config.isEnabled()) {
+      return DEFAULT.getPartitionKey(key);
+    }
+    try {
+      final String entityOrRoleName = (String) CacheKeySerializer.ENTITY_OR_ROLE_NAME.invoke(key);
+      return isColocated(entityOrRoleName) ? CacheKeySerializer.ID.invoke(key) : null;
+    } catch (final Throwable e) {
+      throw new IllegalStateException("Cannot read the id of " + key, e);
+    }
+  }
+
+  static boolean isColocated(final String entityOrRoleName) {
+    final Boolean known = colocated.get(entityOrRoleName);
+    if (known != null) {
+      return known;
+    }
+    return colocated.computeIfAbsent(entityOrRoleName, name -> config.getRegions().stream()
+        .anyMatch(pattern -> name.matches(Arrays.stream(pattern.split("\\*", -1))
+            .map(Pattern::quote)
+            .collect(Collectors.joining(".*")))));
+  }
+}
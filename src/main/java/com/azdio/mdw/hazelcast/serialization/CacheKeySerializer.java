@@ -0,0 +1,108 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.invoke.MethodHandle;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.Type;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+/**
+ * Keys of the entity and collection regions, Hibernate's package-private {@code CacheKeyImplementation}.
+ * <p>
+ * The key hash is computed again by the constructor, without a session factory: basic id types are written by name,
+ * other types, composite ids of basic properties for instance, through Hazelcast's serialization like the id. Keys
+ * whose id type needs the session factory to hash, an id with an entity association, are Java-serialized whole.
+ */
+public class CacheKeySerializer implements StreamSerializer<Object> {
+
+  public static final int TYPE_ID = 1008;
+  public static final String TYPE_CLASS_NAME = "org.hibernate.cache.internal.CacheKeyImplementation";
+
+  static final Class<?> TYPE = type();
+  private static final MethodHandle NEW = Accessors.constructor(TYPE, Object.class, Type.class, String.class,
+      String.class, SessionFactoryImplementor.class);
+  static final MethodHandle ID = Accessors.getter(TYPE, "id");
+  private static final MethodHandle KEY_TYPE = Accessors.getter(TYPE, "type");
+  static final MethodHandle ENTITY_OR_ROLE_NAME = Accessors.getter(TYPE, "entityOrRoleName");
+  private static final MethodHandle TENANT_ID = Accessors.getter(TYPE, "tenantId");
+
+  @Override
+  public int getTypeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public void write(final ObjectDataOutput out, final Object key) throws IOException {
+    try {
+      final Type type = (Type) KEY_TYPE.invoke(key);
+      final Object id = ID.invoke(key);
+      final boolean hashable = HibernateTypes.isBasic(type) || hashableWithoutSessionFactory(type, id);
+      out.writeBoolean(hashable);
+      if (!hashable) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(buffer)) {
+          objectOut.writeObject(key);
+        }
+        out.writeByteArray(buffer.toByteArray());
+        return;
+      }
+      HibernateTypes.write(out, type);
+      out.writeObject(id);
+      out.writeUTF((String) ENTITY_OR_ROLE_NAME.invoke(key));
+      out.writeUTF((String) TENANT_ID.invoke(key));
+    } catch (final Throwable e) {
+      throw Accessors.rethrow(e);
+    }
+  }
+
+  @Override
+  public Object read(final ObjectDataInput in) throws IOException {
+    if (!in.readBoolean()) {
+      try (ObjectInputStream objectIn = new ClassLoaderAwareObjectInputStream(new ByteArrayInputStream(in.readByteArray()),
+          in.getClassLoader())) {
+        return objectIn.readObject();
+      } catch (final ClassNotFoundException e) {
+        throw new IOException(e);
+      }
+    }
+    final Type type = HibernateTypes.read(in);
+    final Object id = in.readObject();
+    final String entityOrRoleName = in.readUTF();
+    final String tenantId = in.readUTF();
+    try {
+      return NEW.invoke(id, type, entityOrRoleName, tenantId, (SessionFactoryImplementor) null);
+    } catch (final Throwable e) {
+      throw Accessors.rethrow(e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    // NOP
+  }
+
+  private static boolean hashableWithoutSessionFactory(final Type type, final Object id) {
+    try {
+      type.getHashCode(id, null);
+      return true;
+    } catch (final RuntimeException e) {
+      return false;
+    }
+  }
+
+  private static Class<?> type() {
+    try {
+      return Class.forName(TYPE_CLASS_NAME);
+    } catch (final ClassNotFoundException e) {
+      throw new IllegalStateException("Cannot access " + TYPE_CLASS_NAME, e);
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+
+import com.hazelcast.nio.ClassLoaderUtil;
+
+/**
+ * Java deserialization resolving classes through the class loader of the Hazelcast input.
+ */
+final class ClassLoaderAwareObjectInputStream extends ObjectInputStream {
+
+  private final ClassLoader classLoader;
+
+  ClassLoaderAwareObjectInputStream(final InputStream in, final ClassLoader classLoader) throws IOException {
+    super(in);
+    this.classLoader = classLoader;
+  }
+
+  @Override
+  protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+    return ClassLoaderUtil.loadClass(classLoader, desc.getName());
+  }
+}
@@ -0,0 +1,71 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+/**
+ * Collection state of the collection regions.
+ */
+public class CollectionCacheEntrySerializer implements StreamSerializer<CollectionCacheEntry> {
+
+  public static final int TYPE_ID = 1003;
+
+  private static final MethodHandle NEW = Accessors.constructor(CollectionCacheEntry.class, Serializable.class);
+  private static final MethodHandle STATE = Accessors.getter(CollectionCacheEntry.class, "state");
+
+  @Override
+  public int getTypeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public void write(final ObjectDataOutput out, final CollectionCacheEntry entry) throws IOException {
+    try {
+      final Object state = STATE.invoke(entry);
+      if (state instanceof Serializable[]) {
+        final Serializable[] values = (Serializable[]) state;
+        out.writeInt(values.length);
+        for (final Serializable value : values) {
+          out.writeObject(value);
+        }
+      } else {
+        out.writeInt(-1);
+        out.writeObject(state);
+      }
+    } catch (final Throwable e) {
+      throw Accessors.rethrow(e);
+    }
+  }
+
+  @Override
+  public CollectionCacheEntry read(final ObjectDataInput in) throws IOException {
+    final int length = in.readInt();
+    final Serializable state;
+    if (length < 0) {
+      state = in.readObject();
+    } else {
+      final Serializable[] values = new Serializable[length];
+      for (int i = 0; i < length; i++) {
+        values[i] = in.readObject();
+      }
+      state = values;
+    }
+    try {
+      return (CollectionCacheEntry) NEW.invoke(state);
+    } catch (final Throwable e) {
+      throw Accessors.rethrow(e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    // NOP
+  }
+}
@@ -0,0 +1,19 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * The entity and collection regions whose keys are placed by {@link AggregatePartitioningStrategy}.
+ */
+@Data
+public class ColocationConfig {
+
+  private boolean enabled = false;
+  /** Entity names and collection roles, {@code *} matching any characters. */
+  private List<String> regions = new ArrayList<>(Collections.singletonList("*"));
+
+}
@@ -0,0 +1,84 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+/**
+ * Java serialization of the {@code ImagesCache} values, compressed when the serialized form reaches the threshold.
+ * <p>
+ * Every value starts with the id of its codec, so any serializer reads what another wrote whatever its own settings.
+ * Clients built from {@code HazelcastService#getClientConfig()} get an instance with the codec and threshold of the
+ * members; those configured from the published XML instantiate it by class name, in which case they are read from
+ * the {@code azdio.cache.compression.codec} and {@code azdio.cache.compression.threshold} system properties.
+ */
+public class CompressingImageSerializer implements StreamSerializer<Object> {
+
+  public static final int TYPE_ID = 1001;
+
+  private final CompressionCodec codec;
+  private final int threshold;
+
+  public CompressingImageSerializer() {
+    this(CompressionCodec.valueOf(System.getProperty("azdio.cache.compression.codec", CompressionCodec.DEFLATE.name())),
+        Integer.getInteger("azdio.cache.compression.threshold", 4096));
+  }
+
+  public CompressingImageSerializer(final CompressionCodec codec, final int threshold) {
+    this.codec = codec;
+    this.threshold = threshold;
+  }
+
+  @Override
+  public int getTypeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public void write(final ObjectDataOutput out, final Object object) throws IOException {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try (ObjectOutputStream objectOut = new ObjectOutputStream(buffer)) {
+      objectOut.writeObject(object);
+    }
+    final byte[] raw = buffer.toByteArray();
+    if (codec == CompressionCodec.NONE || raw.length < threshold) {
+      out.writeByte(CompressionCodec.NONE.getId());
+      out.writeByteArray(raw);
+      CompressionStatistics.stored(raw.length);
+      return;
+    }
+    final long start = System.nanoTime();
+    final byte[] compressed = codec.compress(raw);
+    CompressionStatistics.compressed(raw.length, compressed.length, System.nanoTime() - start);
+    out.writeByte(codec.getId());
+    out.writeByteArray(compressed);
+  }
+
+  @Override
+  public Object read(final ObjectDataInput in) throws IOException {
+    final CompressionCodec valueCodec = CompressionCodec.of(in.readByte());
+    final byte[] bytes = in.readByteArray();
+    final long start = System.nanoTime();
+    try (InputStream decompressed = valueCodec.decompress(bytes);
+        ObjectInputStream objectIn = new ClassLoaderAwareObjectInputStream(decompressed, in.getClassLoader())) {
+      return objectIn.readObject();
+    } catch (final ClassNotFoundException e) {
+      throw new IOException(e);
+    } finally {
+      if (valueCodec != CompressionCodec.NONE) {
+        CompressionStatistics.decompressed(System.nanoTime() - start);
+      }
+    }
+  }
+
+  @Override
+  public void destroy() {
+    // NOP
+  }
+}
@@ -0,0 +1,87 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Codecs of {@link CompressingImageSerializer}. The id is written in front of every value, so values written with any
+ * codec can be read whatever codec is currently configured.
+ */
+public enum CompressionCodec {
+
+  NONE(0) {
+    @Override
+    OutputStream compress(final OutputStream out) {
+      return out;
+    }
+
+    @Override
+    InputStream decompress(final InputStream in) {
+      return in;
+    }
+  },
+  DEFLATE(1) {
+    @Override
+    OutputStream compress(final OutputStream out) {
+      return new DeflaterOutputStream(out);
+    }
+
+    @Override
+    InputStream decompress(final InputStream in) {
+      return new InflaterInputStream(in);
+    }
+  },
+  GZIP(2) {
+    @Override
+    OutputStream compress(final OutputStream out) throws IOException {
+      return new GZIPOutputStream(out);
+    }
+
+    @Override
+    InputStream decompress(final InputStream in) throws IOException {
+      return new GZIPInputStream(in);
+    }
+  };
+
+  private final int id;
+
+  CompressionCodec(final int id) {
+    this.id = id;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  abstract OutputStream compress(OutputStream out) throws IOException;
+
+  abstract InputStream decompress(InputStream in) throws IOException;
+
+  byte[] compress(final byte[] bytes) throws IOException {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 2);
+    try (OutputStream out = compress(buffer)) {
+      out.write(bytes);
+    }
+    return buffer.toByteArray();
+  }
+
+  InputStream decompress(final byte[] bytes) throws IOException {
+    return decompress(new ByteArrayInputStream(bytes));
+  }
+
+  static CompressionCodec of(final int id) {
+    for (final CompressionCodec codec : values()) {
+      if (codec.id == id) {
+        return codec;
+      }
+    }
+    throw new IllegalArgumentException("Unknown compression codec " + id);
+  }
+}
@@ -0,0 +1,39 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exports the {@link CompressionStatistics} of the {@code ImagesCache} values.
+ */
+@Component
+public class CompressionMetrics implements MeterBinder {
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    FunctionCounter.builder("cache.compression.bytes.raw", CompressionStatistics.class, type -> CompressionStatistics.getRawBytes())
+        .baseUnit("bytes")
+        .description("Serialized size of the values before compression")
+        .register(registry);
+    FunctionCounter.builder("cache.compression.bytes.saved", CompressionStatistics.class, type -> CompressionStatistics.getSavedBytes())
+        .baseUnit("bytes")
+        .description("Bytes saved by compressing values")
+        .register(registry);
+    FunctionTimer.builder("cache.compression.time", CompressionStatistics.class,
+        type -> CompressionStatistics.getCompressions(), type -> CompressionStatistics.getCompressNanos(), TimeUnit.NANOSECONDS)
+        .tag("operation", "compress")
+        .description("Time spent compressing values")
+        .register(registry);
+    FunctionTimer.builder("cache.compression.time", CompressionStatistics.class,
+        type -> CompressionStatistics.getDecompressions(), type -> CompressionStatistics.getDecompressNanos(), TimeUnit.NANOSECONDS)
+        .tag("operation", "decompress")
+        .description("Time spent decompressing values")
+        .register(registry);
+  }
+}
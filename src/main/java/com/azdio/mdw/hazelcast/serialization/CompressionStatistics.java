@@ -0,0 +1,64 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of {@link CompressingImageSerializer}, shared by every serializer instance of the JVM.
+ */
+public final class CompressionStatistics {
+
+  private static final AtomicLong rawBytes = new AtomicLong();
+  private static final AtomicLong storedBytes = new AtomicLong();
+  private static final AtomicLong compressions = new AtomicLong();
+  private static final AtomicLong compressNanos = new AtomicLong();
+  private static final AtomicLong decompressions = new AtomicLong();
+  private static final AtomicLong decompressNanos = new AtomicLong();
+
+  private CompressionStatistics() {
+  }
+
+  static void stored(final int bytes) {
+    rawBytes.addAndGet(bytes);
+    storedBytes.addAndGet(bytes);
+  }
+
+  static void compressed(final int raw, final int compressed, final long nanos) {
+    rawBytes.addAndGet(raw);
+    storedBytes.addAndGet(compressed);
+    compressions.incrementAndGet();
+    compressNanos.addAndGet(nanos);
+  }
+
+  static void decompressed(final long nanos) {
+    decompressions.incrementAndGet();
+    decompressNanos.addAndGet(nanos);
+  }
+
+  public static long getRawBytes() {
+    return rawBytes.get();
+  }
+
+  public static long getStoredBytes() {
+    return storedBytes.get();
+  }
+
+  public static long getSavedBytes() {
+    return rawBytes.get() - storedBytes.get();
+  }
+
+  public static long getCompressions() {
+    return compressions.get();
+  }
+
+  public static long getCompressNanos() {
+    return compressNanos.get();
+  }
+
+  public static long getDecompressions() {
+    return decompressions.get();
+  }
+
+  public static long getDecompressNanos() {
+    return decompressNanos.get();
+  }
+}
@@ -0,0 +1,53 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.cache.internal.QueryResultsCacheImpl;
+import org.hibernate.cache.spi.QueryKey;
+import org.hibernate.cache.spi.entry.CollectionCacheEntry;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+
+import com.hazelcast.config.SerializerConfig;
+
+/**
+ * Serializers of the Hibernate second-level cache payloads. Members and clients must register the same set, since the
+ * serialized form of a key is also its identity in the cluster.
+ * <p>
+ * Timestamps regions hold table names and {@link Long} timestamps, which Hazelcast already serializes natively.
+ */
+public final class HibernateSerializers {
+
+  private HibernateSerializers() {
+  }
+
+  public static List<SerializerConfig> serializerConfigs() {
+    return serializerConfigs(false);
+  }
+
+  /**
+   * @param digestQueryKeys query keys as a {@link QueryKeyDigestSerializer digest} rather than in full
+   */
+  public static List<SerializerConfig> serializerConfigs(final boolean digestQueryKeys) {
+    final List<SerializerConfig> serializerConfigs = new ArrayList<>(Arrays.asList(
+        new SerializerConfig()
+            .setTypeClassName(CacheKeySerializer.TYPE_CLASS_NAME)
+            .setClassName(CacheKeySerializer.class.getName()),
+        serializerConfig(StandardCacheEntryImpl.class, StandardCacheEntrySerializer.class),
+        serializerConfig(CollectionCacheEntry.class, CollectionCacheEntrySerializer.class),
+        serializerConfig(AbstractReadWriteAccess.Item.class, ReadWriteItemSerializer.class),
+        serializerConfig(AbstractReadWriteAccess.SoftLockImpl.class, SoftLockSerializer.class),
+        serializerConfig(QueryResultsCacheImpl.CacheItem.class, QueryResultsSerializer.class)));
+    serializerConfigs.add(serializerConfig(QueryKey.class,
+        digestQueryKeys ? QueryKeyDigestSerializer.class : QueryKeySerializer.class));
+    return serializerConfigs;
+  }
+
+  private static SerializerConfig serializerConfig(final Class<?> typeClass, final Class<?> serializerClass) {
+    return new SerializerConfig()
+        .setTypeClassName(typeClass.getName())
+        .setClassName(serializerClass.getName());
+  }
+}
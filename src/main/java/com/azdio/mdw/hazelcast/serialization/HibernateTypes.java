@@ -0,0 +1,42 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import static java.util.Objects.isNull;
+
+import java.io.IOException;
+
+import org.hibernate.type.BasicType;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.Type;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+/**
+ * Writes the Hibernate types registered in the default {@link BasicTypeRegistry} by name, and any other type through
+ * Hazelcast's regular serialization.
+ */
+final class HibernateTypes {
+
+  private static final BasicTypeRegistry BASIC_TYPES = new BasicTypeRegistry();
+
+  private HibernateTypes() {
+  }
+
+  static boolean isBasic(final Type type) {
+    return type instanceof BasicType && BASIC_TYPES.getRegisteredType(type.getName()) == type;
+  }
+
+  static void write(final ObjectDataOutput out, final Type type) throws IOException {
+    if (isBasic(type)) {
+      out.writeUTF(type.getName());
+    } else {
+      out.writeUTF(null);
+      out.writeObject(type);
+    }
+  }
+
+  static Type read(final ObjectDataInput in) throws IOException {
+    final String name = in.readUTF();
+    return isNull(name) ? in.readObject() : BASIC_TYPES.getRegisteredType(name);
+  }
+}
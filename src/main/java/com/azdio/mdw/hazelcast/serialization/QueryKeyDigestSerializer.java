@@ -0,0 +1,136 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.cache.spi.QueryKey;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+/**
+ * Keys of the query-results regions as a fixed-size digest, whatever the length of the SQL: {@value #SIZE} bytes, so
+ * that hashing them to a partition and comparing them costs the same for every query.
+ * <p>
+ * The digest is a SHA-256 of the SHA-256 of the SQL, cached per statement, and of the parameters in their
+ * {@link QueryKeySerializer} form. The length and hash of the SQL follow as a fingerprint, then the tables of the SQL
+ * as a bit set, see {@link QuerySpaces#mask(java.util.Set)}.
+ * <p>
+ * Hazelcast compares and hashes keys by all their bytes, the fingerprint included: two statements whose digests collide
+ * but whose fingerprints differ are different keys, so a lookup of one misses the results of the other. Digested forms
+ * read back are only written as such when their fingerprint is whole; anything else is digested as SQL, which matches
+ * no stored key.
+ * <p>
+ * A key cannot be rebuilt from its digest: keys read back are parameterless {@link QueryKey}s whose SQL is
+ * {@value #PREFIX} and the Base64 of the digested form, which they are written as again.
+ */
+public class QueryKeyDigestSerializer implements StreamSerializer<QueryKey> {
+
+  public static final int TYPE_ID = 1009;
+  public static final int DIGEST_BYTES = 32;
+  public static final int SIZE = DIGEST_BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES;
+  public static final String PREFIX = "digest:";
+
+  private static final int MAX_STATEMENTS = 4096;
+  private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  });
+
+  private final Map<String, Statement> statements = new ConcurrentHashMap<>();
+
+  @Override
+  public int getTypeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public void write(final ObjectDataOutput out, final QueryKey key) throws IOException {
+    final String sql = QueryKeySerializer.sqlQueryString(key);
+    if (sql.startsWith(PREFIX)) {
+      final byte[] digested = digested(sql);
+      if (digested.length == SIZE && fingerprintSqlLength(digested) >= 0) {
+        out.write(digested);
+        return;
+      }
+    }
+    final Statement statement = statement(sql);
+    final BufferObjectDataOutput parameters = ((InternalSerializationService) out.getSerializationService())
+        .createObjectDataOutput(256);
+    try {
+      QueryKeySerializer.writeParameters(parameters, key);
+      final MessageDigest sha256 = SHA_256.get();
+      sha256.update(statement.digest);
+      sha256.update(parameters.toByteArray());
+      out.write(sha256.digest());
+    } finally {
+      parameters.close();
+    }
+    out.writeInt(sql.length());
+    out.writeInt(sql.hashCode());
+    out.writeLong(statement.tables);
+  }
+
+  @Override
+  public QueryKey read(final ObjectDataInput in) throws IOException {
+    final byte[] digested = new byte[SIZE];
+    in.readFully(digested);
+    return QueryKeySerializer.newInstance(PREFIX + Base64.getEncoder().encodeToString(digested));
+  }
+
+  @Override
+  public void destroy() {
+    statements.clear();
+  }
+
+  private static byte[] digested(final String sql) {
+    try {
+      return Base64.getDecoder().decode(sql.substring(PREFIX.length()));
+    } catch (final IllegalArgumentException e) {
+      return new byte[0];
+    }
+  }
+
+  /**
+   * The SQL length of the fingerprint, big-endian as Hazelcast writes it by default.
+   */
+  private static int fingerprintSqlLength(final byte[] digested) {
+    return (digested[DIGEST_BYTES] & 0xff) << 24 | (digested[DIGEST_BYTES + 1] & 0xff) << 16
+        | (digested[DIGEST_BYTES + 2] & 0xff) << 8 | digested[DIGEST_BYTES + 3] & 0xff;
+  }
+
+  private Statement statement(final String sql) {
+    Statement statement = statements.get(sql);
+    if (statement == null) {
+      if (statements.size() >= MAX_STATEMENTS) {
+        // statements come from a bounded set of mappings and named queries, only ad hoc SQL fills this
+        statements.clear();
+      }
+      statement = new Statement(SHA_256.get().digest(sql.getBytes(StandardCharsets.UTF_8)),
+          QuerySpaces.mask(QuerySpaces.of(sql)));
+      statements.put(sql, statement);
+    }
+    return statement;
+  }
+
+  private static final class Statement {
+    private final byte[] digest;
+    private final long tables;
+
+    Statement(final byte[] digest, final long tables) {
+      this.digest = digest;
+      this.tables = tables;
+    }
+  }
+}
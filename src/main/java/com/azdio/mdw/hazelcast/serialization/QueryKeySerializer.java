@@ -0,0 +1,214 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import static java.util.Objects.isNull;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.hibernate.cache.spi.QueryKey;
+import org.hibernate.engine.spi.TypedValue;
+import org.hibernate.transform.CacheableResultTransformer;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.Type;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+/**
+ * Keys of the query-results regions.
+ * <p>
+ * Hazelcast compares keys by their serialized form, so named parameters are written in name order to keep equal keys
+ * byte-identical. Parameter types registered in Hibernate's default {@link BasicTypeRegistry} are written by name
+ * rather than Java-serialized.
+ */
+public class QueryKeySerializer implements StreamSerializer<QueryKey> {
+
+  public static final int TYPE_ID = 1007;
+
+  private static final MethodHandle NEW = Accessors.constructor(QueryKey.class, String.class, Type[].class,
+      Object[].class, Map.class, Integer.class, Integer.class, Set.class, String.class, CacheableResultTransformer.class);
+  private static final MethodHandle SQL_QUERY_STRING = Accessors.getter(QueryKey.class, "sqlQueryString");
+  private static final MethodHandle POSITIONAL_PARAMETER_TYPES = Accessors.getter(QueryKey.class, "positionalParameterTypes");
+  private static final MethodHandle POSITIONAL_PARAMETER_VALUES = Accessors.getter(QueryKey.class, "positionalParameterValues");
+  private static final MethodHandle FIRST_ROW = Accessors.getter(QueryKey.class, "firstRow");
+  private static final MethodHandle MAX_ROWS = Accessors.getter(QueryKey.class, "maxRows");
+  private static final MethodHandle TENANT_IDENTIFIER = Accessors.getter(QueryKey.class, "tenantIdentifier");
+  private static final MethodHandle FILTER_KEYS = Accessors.getter(QueryKey.class, "filterKeys");
+
+  @Override
+  public int getTypeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public void write(final ObjectDataOutput out, final QueryKey key) throws IOException {
+    out.writeUTF(sqlQueryString(key));
+    writeParameters(out, key);
+  }
+
+  /**
+   * Everything but the SQL, in the same form.
+   */
+  static void writeParameters(final ObjectDataOutput out, final QueryKey key) throws IOException {
+    try {
+      writeTypes(out, (Type[]) POSITIONAL_PARAMETER_TYPES.invoke(key));
+      writeArray(out, (Object[]) POSITIONAL_PARAMETER_VALUES.invoke(key));
+      writeNamedParameters(out, key.getNamedParameters());
+      writeInteger(out, (Integer) FIRST_ROW.invoke(key));
+      writeInteger(out, (Integer) MAX_ROWS.invoke(key));
+      out.writeUTF((String) TENANT_IDENTIFIER.invoke(key));
+      out.writeObject(FILTER_KEYS.invoke(key));
+      out.writeObject(key.getResultTransformer());
+    } catch (final Throwable e) {
+      throw Accessors.rethrow(e);
+    }
+  }
+
+  /**
+   * A key without parameters, as the {@link QueryKeyDigestSerializer} reads them back.
+   */
+  static QueryKey newInstance(final String sqlQueryString) {
+    try {
+      return (QueryKey) NEW.invoke(sqlQueryString, new Type[0], new Object[0], new HashMap<String, Object>(), null, null,
+          null, null, null);
+    } catch (final Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public QueryKey read(final ObjectDataInput in) throws IOException {
+    final String sqlQueryString = in.readUTF();
+    final Type[] positionalParameterTypes = readTypes(in);
+    final Object[] positionalParameterValues = readArray(in);
+    final Map<String, Object> namedParameters = readNamedParameters(in);
+    final Integer firstRow = readInteger(in);
+    final Integer maxRows = readInteger(in);
+    final String tenantIdentifier = in.readUTF();
+    final Set<?> filterKeys = in.readObject();
+    final CacheableResultTransformer customTransformer = in.readObject();
+    try {
+      return (QueryKey) NEW.invoke(sqlQueryString, positionalParameterTypes, positionalParameterValues,
+          namedParameters, firstRow, maxRows, filterKeys, tenantIdentifier, customTransformer);
+    } catch (final Throwable e) {
+      throw Accessors.rethrow(e);
+    }
+  }
+
+  /**
+   * The SQL of a key, which {@link QueryKey} does not expose.
+   */
+  public static String sqlQueryString(final QueryKey key) {
+    try {
+      return (String) SQL_QUERY_STRING.invoke(key);
+    } catch (final Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    // NOP
+  }
+
+  private static void writeTypes(final ObjectDataOutput out, final Type[] types) throws IOException {
+    if (isNull(types)) {
+      out.writeInt(-1);
+      return;
+    }
+    out.writeInt(types.length);
+    for (final Type type : types) {
+      HibernateTypes.write(out, type);
+    }
+  }
+
+  private static Type[] readTypes(final ObjectDataInput in) throws IOException {
+    final int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    final Type[] types = new Type[length];
+    for (int i = 0; i < length; i++) {
+      types[i] = HibernateTypes.read(in);
+    }
+    return types;
+  }
+
+  private static void writeArray(final ObjectDataOutput out, final Object[] values) throws IOException {
+    if (isNull(values)) {
+      out.writeInt(-1);
+      return;
+    }
+    out.writeInt(values.length);
+    for (final Object value : values) {
+      out.writeObject(value);
+    }
+  }
+
+  private static Object[] readArray(final ObjectDataInput in) throws IOException {
+    final int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    final Object[] values = new Object[length];
+    for (int i = 0; i < length; i++) {
+      values[i] = in.readObject();
+    }
+    return values;
+  }
+
+  private static void writeNamedParameters(final ObjectDataOutput out, final Map<?, ?> namedParameters)
+      throws IOException {
+    if (isNull(namedParameters)) {
+      out.writeInt(-1);
+      return;
+    }
+    out.writeInt(namedParameters.size());
+    for (final Map.Entry<?, ?> parameter : new TreeMap<>(namedParameters).entrySet()) {
+      out.writeUTF((String) parameter.getKey());
+      final Object value = parameter.getValue();
+      if (value instanceof TypedValue) {
+        out.writeBoolean(true);
+        HibernateTypes.write(out, ((TypedValue) value).getType());
+        out.writeObject(((TypedValue) value).getValue());
+      } else {
+        out.writeBoolean(false);
+        out.writeObject(value);
+      }
+    }
+  }
+
+  private static Map<String, Object> readNamedParameters(final ObjectDataInput in) throws IOException {
+    final int size = in.readInt();
+    if (size < 0) {
+      return null;
+    }
+    final Map<String, Object> namedParameters = new HashMap<>(size * 4 / 3 + 1);
+    for (int i = 0; i < size; i++) {
+      final String name = in.readUTF();
+      if (in.readBoolean()) {
+        final Type type = HibernateTypes.read(in);
+        namedParameters.put(name, new TypedValue(type, in.readObject()));
+      } else {
+        namedParameters.put(name, in.readObject());
+      }
+    }
+    return namedParameters;
+  }
+
+  private static void writeInteger(final ObjectDataOutput out, final Integer value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeInt(value);
+    }
+  }
+
+  private static Integer readInteger(final ObjectDataInput in) throws IOException {
+    return in.readBoolean() ? in.readInt() : null;
+  }
+}
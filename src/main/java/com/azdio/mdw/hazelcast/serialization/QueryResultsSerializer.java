@@ -0,0 +1,63 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.cache.internal.QueryResultsCacheImpl;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+/**
+ * Cached results of the query-results regions.
+ */
+public class QueryResultsSerializer implements StreamSerializer<QueryResultsCacheImpl.CacheItem> {
+
+  public static final int TYPE_ID = 1006;
+
+  private static final MethodHandle NEW = Accessors.constructor(QueryResultsCacheImpl.CacheItem.class, long.class, List.class);
+  private static final MethodHandle TIMESTAMP = Accessors.getter(QueryResultsCacheImpl.CacheItem.class, "timestamp");
+  private static final MethodHandle RESULTS = Accessors.getter(QueryResultsCacheImpl.CacheItem.class, "results");
+
+  @Override
+  public int getTypeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public void write(final ObjectDataOutput out, final QueryResultsCacheImpl.CacheItem item) throws IOException {
+    try {
+      out.writeLong((long) TIMESTAMP.invoke(item));
+      final List<?> results = (List<?>) RESULTS.invoke(item);
+      out.writeInt(results.size());
+      for (final Object result : results) {
+        out.writeObject(result);
+      }
+    } catch (final Throwable e) {
+      throw Accessors.rethrow(e);
+    }
+  }
+
+  @Override
+  public QueryResultsCacheImpl.CacheItem read(final ObjectDataInput in) throws IOException {
+    final long timestamp = in.readLong();
+    final int size = in.readInt();
+    final List<Object> results = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      results.add(in.readObject());
+    }
+    try {
+      return (QueryResultsCacheImpl.CacheItem) NEW.invoke(timestamp, results);
+    } catch (final Throwable e) {
+      throw Accessors.rethrow(e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    // NOP
+  }
+}
@@ -0,0 +1,129 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The tables a query reads, its query spaces in Hibernate's terms, found in the SQL of its {@code QueryKey}: the names
+ * following {@code from} and {@code join}, and the further tables of a comma separated {@code from} list.
+ * <p>
+ * Names are compared in lower case and without identifier quotes, see {@link #normalize(String)}, since the timestamps
+ * region is keyed by the same table names as rendered in the SQL.
+ */
+public final class QuerySpaces {
+
+  private static final Pattern TOKEN = Pattern.compile("[\\w$.\"`\\[\\]]+|'(?:[^']|'')*'|[,()]");
+  private static final String QUOTES = "\"`[]";
+
+  private QuerySpaces() {
+  }
+
+  public static Set<String> of(final String sql) {
+    final List<String> tokens = new ArrayList<>();
+    final Matcher matcher = TOKEN.matcher(sql);
+    while (matcher.find()) {
+      tokens.add(matcher.group());
+    }
+    final Set<String> spaces = new HashSet<>();
+    for (int i = 0; i < tokens.size() - 1; i++) {
+      final String token = tokens.get(i);
+      if ("join".equalsIgnoreCase(token)) {
+        addTable(tokens, i + 1, spaces);
+      } else if ("from".equalsIgnoreCase(token)) {
+        // from a a0_, b b1_ where ...
+        int j = i + 1;
+        while (addTable(tokens, j, spaces)) {
+          j++;
+          while (j < tokens.size() && isAlias(tokens.get(j))) {
+            j++;
+          }
+          if (j >= tokens.size() || !",".equals(tokens.get(j))) {
+            break;
+          }
+          j++;
+        }
+      }
+    }
+    return spaces;
+  }
+
+  /**
+   * Lower case, without the identifier quotes of any dialect.
+   */
+  public static String normalize(final String table) {
+    final StringBuilder normalized = new StringBuilder(table.length());
+    for (int i = 0; i < table.length(); i++) {
+      final char c = table.charAt(i);
+      if (QUOTES.indexOf(c) < 0) {
+        normalized.append(c);
+      }
+    }
+    return normalized.toString().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * The tables as a 64 bit set, one bit per table: different tables may share a bit.
+   */
+  public static long mask(final Set<String> tables) {
+    long mask = 0;
+    for (final String table : tables) {
+      mask |= 1L << bit(table);
+    }
+    return mask;
+  }
+
+  /**
+   * @param table a normalized table name
+   */
+  public static int bit(final String table) {
+    return table.hashCode() & (Long.SIZE - 1);
+  }
+
+  private static boolean addTable(final List<String> tokens, final int index, final Set<String> spaces) {
+    if (index >= tokens.size() || !isName(tokens.get(index))) {
+      // a sub-query, whose own from is found later
+      return false;
+    }
+    spaces.add(normalize(tokens.get(index)));
+    return true;
+  }
+
+  private static boolean isAlias(final String token) {
+    return isName(token) && !isKeyword(token);
+  }
+
+  private static boolean isName(final String token) {
+    final char first = token.charAt(0);
+    return first != '(' && first != ')' && first != ',' && first != '\'';
+  }
+
+  private static boolean isKeyword(final String token) {
+    switch (token.toLowerCase(Locale.ROOT)) {
+      case "where":
+      case "inner":
+      case "left":
+      case "right":
+      case "full":
+      case "outer":
+      case "cross":
+      case "join":
+      case "on":
+      case "group":
+      case "order":
+      case "having":
+      case "union":
+      case "limit":
+      case "offset":
+      case "fetch":
+      case "for":
+        return true;
+      default:
+        return false;
+    }
+  }
+}
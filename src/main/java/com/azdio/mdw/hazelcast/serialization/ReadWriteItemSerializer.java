@@ -0,0 +1,56 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+/**
+ * Wrapper the read-write access strategy stores around every entity and collection entry.
+ */
+public class ReadWriteItemSerializer implements StreamSerializer<AbstractReadWriteAccess.Item> {
+
+  public static final int TYPE_ID = 1004;
+
+  private static final MethodHandle NEW = Accessors.constructor(AbstractReadWriteAccess.Item.class,
+      Object.class, Object.class, long.class);
+  private static final MethodHandle VERSION = Accessors.getter(AbstractReadWriteAccess.Item.class, "version");
+  private static final MethodHandle TIMESTAMP = Accessors.getter(AbstractReadWriteAccess.Item.class, "timestamp");
+
+  @Override
+  public int getTypeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public void write(final ObjectDataOutput out, final AbstractReadWriteAccess.Item item) throws IOException {
+    try {
+      out.writeLong((long) TIMESTAMP.invoke(item));
+      out.writeObject(VERSION.invoke(item));
+      out.writeObject(item.getValue());
+    } catch (final Throwable e) {
+      throw Accessors.rethrow(e);
+    }
+  }
+
+  @Override
+  public AbstractReadWriteAccess.Item read(final ObjectDataInput in) throws IOException {
+    final long timestamp = in.readLong();
+    final Object version = in.readObject();
+    final Object value = in.readObject();
+    try {
+      return (AbstractReadWriteAccess.Item) NEW.invoke(value, version, timestamp);
+    } catch (final Throwable e) {
+      throw Accessors.rethrow(e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    // NOP
+  }
+}
@@ -0,0 +1,80 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.util.UUID;
+
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+/**
+ * Soft locks the read-write access strategy puts in place of an entry while it is being updated.
+ */
+public class SoftLockSerializer implements StreamSerializer<AbstractReadWriteAccess.SoftLockImpl> {
+
+  public static final int TYPE_ID = 1005;
+
+  private static final Class<AbstractReadWriteAccess.SoftLockImpl> TYPE = AbstractReadWriteAccess.SoftLockImpl.class;
+  private static final MethodHandle NEW = Accessors.constructor(TYPE, long.class, UUID.class, long.class, Object.class);
+  private static final MethodHandle SOURCE_UUID = Accessors.getter(TYPE, "sourceUuid");
+  private static final MethodHandle LOCK_ID = Accessors.getter(TYPE, "lockId");
+  private static final MethodHandle VERSION = Accessors.getter(TYPE, "version");
+  private static final MethodHandle TIMEOUT = Accessors.getter(TYPE, "timeout");
+  private static final MethodHandle CONCURRENT = Accessors.getter(TYPE, "concurrent");
+  private static final MethodHandle SET_CONCURRENT = Accessors.setter(TYPE, "concurrent");
+  private static final MethodHandle MULTIPLICITY = Accessors.getter(TYPE, "multiplicity");
+  private static final MethodHandle SET_MULTIPLICITY = Accessors.setter(TYPE, "multiplicity");
+  private static final MethodHandle UNLOCK_TIMESTAMP = Accessors.getter(TYPE, "unlockTimestamp");
+  private static final MethodHandle SET_UNLOCK_TIMESTAMP = Accessors.setter(TYPE, "unlockTimestamp");
+
+  @Override
+  public int getTypeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public void write(final ObjectDataOutput out, final AbstractReadWriteAccess.SoftLockImpl lock) throws IOException {
+    try {
+      final UUID sourceUuid = (UUID) SOURCE_UUID.invoke(lock);
+      out.writeLong(sourceUuid.getMostSignificantBits());
+      out.writeLong(sourceUuid.getLeastSignificantBits());
+      out.writeLong((long) LOCK_ID.invoke(lock));
+      out.writeLong((long) TIMEOUT.invoke(lock));
+      out.writeBoolean((boolean) CONCURRENT.invoke(lock));
+      out.writeInt((int) MULTIPLICITY.invoke(lock));
+      out.writeLong((long) UNLOCK_TIMESTAMP.invoke(lock));
+      out.writeObject(VERSION.invoke(lock));
+    } catch (final Throwable e) {
+      throw Accessors.rethrow(e);
+    }
+  }
+
+  @Override
+  public AbstractReadWriteAccess.SoftLockImpl read(final ObjectDataInput in) throws IOException {
+    final UUID sourceUuid = new UUID(in.readLong(), in.readLong());
+    final long lockId = in.readLong();
+    final long timeout = in.readLong();
+    final boolean concurrent = in.readBoolean();
+    final int multiplicity = in.readInt();
+    final long unlockTimestamp = in.readLong();
+    final Object version = in.readObject();
+    try {
+      final AbstractReadWriteAccess.SoftLockImpl lock =
+          (AbstractReadWriteAccess.SoftLockImpl) NEW.invoke(timeout, sourceUuid, lockId, version);
+      SET_CONCURRENT.invoke(lock, concurrent);
+      SET_MULTIPLICITY.invoke(lock, multiplicity);
+      SET_UNLOCK_TIMESTAMP.invoke(lock, unlockTimestamp);
+      return lock;
+    } catch (final Throwable e) {
+      throw Accessors.rethrow(e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    // NOP
+  }
+}
@@ -0,0 +1,58 @@
+package com.azdio.mdw.hazelcast.serialization;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+/**
+ * Entity state of the entity regions.
+ */
+public class StandardCacheEntrySerializer implements StreamSerializer<StandardCacheEntryImpl> {
+
+  public static final int TYPE_ID = 1002;
+
+  private static final MethodHandle NEW = Accessors.constructor(StandardCacheEntryImpl.class,
+      Serializable[].class, String.class, Object.class);
+
+  @Override
+  public int getTypeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public void write(final ObjectDataOutput out, final StandardCacheEntryImpl entry) throws IOException {
+    out.writeUTF(entry.getSubclass());
+    out.writeObject(entry.getVersion());
+    final Serializable[] state = entry.getDisassembledState();
+    out.writeInt(state.length);
+    for (final Serializable value : state) {
+      out.writeObject(value);
+    }
+  }
+
+  @Override
+  public StandardCacheEntryImpl read(final ObjectDataInput in) throws IOException {
+    final String subclass = in.readUTF();
+    final Object version = in.readObject();
+    final Serializable[] state = new Serializable[in.readInt()];
+    for (int i = 0; i < state.length; i++) {
+      state[i] = in.readObject();
+    }
+    try {
+      return (StandardCacheEntryImpl) NEW.invoke(state, subclass, version);
+    } catch (final Throwable e) {
+      throw Accessors.rethrow(e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    // NOP
+  }
+}
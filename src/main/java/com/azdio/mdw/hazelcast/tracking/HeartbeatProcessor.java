@@ -0,0 +1,58 @@
+package com.azdio.mdw.hazelcast.tracking;
+
+import static java.util.Objects.isNull;
+
+import java.util.Map;
+
+import com.hazelcast.map.EntryBackupProcessor;
+import com.hazelcast.map.EntryProcessor;
+
+import lombok.Getter;
+
+/**
+ * Records a heartbeat on the partition thread that owns the user, and returns nothing.
+ * <p>
+ * A heartbeat of the same device less than {@code coalesceMillis} after the recorded one, or older, is dropped: the
+ * entry is not written, and neither backup nor event is sent. A recorded heartbeat is then at most
+ * {@code coalesceMillis} old.
+ */
+@Getter
+public class HeartbeatProcessor implements EntryProcessor<String, PlayingDevice>, EntryBackupProcessor<String, PlayingDevice> {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String device;
+  private final long heartbeatMillis;
+  private final long coalesceMillis;
+  /**
+   * Whether the primary was written, read by Hazelcast after {@link #process} to decide on a backup.
+   */
+  private transient boolean written;
+
+  public HeartbeatProcessor(final String device, final long heartbeatMillis, final long coalesceMillis) {
+    this.device = device;
+    this.heartbeatMillis = heartbeatMillis;
+    this.coalesceMillis = coalesceMillis;
+  }
+
+  @Override
+  public Object process(final Map.Entry<String, PlayingDevice> entry) {
+    final PlayingDevice current = entry.getValue();
+    if (isNull(current) || !current.getDevice().equals(device)
+        || heartbeatMillis - current.getHeartbeatMillis() >= coalesceMillis) {
+      entry.setValue(new PlayingDevice(device, heartbeatMillis));
+      written = true;
+    }
+    return null;
+  }
+
+  @Override
+  public void processBackup(final Map.Entry<String, PlayingDevice> entry) {
+    entry.setValue(new PlayingDevice(device, heartbeatMillis));
+  }
+
+  @Override
+  public EntryBackupProcessor<String, PlayingDevice> getBackupProcessor() {
+    return written ? this : null;
+  }
+}
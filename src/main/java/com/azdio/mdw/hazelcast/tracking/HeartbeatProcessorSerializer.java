@@ -0,0 +1,36 @@
+package com.azdio.mdw.hazelcast.tracking;
+
+import java.io.IOException;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+/**
+ * A {@link HeartbeatProcessor} sent to the owner of the user, and to its backups when it was written.
+ */
+public class HeartbeatProcessorSerializer implements StreamSerializer<HeartbeatProcessor> {
+
+  public static final int TYPE_ID = 1011;
+
+  @Override
+  public int getTypeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public void write(final ObjectDataOutput out, final HeartbeatProcessor processor) throws IOException {
+    out.writeUTF(processor.getDevice());
+    out.writeLong(processor.getHeartbeatMillis());
+    out.writeLong(processor.getCoalesceMillis());
+  }
+
+  @Override
+  public HeartbeatProcessor read(final ObjectDataInput in) throws IOException {
+    return new HeartbeatProcessor(in.readUTF(), in.readLong(), in.readLong());
+  }
+
+  @Override
+  public void destroy() {
+  }
+}
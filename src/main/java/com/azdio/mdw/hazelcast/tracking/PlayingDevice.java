@@ -0,0 +1,15 @@
+package com.azdio.mdw.hazelcast.tracking;
+
+import lombok.Data;
+
+/**
+ * The device a user is playing on and its last heartbeat, the value of the {@code PlayingDevices.*} maps in high-write
+ * mode.
+ */
+@Data
+public class PlayingDevice {
+
+  private final String device;
+  private final long heartbeatMillis;
+
+}
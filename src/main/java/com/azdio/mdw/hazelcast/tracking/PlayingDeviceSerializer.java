@@ -0,0 +1,35 @@
+package com.azdio.mdw.hazelcast.tracking;
+
+import java.io.IOException;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+/**
+ * A {@link PlayingDevice} as the device and the heartbeat, without class name.
+ */
+public class PlayingDeviceSerializer implements StreamSerializer<PlayingDevice> {
+
+  public static final int TYPE_ID = 1010;
+
+  @Override
+  public int getTypeId() {
+    return TYPE_ID;
+  }
+
+  @Override
+  public void write(final ObjectDataOutput out, final PlayingDevice playingDevice) throws IOException {
+    out.writeUTF(playingDevice.getDevice());
+    out.writeLong(playingDevice.getHeartbeatMillis());
+  }
+
+  @Override
+  public PlayingDevice read(final ObjectDataInput in) throws IOException {
+    return new PlayingDevice(in.readUTF(), in.readLong());
+  }
+
+  @Override
+  public void destroy() {
+  }
+}
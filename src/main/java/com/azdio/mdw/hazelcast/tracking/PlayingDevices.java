@@ -0,0 +1,37 @@
+package com.azdio.mdw.hazelcast.tracking;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.IMap;
+
+/**
+ * Heartbeats of the {@code PlayingDevices.*} maps in high-write mode. Members and clients must register the same
+ * serializers.
+ */
+public final class PlayingDevices {
+
+  private PlayingDevices() {
+  }
+
+  public static List<SerializerConfig> serializerConfigs() {
+    return Arrays.asList(
+        new SerializerConfig()
+            .setTypeClassName(PlayingDevice.class.getName())
+            .setClassName(PlayingDeviceSerializer.class.getName()),
+        new SerializerConfig()
+            .setTypeClassName(HeartbeatProcessor.class.getName())
+            .setClassName(HeartbeatProcessorSerializer.class.getName()));
+  }
+
+  /**
+   * Sends a heartbeat without waiting for it: heartbeats of different users are applied in parallel by the partition
+   * threads, and the future only completes with {@code null}.
+   */
+  public static ICompletableFuture<?> heartbeat(final IMap<String, PlayingDevice> map, final String user,
+      final String device, final long coalesceMillis) {
+    return map.submitToKey(user, new HeartbeatProcessor(device, System.currentTimeMillis(), coalesceMillis));
+  }
+}
@@ -0,0 +1,128 @@
+package com.azdio.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+import javax.cache.event.EventType;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.azdio.cache.region.CacheRegionKind;
+import com.azdio.mdw.hazelcast.listeners.CacheEntryListenerRoutes;
+import com.azdio.mdw.hazelcast.listeners.CacheEntryListenersProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.cache.HazelcastCachingProvider;
+import com.hazelcast.cache.impl.HazelcastServerCachingProvider;
+
+/**
+ * A member configured with no {@code cache-entry-listeners}, the default: the subscribers are unknown, so a region
+ * still delivers its created, updated and removed events to the registered listeners.
+ */
+class CacheEntryListenerTest {
+
+  private static final String REGION = CacheRegionKind.DEFAULT_QUERY_RESULTS_REGION;
+  private static final long TIMEOUT_MILLIS = 5000;
+
+  private static final RecordingListener listener = new RecordingListener();
+  private static HazelcastService hazelcastService;
+  private static CacheManager cacheManager;
+
+  @BeforeAll
+  static void start() {
+    CacheEntryListenersProvider.getCacheEntryCreatedListeners().add(listener);
+    CacheEntryListenersProvider.getCacheEntryUpdatedListener().add(listener);
+    CacheEntryListenersProvider.getCacheEntryRemovedListener().add(listener);
+    CacheEntryListenerRoutes.clear();
+    hazelcastService = new HazelcastService(configuration(), new ObjectMapper());
+    hazelcastService.init();
+    cacheManager = Caching.getCachingProvider(HazelcastServerCachingProvider.class.getName())
+        .getCacheManager(null, null, HazelcastCachingProvider.propertiesByInstanceItself(hazelcastService.getHazelcastInstance()));
+  }
+
+  @AfterAll
+  static void stop() {
+    cacheManager.close();
+    hazelcastService.destroy();
+    hazelcastService.getHazelcastInstance().getLifecycleService().shutdown();
+    CacheEntryListenersProvider.getCacheEntryCreatedListeners().remove(listener);
+    CacheEntryListenersProvider.getCacheEntryUpdatedListener().remove(listener);
+    CacheEntryListenersProvider.getCacheEntryRemovedListener().remove(listener);
+    CacheEntryListenerRoutes.clear();
+  }
+
+  @Test
+  void defaultRegionDeliversCreatedUpdatedAndRemovedEvents() throws InterruptedException {
+    final Cache<String, String> cache = cacheManager.getCache(REGION);
+    cache.put("key", "v1");
+    cache.put("key", "v2");
+    cache.remove("key");
+
+    final List<EventType> expected = Arrays.asList(EventType.CREATED, EventType.UPDATED, EventType.REMOVED);
+    final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (listener.eventTypes.size() < expected.size() && System.currentTimeMillis() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(20);
+    }
+
+    assertEquals(expected, listener.eventTypes);
+  }
+
+  private static HazelcastConfiguration configuration() {
+    final HazelcastConfiguration.Config.Network.Join join = new HazelcastConfiguration.Config.Network.Join();
+    join.getTcpIp().setMembers(Collections.singletonList("127.0.0.1"));
+    final HazelcastConfiguration.Config.Network network = new HazelcastConfiguration.Config.Network();
+    network.setPort(5895);
+    network.setInterfaces(new HazelcastConfiguration.Config.Network.Interfaces());
+    network.setJoin(join);
+    final HazelcastConfiguration.Config.Group group = new HazelcastConfiguration.Config.Group();
+    group.setName("cache-entry-listener-test");
+    group.setPassword("cache-entry-listener-test");
+    final Properties properties = new Properties();
+    properties.setProperty("hazelcast.logging.type", "none");
+    properties.setProperty("hazelcast.phone.home.enabled", "false");
+    final HazelcastConfiguration.Config config = new HazelcastConfiguration.Config();
+    config.setInstanceName("cache-entry-listener-test");
+    config.setGroup(group);
+    config.setNetwork(network);
+    config.setProperties(properties);
+
+    final HazelcastConfiguration configuration = new HazelcastConfiguration();
+    configuration.setConfig(config);
+    return configuration;
+  }
+
+  private static final class RecordingListener implements CacheEntryCreatedListener<Object, Object>,
+      CacheEntryUpdatedListener<Object, Object>, CacheEntryRemovedListener<Object, Object> {
+
+    private final List<EventType> eventTypes = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void onCreated(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+      events.forEach(event -> eventTypes.add(event.getEventType()));
+    }
+
+    @Override
+    public void onUpdated(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+      events.forEach(event -> eventTypes.add(event.getEventType()));
+    }
+
+    @Override
+    public void onRemoved(final Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+      events.forEach(event -> eventTypes.add(event.getEventType()));
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.azdio.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.azdio.cache.region.CacheRegionKind;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.cache.HazelcastCachingProvider;
+import com.hazelcast.cache.ICache;
+import com.hazelcast.cache.impl.HazelcastServerCachingProvider;
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.cache.impl.HazelcastClientCachingProvider;
+import com.hazelcast.core.HazelcastInstance;
+
+/**
+ * Two clients configured from {@link HazelcastService#getClientConfig()} on one embedded member, with the near cache
+ * of the query results region enabled: a repeated read is served by the near cache, and a write of one client reaches
+ * the near cache of the other within the invalidation batch frequency.
+ */
+class NearCacheTest {
+
+  private static final String REGION = CacheRegionKind.DEFAULT_QUERY_RESULTS_REGION;
+  private static final int BATCH_FREQUENCY_SECONDS = 2;
+  /**
+   * Allowance for the invalidation to travel once its batch is sent.
+   */
+  private static final long DELIVERY_MILLIS = 1000;
+
+  private static HazelcastService hazelcastService;
+  private static CacheManager memberCacheManager;
+  private static HazelcastInstance writerClient;
+  private static HazelcastInstance readerClient;
+  private static CacheManager writerCacheManager;
+  private static CacheManager readerCacheManager;
+
+  @BeforeAll
+  static void start() {
+    hazelcastService = new HazelcastService(configuration(), new ObjectMapper());
+    hazelcastService.init();
+    memberCacheManager = cacheManager(hazelcastService.getHazelcastInstance());
+    writerClient = HazelcastClient.newHazelcastClient(hazelcastService.getClientConfig());
+    readerClient = HazelcastClient.newHazelcastClient(hazelcastService.getClientConfig());
+    writerCacheManager = clientCacheManager(writerClient);
+    readerCacheManager = clientCacheManager(readerClient);
+  }
+
+  @AfterAll
+  static void stop() {
+    readerCacheManager.close();
+    writerCacheManager.close();
+    readerClient.shutdown();
+    writerClient.shutdown();
+    memberCacheManager.close();
+    hazelcastService.destroy();
+    hazelcastService.getHazelcastInstance().getLifecycleService().shutdown();
+  }
+
+  @Test
+  void repeatedReadIsServedByTheNearCache() {
+    final Cache<String, String> writer = writerCacheManager.getCache(REGION);
+    final ICache<String, String> reader = readerCacheManager.getCache(REGION).unwrap(ICache.class);
+    writer.put("read", "v1");
+
+    assertEquals("v1", reader.get("read"));
+    final long memberGets = memberCache().getLocalCacheStatistics().getCacheGets();
+    final long nearCacheHits = reader.getLocalCacheStatistics().getNearCacheStatistics().getHits();
+    assertEquals("v1", reader.get("read"));
+    assertEquals("v1", reader.get("read"));
+
+    assertEquals(memberGets, memberCache().getLocalCacheStatistics().getCacheGets(), "remote gets");
+    assertEquals(nearCacheHits + 2, reader.getLocalCacheStatistics().getNearCacheStatistics().getHits(), "near cache hits");
+  }
+
+  @Test
+  void writeReachesTheOtherClientWithinTheBatchFrequency() throws InterruptedException {
+    final Cache<String, String> writer = writerCacheManager.getCache(REGION);
+    final Cache<String, String> reader = readerCacheManager.getCache(REGION);
+    writer.put("write", "v1");
+    assertEquals("v1", reader.get("write"));
+    assertEquals("v1", reader.get("write"));
+
+    writer.put("write", "v2");
+    final long start = System.nanoTime();
+    final long deadline = TimeUnit.SECONDS.toMillis(BATCH_FREQUENCY_SECONDS) + DELIVERY_MILLIS;
+    long elapsed = 0;
+    while (!"v2".equals(reader.get("write")) && elapsed <= deadline) {
+      TimeUnit.MILLISECONDS.sleep(20);
+      elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    assertEquals("v2", reader.get("write"));
+    assertTrue(elapsed <= deadline, "invalidation received after " + elapsed + " ms");
+  }
+
+  private static HazelcastConfiguration configuration() {
+    final HazelcastConfiguration.Config.Network.Join join = new HazelcastConfiguration.Config.Network.Join();
+    join.getTcpIp().setMembers(Collections.singletonList("127.0.0.1"));
+    final HazelcastConfiguration.Config.Network network = new HazelcastConfiguration.Config.Network();
+    network.setPort(5891);
+    network.setInterfaces(new HazelcastConfiguration.Config.Network.Interfaces());
+    network.setJoin(join);
+    final HazelcastConfiguration.Config.Group group = new HazelcastConfiguration.Config.Group();
+    group.setName("near-cache-test");
+    group.setPassword("near-cache-test");
+    final Properties properties = new Properties();
+    properties.setProperty("hazelcast.logging.type", "none");
+    properties.setProperty("hazelcast.phone.home.enabled", "false");
+    final HazelcastConfiguration.Config config = new HazelcastConfiguration.Config();
+    config.setInstanceName("near-cache-test");
+    config.setGroup(group);
+    config.setNetwork(network);
+    config.setProperties(properties);
+
+    final HazelcastConfiguration configuration = new HazelcastConfiguration();
+    configuration.setConfig(config);
+    final HazelcastConfiguration.CacheConfig cacheConfig = new HazelcastConfiguration.CacheConfig();
+    cacheConfig.getNearCache().setEnabled(true);
+    configuration.getCacheConfig().put(REGION, cacheConfig);
+    configuration.getNearCacheInvalidation().setBatchFrequencySeconds(BATCH_FREQUENCY_SECONDS);
+    return configuration;
+  }
+
+  private static CacheManager cacheManager(final HazelcastInstance member) {
+    return Caching.getCachingProvider(HazelcastServerCachingProvider.class.getName())
+        .getCacheManager(null, null, HazelcastCachingProvider.propertiesByInstanceItself(member));
+  }
+
+  private static ICache<String, String> memberCache() {
+    return memberCacheManager.getCache(REGION).unwrap(ICache.class);
+  }
+
+  /**
+   * From a provider of the client's own: {@link Caching} would give both clients the cache manager of the first one.
+   */
+  private static CacheManager clientCacheManager(final HazelcastInstance client) {
+    return HazelcastClientCachingProvider.createCachingProvider(client)
+        .getCacheManager(null, null, HazelcastCachingProvider.propertiesByInstanceItself(client));
+  }
+}
@@ -0,0 +1,136 @@
+package com.azdio.cache.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import com.azdio.cache.HazelcastConfiguration;
+import com.azdio.cache.HazelcastService;
+import com.azdio.cache.region.CacheRegionKind;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.cache.ICache;
+
+/**
+ * Two members snapshotting a region: after the whole cluster stops, both members restore their share when they start
+ * again one after the other; a member that rejoins a running cluster drops its snapshot instead.
+ */
+class RegionSnapshotsTest {
+
+  private static final String REGION = CacheRegionKind.DEFAULT_QUERY_RESULTS_REGION;
+  private static final int ENTRIES = 1000;
+
+  @Test
+  void everyMemberRestoresItsShareAfterAFullRestart() throws IOException {
+    final Path directory = Files.createTempDirectory("snapshots");
+    HazelcastService first = start("cold-restart", "member-0", directory);
+    HazelcastService second = start("cold-restart", "member-1", directory);
+    final ICache<Object, Object> cache = cache(first);
+    for (int i = 0; i < ENTRIES; i++) {
+      cache.put("key-" + i, "value-" + i);
+    }
+    // both members write before either leaves, as when the cluster is stopped at once
+    new RegionSnapshots(first).write();
+    new RegionSnapshots(second).write();
+    assertTrue(Files.exists(snapshot(directory, "member-0")));
+    assertTrue(Files.exists(snapshot(directory, "member-1")));
+    terminate(first);
+    terminate(second);
+
+    first = start("cold-restart", "member-0", directory);
+    second = start("cold-restart", "member-1", directory);
+    try {
+      assertEquals(ENTRIES, cache(second).size());
+      assertEquals("value-7", cache(first).get("key-7"));
+      assertFalse(Files.exists(snapshot(directory, "member-0")));
+      assertFalse(Files.exists(snapshot(directory, "member-1")));
+    } finally {
+      terminate(first);
+      terminate(second);
+    }
+  }
+
+  @Test
+  void memberRejoiningARunningClusterDropsItsSnapshot() throws IOException {
+    final Path directory = Files.createTempDirectory("snapshots");
+    final HazelcastService first = start("rolling-restart", "member-0", directory);
+    HazelcastService second = start("rolling-restart", "member-1", directory);
+    try {
+      final ICache<Object, Object> cache = cache(first);
+      for (int i = 0; i < ENTRIES; i++) {
+        cache.put("key-" + i, "value-" + i);
+      }
+      new RegionSnapshots(second).write();
+      terminate(second);
+      for (int i = 0; i < ENTRIES / 10; i++) {
+        cache.remove("key-" + i);
+      }
+
+      second = start("rolling-restart", "member-1", directory);
+      assertEquals(ENTRIES - ENTRIES / 10, cache(second).size());
+      assertNull(cache(second).get("key-0"));
+      assertFalse(Files.exists(snapshot(directory, "member-1")));
+    } finally {
+      terminate(first);
+      terminate(second);
+    }
+  }
+
+  private static HazelcastService start(final String groupName, final String instanceName, final Path directory) {
+    final HazelcastService hazelcastService = new HazelcastService(configuration(groupName, instanceName, directory),
+        new ObjectMapper());
+    hazelcastService.init();
+    return hazelcastService;
+  }
+
+  private static void terminate(final HazelcastService hazelcastService) {
+    hazelcastService.getHazelcastInstance().getLifecycleService().terminate();
+  }
+
+  private static ICache<Object, Object> cache(final HazelcastService hazelcastService) {
+    return hazelcastService.getHazelcastInstance().getCacheManager().getCache(REGION);
+  }
+
+  private static Path snapshot(final Path directory, final String instanceName) {
+    return directory.resolve(instanceName).resolve(REGION + ".snapshot");
+  }
+
+  private static HazelcastConfiguration configuration(final String groupName, final String instanceName,
+      final Path directory) {
+    final HazelcastConfiguration.Config.Network.Join join = new HazelcastConfiguration.Config.Network.Join();
+    join.getTcpIp().setMembers(Collections.singletonList("127.0.0.1"));
+    final HazelcastConfiguration.Config.Network network = new HazelcastConfiguration.Config.Network();
+    network.setPort(5897);
+    network.setInterfaces(new HazelcastConfiguration.Config.Network.Interfaces());
+    network.setJoin(join);
+    final HazelcastConfiguration.Config.Group group = new HazelcastConfiguration.Config.Group();
+    group.setName(groupName);
+    group.setPassword(groupName);
+    final Properties properties = new Properties();
+    properties.setProperty("hazelcast.logging.type", "none");
+    properties.setProperty("hazelcast.phone.home.enabled", "false");
+    final HazelcastConfiguration.Config config = new HazelcastConfiguration.Config();
+    config.setInstanceName(instanceName);
+    config.setGroup(group);
+    config.setNetwork(network);
+    config.setProperties(properties);
+
+    final HazelcastConfiguration configuration = new HazelcastConfiguration();
+    configuration.setConfig(config);
+    final HazelcastConfiguration.CacheConfig cacheConfig = new HazelcastConfiguration.CacheConfig();
+    cacheConfig.setBackupCount(1);
+    configuration.getCacheConfig().put(REGION, cacheConfig);
+    configuration.getSnapshot().setEnabled(true);
+    configuration.getSnapshot().setDirectory(directory.toString());
+    configuration.getSnapshot().setRegions(Collections.singletonList(REGION));
+    return configuration;
+  }
+}